@@ -0,0 +1,26 @@
+package com.running.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Lanza las suites de JMH y deja el resultado en JSON ({@code -Djmh.result}) para comparar
+ * entre versiones. {@code -Djmh.include} filtra por expresión regular sobre el nombre del benchmark.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(System.getProperty("jmh.include", "com.running.*"))
+                .resultFormat(ResultFormatType.JSON)
+                .result(System.getProperty("jmh.result", "target/jmh-result.json"))
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,92 @@
+package com.running.benchmarks;
+
+import com.running.model.Brand;
+import com.running.util.BrandListJsonConverter;
+import com.running.util.JsonConverter;
+import com.running.util.StringListJsonConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ida y vuelta de los AttributeConverter JSON (columnas features/brands de accessories y
+ * campos JSON genéricos): se ejecutan en cada carga y cada flush de esas entidades.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonConverterBenchmark {
+
+    private final StringListJsonConverter stringList = new StringListJsonConverter();
+    private final BrandListJsonConverter brandList = new BrandListJsonConverter();
+    private final JsonConverter json = new JsonConverter();
+
+    private List<String> features;
+    private String featuresJson;
+    private List<Brand> brands;
+    private String brandsJson;
+    private Map<String, Object> map;
+    private String mapJson;
+
+    @Setup
+    public void setUp() {
+        features = List.of("Gore-Tex", "Vibram Megagrip", "Drop 6 mm", "280 g", "Placa de carbono");
+        brands = List.of(
+                new Brand("Salomon", "salomon.png", "https://salomon.com"),
+                new Brand("Hoka", "hoka.png", "https://hoka.com"),
+                new Brand("Brooks", "brooks.png", "https://brooksrunning.com"));
+        map = new LinkedHashMap<>();
+        map.put("semanas", 12);
+        map.put("nivel", "intermedio");
+        map.put("dias", List.of("lunes", "miércoles", "sábado"));
+
+        featuresJson = stringList.convertToDatabaseColumn(features);
+        brandsJson = brandList.convertToDatabaseColumn(brands);
+        mapJson = json.convertToDatabaseColumn(map);
+    }
+
+    @Benchmark
+    public String stringListWrite() {
+        return stringList.convertToDatabaseColumn(features);
+    }
+
+    @Benchmark
+    public List<String> stringListRead() {
+        return stringList.convertToEntityAttribute(featuresJson);
+    }
+
+    @Benchmark
+    public String brandListWrite() {
+        return brandList.convertToDatabaseColumn(brands);
+    }
+
+    @Benchmark
+    public List<Brand> brandListRead() {
+        return brandList.convertToEntityAttribute(brandsJson);
+    }
+
+    @Benchmark
+    public Map<String, Object> mapRoundTrip() {
+        return json.convertToEntityAttribute(json.convertToDatabaseColumn(map));
+    }
+
+    @Benchmark
+    public Map<String, Object> mapRead() {
+        return json.convertToEntityAttribute(mapJson);
+    }
+}
@@ -0,0 +1,137 @@
+package com.running.benchmarks;
+
+import com.running.model.Difficulty;
+import com.running.model.Race;
+import com.running.model.Type;
+import com.running.repository.DifficultyRepository;
+import com.running.repository.RaceRepository;
+import com.running.repository.RaceSpecifications;
+import com.running.repository.TypeRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /api/races/filter a nivel de repositorio (RaceSpecifications + entity graph de RaceRepository)
+ * sobre H2 en memoria en modo MySQL: sin MySQL ni contenedores, así que mide sobre todo el coste
+ * de Hibernate (consulta criteria, hidratación) más que el de la base de datos real.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RaceFilterBenchmark {
+
+    private static final String[] PROVINCES = {"Huelva", "Sevilla", "Cádiz", "Málaga", "Córdoba", "Granada", "Jaén", "Almería"};
+    private static final Sort DEFAULT_SORT = Sort.by(Sort.Order.asc("date"), Sort.Order.asc("id"));
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EnableJpaRepositories(basePackages = "com.running.repository")
+    @EntityScan(basePackages = "com.running.model")
+    static class EmbeddedDb {
+    }
+
+    @Param({"10000"})
+    public int races;
+
+    private ConfigurableApplicationContext context;
+    private RaceRepository raceRepository;
+    private Long typeId;
+    private LocalDateTime now;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(EmbeddedDb.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:races;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE",
+                        "spring.datasource.username=sa",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.jpa.open-in-view=false",
+                        "spring.jpa.properties.hibernate.jdbc.batch_size=500",
+                        "spring.flyway.enabled=false",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN")
+                .run();
+        raceRepository = context.getBean(RaceRepository.class);
+
+        Type asfalto = context.getBean(TypeRepository.class).save(Type.builder().name("Asfalto").build());
+        Type trail = context.getBean(TypeRepository.class).save(Type.builder().name("Trail").build());
+        Difficulty media = context.getBean(DifficultyRepository.class).save(Difficulty.builder().name("Media").build());
+        typeId = trail.getId_type();
+
+        now = LocalDateTime.now();
+        List<Race> batch = new ArrayList<>(races);
+        for (int i = 0; i < races; i++) {
+            batch.add(Race.builder()
+                    .name("Carrera " + i)
+                    .place("Pueblo " + i % 200)
+                    .province(PROVINCES[i % PROVINCES.length])
+                    .distance_km(5.0 + i % 40)
+                    .date(now.minusDays(365).plusHours(i * 2L))
+                    .registered(i % 300)
+                    .type(i % 3 == 0 ? trail : asfalto)
+                    .difficulty(media)
+                    .build());
+        }
+        raceRepository.saveAll(batch);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Race> byProvince() {
+        return raceRepository.findAll(
+                RaceSpecifications.filter("Huelva", null, null, null, null, null, now), DEFAULT_SORT);
+    }
+
+    @Benchmark
+    public List<Race> byProvinceTypeAndUpcoming() {
+        return raceRepository.findAll(
+                RaceSpecifications.filter("Sevilla", typeId, null, null, null, false, now), DEFAULT_SORT);
+    }
+
+    @Benchmark
+    public Page<Race> byProvinceFirstPage() {
+        return raceRepository.findAll(
+                RaceSpecifications.filter("Huelva", null, null, null, null, null, now), PageRequest.of(0, 20, DEFAULT_SORT));
+    }
+
+    @Benchmark
+    public Page<Race> dateRangePage() {
+        return raceRepository.findAll(
+                RaceSpecifications.filter(null, null, null, now.minusDays(30), now.plusDays(30), null, now),
+                PageRequest.of(1, 50, DEFAULT_SORT));
+    }
+}
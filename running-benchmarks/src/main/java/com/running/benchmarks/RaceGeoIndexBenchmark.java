@@ -0,0 +1,107 @@
+package com.running.benchmarks;
+
+import com.running.model.GeoPoint;
+import com.running.model.RaceNearPageDto;
+import com.running.model.RaceSummaryDto;
+import com.running.service.RaceGeoIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /api/races/near sobre RaceGeoIndex (rejilla de 0,1°) frente a recorrer todas las carreras
+ * calculando la distancia de cada una. Carreras repartidas por la península, la mitad concentradas
+ * alrededor de unas pocas ciudades (como en los datos reales); búsquedas desde puntos al azar.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RaceGeoIndexBenchmark {
+
+    private static final double[][] CITIES = {
+            {40.4168, -3.7038}, {41.3874, 2.1686}, {37.3891, -5.9845}, {39.4699, -0.3763}, {37.2614, -6.9447}
+    };
+    private static final int QUERIES = 1024;
+
+    @Param({"100000"})
+    public int races;
+
+    @Param({"10", "50", "200"})
+    public double radiusKm;
+
+    private final RaceGeoIndex index = new RaceGeoIndex();
+    private List<RaceSummaryDto> all;
+    private double[][] points;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void load() {
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+        all = new ArrayList<>(races);
+        for (int i = 0; i < races; i++) {
+            double lat;
+            double lon;
+            if (i % 2 == 0) {
+                double[] city = CITIES[random.nextInt(CITIES.length)];
+                lat = city[0] + random.nextGaussian() * 0.3;
+                lon = city[1] + random.nextGaussian() * 0.3;
+            } else {
+                lat = 36.0 + random.nextDouble() * 7.7;
+                lon = -9.3 + random.nextDouble() * 12.6;
+            }
+            all.add(new RaceSummaryDto((long) i + 1, "Carrera " + i, null, null, 10.0, now.plusHours(i),
+                    null, 0, 1L, "Asfalto", 1L, "Media", lat, lon));
+        }
+        index.rebuild(all);
+
+        points = new double[QUERIES][];
+        for (int q = 0; q < QUERIES; q++) {
+            double[] city = CITIES[random.nextInt(CITIES.length)];
+            points[q] = q % 2 == 0
+                    ? new double[]{city[0] + random.nextGaussian() * 0.2, city[1] + random.nextGaussian() * 0.2}
+                    : new double[]{36.0 + random.nextDouble() * 7.7, -9.3 + random.nextDouble() * 12.6};
+        }
+    }
+
+    @Benchmark
+    public RaceNearPageDto grid() {
+        double[] p = points[next++ & (QUERIES - 1)];
+        return index.near(p[0], p[1], radiusKm, null, 0, 20);
+    }
+
+    /** Lo que haría una consulta sin índice: distancia a todas, filtrar, ordenar y cortar. */
+    @Benchmark
+    public List<RaceSummaryDto> linearScan() {
+        double[] p = points[next++ & (QUERIES - 1)];
+        List<double[]> hits = new ArrayList<>();
+        for (int i = 0; i < all.size(); i++) {
+            RaceSummaryDto r = all.get(i);
+            double d = GeoPoint.distanceKm(p[0], p[1], r.getLatitude(), r.getLongitude());
+            if (d <= radiusKm) hits.add(new double[]{d, i});
+        }
+        hits.sort(Comparator.comparingDouble(h -> h[0]));
+        List<RaceSummaryDto> out = new ArrayList<>(20);
+        for (int k = 0; k < Math.min(20, hits.size()); k++) out.add(all.get((int) hits.get(k)[1]));
+        return out;
+    }
+}
@@ -0,0 +1,78 @@
+package com.running.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.running.model.Difficulty;
+import com.running.model.Race;
+import com.running.model.RaceResponseDto;
+import com.running.model.Type;
+import com.running.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de serializar la respuesta de los listados de carreras: la entidad tal cual frente a
+ * {@link RaceResponseDto} (mapeo incluido), con un ObjectMapper configurado como el de Spring.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RaceSerializationBenchmark {
+
+    @Param({"50", "500"})
+    public int size;
+
+    private ObjectMapper mapper;
+    private List<Race> races;
+
+    @Setup
+    public void setUp() {
+        mapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        Type asfalto = new Type(1L, "Asfalto");
+        Difficulty media = new Difficulty(2L, "Media");
+        User organizer = User.builder().id(3L).UID("uid-3").name("Org").build();
+        LocalDateTime base = LocalDateTime.of(2026, 3, 1, 9, 0);
+
+        races = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            races.add(Race.builder()
+                    .id((long) i).name("Carrera " + i).place("Huelva").province("Huelva")
+                    .photo("https://cdn.example.com/races/" + i + ".jpg").url("https://example.com/" + i)
+                    .distance_km(10.0 + i % 30).date(base.plusDays(i)).slope(120).registered(i % 400)
+                    .capacity(i % 3 == 0 ? null : 500)
+                    .type(asfalto).difficulty(media).organizer(organizer)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public byte[] entities() throws Exception {
+        return mapper.writeValueAsBytes(races);
+    }
+
+    @Benchmark
+    public byte[] responseDtos() throws Exception {
+        return mapper.writeValueAsBytes(races.stream().map(RaceResponseDto::from).toList());
+    }
+}
@@ -0,0 +1,79 @@
+package com.running.benchmarks;
+
+import com.running.model.Accessories;
+import com.running.model.AccessoriesDto;
+import com.running.model.Brand;
+import com.running.model.Club;
+import com.running.model.ClubDto;
+import com.running.model.MarcaDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminos calientes de los servicios que no tocan la base de datos: parseo de tiempos de las
+ * marcas (MarcaDto.parseTime) y mapeo entidad → DTO (ClubDto.from, AccessoriesDto.from), que
+ * son lo que usan UserRaceService, ClubService y AccessoriesService.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServiceMappingBenchmark {
+
+    /** Formatos que admite el endpoint de marcas (HH:mm:ss, HH:mm, HH). */
+    @State(Scope.Benchmark)
+    public static class Tiempos {
+        @Param({"01:23:45", "15:45", "3"})
+        public String tiempo;
+    }
+
+    private Club club;
+    private Accessories accessories;
+
+    @Setup
+    public void setUp() {
+        club = Club.builder()
+                .id(42L).name("Club Atletismo Huelva").province("Huelva").place("Huelva")
+                .photo("https://cdn.example.com/clubs/42.jpg").members(312).contact("info@cah.es")
+                .build();
+        accessories = Accessories.builder()
+                .id(7L).title("Zapatillas de trail").description("Amortiguación media, drop 6 mm")
+                .photo("https://cdn.example.com/acc/7.jpg")
+                .features(List.of("Gore-Tex", "Vibram", "Drop 6 mm", "280 g"))
+                .brands(List.of(
+                        new Brand("Salomon", "salomon.png", "https://salomon.com"),
+                        new Brand("Hoka", "hoka.png", "https://hoka.com"),
+                        new Brand("Brooks", "brooks.png", "https://brooksrunning.com")))
+                .build();
+    }
+
+    @Benchmark
+    public LocalTime parseTime(Tiempos t) {
+        return MarcaDto.parseTime(t.tiempo);
+    }
+
+    @Benchmark
+    public ClubDto clubToDto() {
+        return ClubDto.from(club, true);
+    }
+
+    @Benchmark
+    public AccessoriesDto accessoriesToDto() {
+        return AccessoriesDto.from(accessories);
+    }
+}
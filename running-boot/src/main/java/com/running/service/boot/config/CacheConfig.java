@@ -0,0 +1,34 @@
+package com.running.service.boot.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.running.service.CacheNames;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Activa las cachés de Spring. El CacheManager (Caffeine) y sus cachés se configuran en
+ * application.yml (spring.cache.*); las métricas cache.gets/cache.puts/cache.evictions
+ * se publican en /actuator/metrics.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /** La caché UID→rol necesita un TTL mucho más corto que los datos de referencia. */
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> userRolesCacheCustomizer(
+            @Value("${running.cache.user-roles.ttl:30s}") Duration ttl) {
+        return cacheManager -> cacheManager.registerCustomCache(CacheNames.USER_ROLES,
+                Caffeine.newBuilder()
+                        .expireAfterWrite(ttl)
+                        .maximumSize(10_000)
+                        .recordStats()
+                        .build());
+    }
+}
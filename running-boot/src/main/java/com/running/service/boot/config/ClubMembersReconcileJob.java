@@ -0,0 +1,40 @@
+package com.running.service.boot.config;
+
+import com.running.service.ClubMembersReconciler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Lanza {@link ClubMembersReconciler} cada {@code running.club-members.reconcile.interval} y publica
+ * lo que encuentra:
+ * <ul>
+ *   <li>{@code running.club.members.drift.clubs}: clubs con club.members desviado</li>
+ *   <li>{@code running.club.members.drift.members}: suma de la desviación (|members - filas de user_club|)</li>
+ * </ul>
+ * Si los contadores crecen, algún camino está tocando user_club sin actualizar club.members.
+ */
+public class ClubMembersReconcileJob {
+
+    private final ClubMembersReconciler reconciler;
+    private final Counter driftClubs;
+    private final Counter driftMembers;
+
+    public ClubMembersReconcileJob(ClubMembersReconciler reconciler, MeterRegistry registry) {
+        this.reconciler = reconciler;
+        this.driftClubs = Counter.builder("running.club.members.drift.clubs")
+                .description("Clubs cuyo contador de miembros no coincidía con user_club")
+                .register(registry);
+        this.driftMembers = Counter.builder("running.club.members.drift.members")
+                .description("Desviación total del contador de miembros corregida")
+                .register(registry);
+    }
+
+    @Scheduled(initialDelayString = "${running.club-members.reconcile.initial-delay:PT1M}",
+            fixedDelayString = "${running.club-members.reconcile.interval:PT15M}")
+    public void run() {
+        ClubMembersReconciler.Result result = reconciler.reconcile();
+        driftClubs.increment(result.drifted());
+        driftMembers.increment(result.drift());
+    }
+}
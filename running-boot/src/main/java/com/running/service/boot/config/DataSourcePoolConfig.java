@@ -0,0 +1,17 @@
+package com.running.service.boot.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/** Dimensionado del pool por núcleos (perfil prod, o running.datasource.pool.size-from-cores=true). */
+@Configuration
+@ConditionalOnProperty(name = "running.datasource.pool.size-from-cores", havingValue = "true")
+public class DataSourcePoolConfig {
+
+    @Bean
+    public static HikariPoolSizingPostProcessor hikariPoolSizingPostProcessor(Environment env) {
+        return new HikariPoolSizingPostProcessor(env);
+    }
+}
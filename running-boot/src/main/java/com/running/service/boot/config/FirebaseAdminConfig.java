@@ -4,11 +4,14 @@ import com.google.auth.oauth2.GoogleCredentials;
 import com.google.firebase.FirebaseApp;
 import com.google.firebase.FirebaseOptions;
 import jakarta.annotation.PostConstruct;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Configuration;
 
 import java.io.InputStream;
 
+// Con running.firebase.mode=fake no hace falta la clave de Firebase
 @Configuration
+@ConditionalOnProperty(name = "running.firebase.mode", havingValue = "admin", matchIfMissing = true)
 public class FirebaseAdminConfig {
 
     @PostConstruct
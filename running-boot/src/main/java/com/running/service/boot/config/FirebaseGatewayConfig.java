@@ -0,0 +1,37 @@
+package com.running.service.boot.config;
+
+import com.running.service.FirebaseAdminGateway;
+import com.running.service.FirebaseGateway;
+import com.running.service.GuardedFirebaseGateway;
+import com.running.service.InMemoryFirebaseGateway;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * {@link FirebaseGateway} de la aplicación: el SDK real ({@code running.firebase.mode=admin}, por defecto)
+ * o uno en memoria ({@code fake}), siempre detrás del pool acotado con timeout y circuito.
+ */
+@Configuration
+public class FirebaseGatewayConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public GuardedFirebaseGateway firebaseGateway(
+            @Value("${running.firebase.mode:admin}") String mode,
+            @Value("${running.firebase.pool-size:16}") int poolSize,
+            @Value("${running.firebase.queue-capacity:100}") int queueCapacity,
+            @Value("${running.firebase.timeout:5s}") Duration timeout,
+            @Value("${running.firebase.circuit.failure-threshold:5}") int failureThreshold,
+            @Value("${running.firebase.circuit.open-duration:30s}") Duration openDuration,
+            @Value("${running.firebase.delete-retry.max-attempts:5}") int maxAttempts,
+            @Value("${running.firebase.delete-retry.initial-backoff:1s}") Duration initialBackoff) {
+        FirebaseGateway delegate = "fake".equalsIgnoreCase(mode)
+                ? new InMemoryFirebaseGateway()
+                : new FirebaseAdminGateway();
+        return new GuardedFirebaseGateway(delegate, poolSize, queueCapacity, timeout,
+                failureThreshold, openDuration, maxAttempts, initialBackoff);
+    }
+}
@@ -0,0 +1,50 @@
+package com.running.service.boot.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.env.Environment;
+
+/**
+ * Tamaño del pool según los núcleos: {@code núcleos * multiplier + spindles} (fórmula de HikariCP),
+ * acotado a [min, max]. Solo si no se ha fijado spring.datasource.hikari.maximum-pool-size; si
+ * tampoco hay minimum-idle, el pool queda fijo (min = max) para no abrir conexiones bajo carga.
+ *
+ * Corre antes de que Hikari arranque el pool (el pool se abre con la primera getConnection()),
+ * y después de que Spring Boot haya enlazado las propiedades spring.datasource.hikari.*.
+ */
+public class HikariPoolSizingPostProcessor implements BeanPostProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(HikariPoolSizingPostProcessor.class);
+
+    private final Environment env;
+
+    public HikariPoolSizingPostProcessor(Environment env) {
+        this.env = env;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (!(bean instanceof HikariDataSource hikari)
+                || env.containsProperty("spring.datasource.hikari.maximum-pool-size")) {
+            return bean;
+        }
+        int size = poolSize(Runtime.getRuntime().availableProcessors(),
+                env.getProperty("running.datasource.pool.multiplier", Integer.class, 2),
+                env.getProperty("running.datasource.pool.spindles", Integer.class, 1),
+                env.getProperty("running.datasource.pool.min", Integer.class, 10),
+                env.getProperty("running.datasource.pool.max", Integer.class, 50));
+        hikari.setMaximumPoolSize(size);
+        if (!env.containsProperty("spring.datasource.hikari.minimum-idle")) {
+            hikari.setMinimumIdle(size);
+        }
+        log.info("Pool {}: maximum-pool-size={} a partir de {} núcleos", beanName, size,
+                Runtime.getRuntime().availableProcessors());
+        return bean;
+    }
+
+    public static int poolSize(int cores, int multiplier, int spindles, int min, int max) {
+        return Math.max(min, Math.min(max, cores * multiplier + spindles));
+    }
+}
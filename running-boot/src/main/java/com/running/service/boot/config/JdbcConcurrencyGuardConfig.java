@@ -0,0 +1,25 @@
+package com.running.service.boot.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/** Activa {@link JdbcConcurrencyGuardFilter} (perfil vthreads, o running.jdbc-guard.enabled=true). */
+@Configuration
+@ConditionalOnProperty(name = "running.jdbc-guard.enabled", havingValue = "true")
+public class JdbcConcurrencyGuardConfig {
+
+    @Bean
+    public FilterRegistrationBean<JdbcConcurrencyGuardFilter> jdbcConcurrencyGuardFilter(
+            @Value("${running.jdbc-guard.max-concurrent:${spring.datasource.hikari.maximum-pool-size:10}}") int maxConcurrent,
+            @Value("${running.jdbc-guard.acquire-timeout:2s}") Duration acquireTimeout) {
+        FilterRegistrationBean<JdbcConcurrencyGuardFilter> registration =
+                new FilterRegistrationBean<>(new JdbcConcurrencyGuardFilter(maxConcurrent, acquireTimeout));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
@@ -0,0 +1,23 @@
+package com.running.service.boot.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Métricas propias. El resto viene de Spring Boot:
+ * <ul>
+ *   <li>{@code http.server.requests}: por ruta (tag uri = patrón del controlador, p. ej. /api/races/getAll)</li>
+ *   <li>{@code spring.data.repository.invocations}: por repositorio y método de com.running.repository</li>
+ *   <li>{@code hibernate.*}: sentencias, cargas de entidades, caché de segundo nivel (hibernate-micrometer)</li>
+ * </ul>
+ * Todo se publica en /actuator/prometheus.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public ServiceMetricsAspect serviceMetricsAspect(MeterRegistry registry) {
+        return new ServiceMetricsAspect(registry);
+    }
+}
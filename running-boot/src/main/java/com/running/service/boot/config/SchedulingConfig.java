@@ -0,0 +1,20 @@
+package com.running.service.boot.config;
+
+import com.running.service.ClubMembersReconciler;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/** Tareas periódicas (running.club-members.reconcile.enabled=false las desactiva). */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "running.club-members.reconcile.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+
+    @Bean
+    public ClubMembersReconcileJob clubMembersReconcileJob(ClubMembersReconciler reconciler, MeterRegistry registry) {
+        return new ClubMembersReconcileJob(reconciler, registry);
+    }
+}
@@ -0,0 +1,45 @@
+package com.running.service.boot.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+/**
+ * Timer {@code running.service.invocations} (tags class, method, exception) en cada método
+ * público de los @Service de com.running.service. Va por fuera de @Transactional, así que el
+ * tiempo incluye el commit. Las llamadas internas (this.metodo()) no pasan por el proxy.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServiceMetricsAspect {
+
+    static final String METRIC = "running.service.invocations";
+
+    private final MeterRegistry registry;
+
+    public ServiceMetricsAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("@within(org.springframework.stereotype.Service) && execution(public * com.running.service.*.*(..))")
+    public Object time(ProceedingJoinPoint pjp) throws Throwable {
+        Timer.Sample sample = Timer.start(registry);
+        String exception = "none";
+        try {
+            return pjp.proceed();
+        } catch (Throwable t) {
+            exception = t.getClass().getSimpleName();
+            throw t;
+        } finally {
+            sample.stop(Timer.builder(METRIC)
+                    .tag("class", pjp.getSignature().getDeclaringType().getSimpleName())
+                    .tag("method", pjp.getSignature().getName())
+                    .tag("exception", exception)
+                    .register(registry));
+        }
+    }
+}
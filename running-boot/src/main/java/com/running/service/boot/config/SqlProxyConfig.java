@@ -0,0 +1,73 @@
+package com.running.service.boot.config;
+
+import com.running.service.boot.sql.SqlBudgetFilter;
+import com.running.service.boot.sql.SqlInspector;
+import com.running.service.boot.sql.SqlLogEndpoint;
+import com.running.service.boot.sql.SqlLogListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Envuelve el DataSource con datasource-proxy y le cuelga dos listeners:
+ * <ul>
+ *   <li>{@link SqlInspector}: sentencias y tiempo de BD por petición, para {@link SqlBudgetFilter}
+ *       (se quita el filtro con running.sql-inspector.enabled=false).</li>
+ *   <li>{@link SqlLogListener}: log de SQL muestreado y asíncrono (running.sql-log, /actuator/sqllog).</li>
+ * </ul>
+ */
+@Configuration
+public class SqlProxyConfig {
+
+    @Bean
+    public static SqlLogListener sqlLogListener(Environment env) {
+        return new SqlLogListener(
+                env.getProperty("running.sql-log.enabled", Boolean.class, false),
+                env.getProperty("running.sql-log.sample-rate", Double.class, 0.01),
+                env.getProperty("running.sql-log.include-parameters", Boolean.class, false));
+    }
+
+    @Bean
+    public static BeanPostProcessor sqlDataSourceProxy(ObjectProvider<SqlLogListener> sqlLog) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(new SqlInspector())
+                            .listener(sqlLog.getObject())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public SqlLogEndpoint sqlLogEndpoint(SqlLogListener sqlLogListener) {
+        return new SqlLogEndpoint(sqlLogListener);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "running.sql-inspector.enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<SqlBudgetFilter> sqlBudgetFilter(
+            @Value("${running.sql-inspector.max-statements:20}") int maxStatements,
+            @Value("${running.sql-inspector.max-db-time:500ms}") Duration maxDbTime,
+            @Value("${running.sql-inspector.repeat-threshold:5}") int repeatThreshold) {
+        FilterRegistrationBean<SqlBudgetFilter> registration =
+                new FilterRegistrationBean<>(new SqlBudgetFilter(maxStatements, maxDbTime, repeatThreshold));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
@@ -0,0 +1,78 @@
+package com.running.service.boot.sql;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cuenta las sentencias y el tiempo de BD de cada petición y deja un warning estructurado
+ * (clave=valor, una línea) si supera el presupuesto:
+ * <ul>
+ *   <li>{@code statements}: más de {@code maxStatements} sentencias</li>
+ *   <li>{@code db_time}: más de {@code maxDbTime} en BD</li>
+ *   <li>{@code n_plus_one}: la misma forma de SQL repetida más de {@code repeatThreshold} veces</li>
+ * </ul>
+ */
+public class SqlBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlBudgetFilter.class);
+    private static final int MAX_SHAPE_LENGTH = 300;
+
+    private final int maxStatements;
+    private final Duration maxDbTime;
+    private final int repeatThreshold;
+
+    public SqlBudgetFilter(int maxStatements, Duration maxDbTime, int repeatThreshold) {
+        this.maxStatements = maxStatements;
+        this.maxDbTime = maxDbTime;
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try (SqlInspector.Scope scope = SqlInspector.open()) {
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                report(request, response, scope.stats());
+            }
+        }
+    }
+
+    /** Motivos por los que la petición se sale del presupuesto (vacío si no se sale). */
+    public List<String> violations(SqlStats stats) {
+        List<String> reasons = new ArrayList<>(3);
+        if (stats.statements() > maxStatements) reasons.add("statements");
+        if (stats.elapsedMillis() > maxDbTime.toMillis()) reasons.add("db_time");
+        Map.Entry<String, Integer> top = stats.mostRepeated();
+        if (top != null && top.getValue() > repeatThreshold) reasons.add("n_plus_one");
+        return reasons;
+    }
+
+    private void report(HttpServletRequest request, HttpServletResponse response, SqlStats stats) {
+        List<String> reasons = violations(stats);
+        if (reasons.isEmpty()) return;
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Map.Entry<String, Integer> top = stats.mostRepeated();
+        String shape = top.getKey().length() > MAX_SHAPE_LENGTH
+                ? top.getKey().substring(0, MAX_SHAPE_LENGTH) + "..."
+                : top.getKey();
+        log.warn("sql_budget_exceeded reasons={} method={} route={} status={} statements={} db_time_ms={} top_shape_count={} top_shape=\"{}\"",
+                String.join(",", reasons), request.getMethod(),
+                pattern != null ? pattern : request.getRequestURI(), response.getStatus(),
+                stats.statements(), stats.elapsedMillis(), top.getValue(), shape);
+    }
+}
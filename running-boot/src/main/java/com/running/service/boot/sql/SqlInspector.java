@@ -0,0 +1,77 @@
+package com.running.service.boot.sql;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Listener de datasource-proxy que apunta cada sentencia en el ámbito abierto en el hilo actual
+ * ({@link #open()}). Sin ámbito abierto no hace nada, así que fuera de las peticiones HTTP
+ * (jobs, arranque, hilos de la cola) no cuesta más que un ThreadLocal.get().
+ *
+ * Los ámbitos se pueden anidar: al cerrarse, el interior suma sus sentencias al exterior
+ * (un test que envuelve una llamada a MockMvc ve lo que contó el filtro de la petición).
+ */
+public class SqlInspector implements QueryExecutionListener {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    public static Scope open() {
+        Scope scope = new Scope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Scope scope = CURRENT.get();
+        if (scope == null || queryInfoList.isEmpty()) return;
+        // Un lote JDBC es un único viaje a la BD: cuenta como una sentencia
+        scope.stats.record(shapeOf(queryInfoList.get(0).getQuery()), execInfo.getElapsedTime());
+    }
+
+    /** SQL sin literales, con las listas IN (?, ?, ...) reducidas a (?) y espacios normalizados. */
+    public static String shapeOf(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("(?)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim().toLowerCase(Locale.ROOT);
+    }
+
+    public static final class Scope implements AutoCloseable {
+
+        private final Scope parent;
+        private final SqlStats stats = new SqlStats();
+
+        private Scope(Scope parent) {
+            this.parent = parent;
+        }
+
+        public SqlStats stats() {
+            return stats;
+        }
+
+        @Override
+        public void close() {
+            if (parent == null) {
+                CURRENT.remove();
+            } else {
+                parent.stats.addAll(stats);
+                CURRENT.set(parent);
+            }
+        }
+    }
+}
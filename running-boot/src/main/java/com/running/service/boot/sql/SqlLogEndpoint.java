@@ -0,0 +1,40 @@
+package com.running.service.boot.sql;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+
+import java.util.Map;
+
+/**
+ * /actuator/sqllog: consulta y cambia en caliente el log de SQL muestreado.
+ *
+ *   curl -X POST localhost:8080/actuator/sqllog -H 'Content-Type: application/json' \
+ *        -d '{"enabled": true, "sampleRate": 0.05, "includeParameters": true}'
+ */
+@Endpoint(id = "sqllog")
+public class SqlLogEndpoint {
+
+    private final SqlLogListener listener;
+
+    public SqlLogEndpoint(SqlLogListener listener) {
+        this.listener = listener;
+    }
+
+    @ReadOperation
+    public Map<String, Object> settings() {
+        return Map.of(
+                "enabled", listener.isEnabled(),
+                "sampleRate", listener.getSampleRate(),
+                "includeParameters", listener.isIncludeParameters());
+    }
+
+    @WriteOperation
+    public Map<String, Object> update(@Nullable Boolean enabled,
+                                      @Nullable Double sampleRate,
+                                      @Nullable Boolean includeParameters) {
+        listener.update(enabled, sampleRate, includeParameters);
+        return settings();
+    }
+}
@@ -0,0 +1,102 @@
+package com.running.service.boot.sql;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Log de SQL muestreado, sustituto de show-sql. Escribe una línea clave=valor por sentencia en
+ * el logger {@code running.sql}, que logback-spring.xml manda a un AsyncAppender que no bloquea
+ * (si la cola se llena, se descartan líneas en lugar de frenar la petición).
+ *
+ * Se configura en running.sql-log y se cambia en caliente con /actuator/sqllog:
+ * {@code enabled}, {@code sampleRate} (0..1) e {@code includeParameters}.
+ */
+public class SqlLogListener implements QueryExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger("running.sql");
+    private static final int MAX_PARAMETER_LENGTH = 100;
+
+    private volatile boolean enabled;
+    private volatile double sampleRate;
+    private volatile boolean includeParameters;
+
+    public SqlLogListener(boolean enabled, double sampleRate, boolean includeParameters) {
+        this.enabled = enabled;
+        this.sampleRate = clamp(sampleRate);
+        this.includeParameters = includeParameters;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (!enabled || !log.isInfoEnabled() || queryInfoList.isEmpty()) return;
+        if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) return;
+
+        QueryInfo query = queryInfoList.get(0);
+        if (includeParameters) {
+            log.info("sql elapsed_ms={} success={} batch={} batch_size={} statements={} params={} query=\"{}\"",
+                    execInfo.getElapsedTime(), execInfo.isSuccess(), execInfo.isBatch(), execInfo.getBatchSize(),
+                    queryInfoList.size(), parameters(query), oneLine(query.getQuery()));
+        } else {
+            log.info("sql elapsed_ms={} success={} batch={} batch_size={} statements={} query=\"{}\"",
+                    execInfo.getElapsedTime(), execInfo.isSuccess(), execInfo.isBatch(), execInfo.getBatchSize(),
+                    queryInfoList.size(), oneLine(query.getQuery()));
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public boolean isIncludeParameters() {
+        return includeParameters;
+    }
+
+    public void update(Boolean enabled, Double sampleRate, Boolean includeParameters) {
+        if (enabled != null) this.enabled = enabled;
+        if (sampleRate != null) this.sampleRate = clamp(sampleRate);
+        if (includeParameters != null) this.includeParameters = includeParameters;
+    }
+
+    // ---- Helpers ----
+
+    /** Parámetros de la primera fila (en un lote, solo la primera para no inflar la línea). */
+    private static String parameters(QueryInfo query) {
+        if (query.getParametersList().isEmpty()) return "[]";
+        return query.getParametersList().get(0).stream()
+                .sorted((a, b) -> Integer.compare(index(a), index(b)))
+                .map(p -> abbreviate(String.valueOf(p.getArgs()[p.getArgs().length > 1 ? 1 : 0])))
+                .collect(Collectors.joining(",", "[", "]"));
+    }
+
+    private static int index(ParameterSetOperation p) {
+        return p.getArgs()[0] instanceof Integer i ? i : 0;
+    }
+
+    private static String abbreviate(String value) {
+        return value.length() > MAX_PARAMETER_LENGTH ? value.substring(0, MAX_PARAMETER_LENGTH) + "..." : value;
+    }
+
+    private static String oneLine(String sql) {
+        return sql.replaceAll("\\s+", " ").trim();
+    }
+
+    private static double clamp(double rate) {
+        return Math.max(0.0, Math.min(1.0, rate));
+    }
+}
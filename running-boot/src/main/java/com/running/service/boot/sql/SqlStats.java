@@ -0,0 +1,47 @@
+package com.running.service.boot.sql;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sentencias ejecutadas en un ámbito de {@link SqlInspector} (una petición HTTP o un bloque de
+ * test): número de ejecuciones, tiempo total en BD y cuántas veces se repite cada forma de SQL.
+ * Solo se usa desde el hilo que abrió el ámbito.
+ */
+public final class SqlStats {
+
+    private int statements;
+    private long elapsedMillis;
+    private final Map<String, Integer> shapes = new HashMap<>();
+
+    void record(String shape, long millis) {
+        statements++;
+        elapsedMillis += millis;
+        shapes.merge(shape, 1, Integer::sum);
+    }
+
+    void addAll(SqlStats other) {
+        statements += other.statements;
+        elapsedMillis += other.elapsedMillis;
+        other.shapes.forEach((shape, n) -> shapes.merge(shape, n, Integer::sum));
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    public long elapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /** Forma normalizada (literales e IN como ?) → ejecuciones. */
+    public Map<String, Integer> shapes() {
+        return Collections.unmodifiableMap(shapes);
+    }
+
+    /** La forma que más se repite, o null si no hubo sentencias. */
+    public Map.Entry<String, Integer> mostRepeated() {
+        return shapes.entrySet().stream().max(Map.Entry.comparingByValue()).orElse(null);
+    }
+}
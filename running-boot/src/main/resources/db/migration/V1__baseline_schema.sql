@@ -0,0 +1,129 @@
+-- Esquema base, equivalente al que generaba ddl-auto: update a partir de las entidades.
+-- En bases de datos ya existentes esta versión se marca como baseline y no se ejecuta.
+
+CREATE TABLE role (
+    id   BIGINT       NOT NULL AUTO_INCREMENT,
+    name VARCHAR(255),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE `user` (
+    id      BIGINT       NOT NULL AUTO_INCREMENT,
+    email   VARCHAR(255),
+    name    VARCHAR(255),
+    surname VARCHAR(255),
+    uid     VARCHAR(255),
+    role_id BIGINT       NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_user_role FOREIGN KEY (role_id) REFERENCES role (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE club (
+    id              BIGINT       NOT NULL AUTO_INCREMENT,
+    name            VARCHAR(255),
+    province        VARCHAR(255),
+    photo           VARCHAR(255),
+    place           VARCHAR(255),
+    members         INT,
+    contact         VARCHAR(255),
+    manager_user_id BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_club_manager FOREIGN KEY (manager_user_id) REFERENCES `user` (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE user_club (
+    user_id BIGINT NOT NULL,
+    club_id BIGINT NOT NULL,
+    CONSTRAINT fk_user_club_user FOREIGN KEY (user_id) REFERENCES `user` (id),
+    CONSTRAINT fk_user_club_club FOREIGN KEY (club_id) REFERENCES club (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE type (
+    id_type BIGINT       NOT NULL AUTO_INCREMENT,
+    name    VARCHAR(255),
+    PRIMARY KEY (id_type)
+) ENGINE = InnoDB;
+
+CREATE TABLE difficulty (
+    iddifficulty BIGINT       NOT NULL AUTO_INCREMENT,
+    name         VARCHAR(255),
+    PRIMARY KEY (iddifficulty)
+) ENGINE = InnoDB;
+
+CREATE TABLE race (
+    id                BIGINT       NOT NULL AUTO_INCREMENT,
+    photo             VARCHAR(255),
+    name              VARCHAR(255),
+    place             VARCHAR(255),
+    distance_km       DOUBLE,
+    date              DATETIME(6),
+    province          VARCHAR(255),
+    slope             INT,
+    registered        INT,
+    url               VARCHAR(255),
+    id_type           BIGINT       NOT NULL,
+    iddifficulty      BIGINT       NOT NULL,
+    organizer_user_id BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_race_type FOREIGN KEY (id_type) REFERENCES type (id_type),
+    CONSTRAINT fk_race_difficulty FOREIGN KEY (iddifficulty) REFERENCES difficulty (iddifficulty),
+    CONSTRAINT fk_race_organizer FOREIGN KEY (organizer_user_id) REFERENCES `user` (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE user_race (
+    user_id           BIGINT       NOT NULL,
+    race_id           BIGINT       NOT NULL,
+    registration_date DATETIME(6),
+    status            VARCHAR(255),
+    tiempo            TIME(6),
+    posicion          INT,
+    comentarios       VARCHAR(255),
+    pace              TIME(6),
+    PRIMARY KEY (user_id, race_id),
+    CONSTRAINT fk_user_race_user FOREIGN KEY (user_id) REFERENCES `user` (id),
+    CONSTRAINT fk_user_race_race FOREIGN KEY (race_id) REFERENCES race (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE training_plans (
+    id           BIGINT       NOT NULL AUTO_INCREMENT,
+    id_club      BIGINT       NOT NULL,
+    name         VARCHAR(255),
+    content_json JSON         NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_training_plans_club FOREIGN KEY (id_club) REFERENCES club (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE reassignment_log (
+    id           BIGINT              NOT NULL AUTO_INCREMENT,
+    entity_type  ENUM ('RACE','CLUB') NOT NULL,
+    entity_id    BIGINT              NOT NULL,
+    from_user_id BIGINT,
+    to_user_id   BIGINT              NOT NULL,
+    created_at   TIMESTAMP(6)        NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_reassignment_log_from FOREIGN KEY (from_user_id) REFERENCES `user` (id),
+    CONSTRAINT fk_reassignment_log_to FOREIGN KEY (to_user_id) REFERENCES `user` (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE accessories (
+    id          BIGINT        NOT NULL AUTO_INCREMENT,
+    title       VARCHAR(255),
+    description VARCHAR(1000),
+    photo       VARCHAR(255),
+    features    JSON,
+    brands      JSON,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE brand (
+    name VARCHAR(255) NOT NULL,
+    img  VARCHAR(255),
+    url  VARCHAR(255),
+    PRIMARY KEY (name)
+) ENGINE = InnoDB;
+
+CREATE TABLE carousel (
+    idcarousel BIGINT       NOT NULL AUTO_INCREMENT,
+    photo      VARCHAR(255) NOT NULL,
+    PRIMARY KEY (idcarousel)
+) ENGINE = InnoDB;
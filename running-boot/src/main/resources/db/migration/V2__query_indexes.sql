@@ -0,0 +1,40 @@
+-- Índices para las consultas derivadas de com.running.repository.
+-- Las búsquedas *IgnoreCase se traducen a upper(col) = upper(?), por eso usan índices
+-- funcionales (MySQL >= 8.0.13).
+
+-- user: findByUID, findByEmail (login y todas las comprobaciones de permisos)
+CREATE INDEX idx_user_uid ON `user` (uid);
+CREATE INDEX idx_user_email ON `user` (email);
+
+-- role: findByName, existsByIdAndRole_Name, findFirstByRole_NameOrderByIdAsc
+CREATE INDEX idx_role_name ON role (name);
+
+-- user_club: findByClubs_Id, findClubIdsByUserId, deleteAllClubsByUserId
+CREATE INDEX idx_user_club_club_user ON user_club (club_id, user_id);
+CREATE INDEX idx_user_club_user_club ON user_club (user_id, club_id);
+
+-- race: catálogo por cursor, filterRaces y listados por organizador
+CREATE INDEX idx_race_date_id ON race (date, id);
+CREATE INDEX idx_race_province_date ON race (province, date);
+CREATE INDEX idx_race_organizer_date ON race (organizer_user_id, date);
+CREATE INDEX idx_race_type_date ON race (id_type, date);
+CREATE INDEX idx_race_difficulty_date ON race (iddifficulty, date);
+CREATE INDEX idx_race_name_ci ON race ((upper(name)));
+
+-- user_race: findByRace_IdAndStatus, findByUserIdAndStatus, findByRace_Organizer_IdAndStatus
+CREATE INDEX idx_user_race_race_status ON user_race (race_id, status);
+CREATE INDEX idx_user_race_user_status ON user_race (user_id, status);
+
+-- club: findByManager_UIDOrderByNameAsc, existsByNameIgnoreCase, findByProvinceIgnoreCase...
+CREATE INDEX idx_club_manager_name ON club (manager_user_id, name);
+CREATE INDEX idx_club_name_ci ON club ((upper(name)));
+CREATE INDEX idx_club_province_ci ON club ((upper(province)));
+
+-- training_plans: findByClub, existsByClub_IdAndNameIgnoreCase
+CREATE INDEX idx_training_plans_club_name_ci ON training_plans (id_club, (upper(name)));
+
+-- accessories: existsByTitleIgnoreCase
+CREATE INDEX idx_accessories_title_ci ON accessories ((upper(title)));
+
+-- reassignment_log: findByToUser_UIDAndEntityTypeOrderByCreatedAtDesc
+CREATE INDEX idx_reassignment_log_to_type_created ON reassignment_log (to_user_id, entity_type, created_at);
@@ -0,0 +1,8 @@
+-- Aforo máximo por carrera (NULL = sin límite). Las confirmaciones reservan plaza con
+-- UPDATE race SET registered = registered + 1 WHERE id = ? AND registered < capacity
+ALTER TABLE race ADD COLUMN capacity INT NULL;
+
+-- Lista de espera de una carrera por orden de inscripción; sustituye a idx_user_race_race_status
+-- (se crea antes de borrar el viejo para que la FK de race_id siempre tenga índice)
+CREATE INDEX idx_user_race_race_status_date ON user_race (race_id, status, registration_date);
+DROP INDEX idx_user_race_race_status ON user_race;
@@ -0,0 +1,9 @@
+-- Coordenadas WGS84 de carreras y clubs, calculadas desde place/province con la tabla
+-- de municipios (MunicipalityGeocoder). Las filas existentes las rellena CoordinateBackfill al arrancar.
+-- Las búsquedas por radio (/api/races/near) se sirven desde RaceGeoIndex en memoria, así que no
+-- hace falta índice SPATIAL.
+ALTER TABLE race ADD COLUMN latitude DOUBLE NULL;
+ALTER TABLE race ADD COLUMN longitude DOUBLE NULL;
+
+ALTER TABLE club ADD COLUMN latitude DOUBLE NULL;
+ALTER TABLE club ADD COLUMN longitude DOUBLE NULL;
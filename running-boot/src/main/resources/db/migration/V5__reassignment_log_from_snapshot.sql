@@ -0,0 +1,12 @@
+-- Email y nombre del usuario de origen copiados en el log al reasignar. from_user_id se pone a
+-- NULL al borrar ese usuario (la FK impediría el DELETE), así que sin esta copia el log perdía
+-- de quién venía cada carrera o club.
+ALTER TABLE reassignment_log ADD COLUMN from_user_email VARCHAR(255) NULL;
+ALTER TABLE reassignment_log ADD COLUMN from_user_name VARCHAR(255) NULL;
+
+-- Filas anteriores cuyo usuario de origen todavía existe
+UPDATE reassignment_log l
+    JOIN `user` u ON u.id = l.from_user_id
+SET l.from_user_email = u.email,
+    l.from_user_name  = u.name
+WHERE l.from_user_email IS NULL;
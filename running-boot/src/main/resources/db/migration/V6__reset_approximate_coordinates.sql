@@ -0,0 +1,6 @@
+-- MunicipalityGeocoder ya no usa la capital de la provincia cuando el lugar no está en la tabla.
+-- Las coordenadas guardadas no dicen si eran exactas o la capital, y siempre salen del geocoder a
+-- partir de place/province, así que se borran todas y CoordinateBackfill las vuelve a calcular en
+-- el siguiente arranque (los lugares desconocidos se quedan a NULL y fuera de /api/races/near).
+UPDATE race SET latitude = NULL, longitude = NULL WHERE latitude IS NOT NULL;
+UPDATE club SET latitude = NULL, longitude = NULL WHERE latitude IS NOT NULL;
@@ -4,6 +4,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.running.endpoint.api.ClubController;
 import com.running.model.AdminClubDto;
 import com.running.model.ClubDto;
+import com.running.model.ClubMemberDto;
+import com.running.model.ClubMemberPageDto;
 import com.running.model.UserDto;
 import com.running.service.ClubService;
 import org.junit.jupiter.api.BeforeEach;
@@ -21,6 +23,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 
@@ -59,6 +62,10 @@ public class ClubControllerTestApi {
 
     @RestControllerAdvice
     static class TestGlobalExceptionHandler {
+        @ExceptionHandler(ResponseStatusException.class)
+        public ResponseEntity<String> handleRSE(ResponseStatusException ex) {
+            return ResponseEntity.status(ex.getStatusCode()).body(ex.getReason());
+        }
         @ExceptionHandler(RuntimeException.class)
         public ResponseEntity<String> handleRuntime(RuntimeException ex) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(ex.getMessage());
@@ -207,6 +214,37 @@ public class ClubControllerTestApi {
                 .andExpect(content().string(containsString("Club no encontrado")));
     }
 
+    // ---------- GET /api/clubs/{id}/members/page ----------
+
+    @Test
+    @DisplayName("GET /api/clubs/20/members/page?q=an&size=2 -> 200 con items, nextCursor y sin id")
+    void getClubMembersPage_ok() throws Exception {
+        var m1 = new ClubMemberDto(7L, "a", "Ana", "A", "ana@a.com", "runner");
+        var m2 = new ClubMemberDto(9L, "b", "Andrés", "B", "andres@b.com", "runner");
+        when(clubService.getMembersPage(20L, "an", null, 2)).thenReturn(new ClubMemberPageDto(List.of(m1, m2), "abc"));
+
+        mockMvc.perform(get("/api/clubs/{id}/members/page", 20).param("q", "an").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].uid").value("a"))
+                .andExpect(jsonPath("$.items[1].name").value("Andrés"))
+                .andExpect(jsonPath("$.items[0].id").doesNotExist())
+                .andExpect(jsonPath("$.nextCursor").value("abc"));
+
+        verify(clubService).getMembersPage(20L, "an", null, 2);
+    }
+
+    @Test
+    @DisplayName("GET /api/clubs/20/members/page?cursor=x -> 400 si el cursor no es válido")
+    void getClubMembersPage_badCursor() throws Exception {
+        when(clubService.getMembersPage(20L, null, "x", null))
+                .thenThrow(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor inválido"));
+
+        mockMvc.perform(get("/api/clubs/{id}/members/page", 20).param("cursor", "x"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(containsString("Cursor")));
+    }
+
     // ---------- GET /api/clubs/{id}/AdminClub ----------
 
     @Test
@@ -0,0 +1,86 @@
+package com.running.service;
+
+import com.running.service.boot.config.ClubMembersReconcileJob;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Sobre H2 en memoria (modo MySQL) con solo las tablas club y user_club. */
+class ClubMembersReconcilerTest {
+
+    private NamedParameterJdbcTemplate jdbc;
+    private ClubMembersReconciler reconciler;
+
+    @BeforeEach
+    void setUp() {
+        jdbc = new NamedParameterJdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:reconcile-" + System.nanoTime() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE", "sa", ""));
+        jdbc.getJdbcTemplate().execute("CREATE TABLE club (id BIGINT PRIMARY KEY, name VARCHAR(50), members INT NULL)");
+        jdbc.getJdbcTemplate().execute("CREATE TABLE user_club (user_id BIGINT NOT NULL, club_id BIGINT NOT NULL)");
+        jdbc.getJdbcTemplate().execute("INSERT INTO club VALUES (1, 'default', 3), (2, 'Huelva', 5), (3, 'Sevilla', NULL), (4, 'Vacío', 2)");
+        jdbc.getJdbcTemplate().execute("INSERT INTO user_club VALUES (1, 1), (2, 1), (3, 1), (1, 2), (2, 2), (3, 3)");
+        reconciler = new ClubMembersReconciler(jdbc, 2);
+    }
+
+    @Test
+    @DisplayName("Corrige solo los clubs desviados (incluido members a NULL) y devuelve la desviación")
+    void fixesDrift() {
+        ClubMembersReconciler.Result result = reconciler.reconcile();
+
+        assertEquals(new ClubMembersReconciler.Result(4, 3, 3, 3 + 1 + 2), result);
+        assertEquals(Map.of(1L, 3, 2L, 2, 3L, 1, 4L, 0), members());
+
+        assertEquals(new ClubMembersReconciler.Result(4, 0, 0, 0), reconciler.reconcile());
+    }
+
+    @Test
+    @DisplayName("No pisa un club cuyo contador ha cambiado entre la lectura y el UPDATE; lo corrige la siguiente pasada")
+    void skipsConcurrentChange() {
+        NamedParameterJdbcTemplate racing = new NamedParameterJdbcTemplate(jdbc.getJdbcTemplate()) {
+            @Override
+            public int[] batchUpdate(String sql, SqlParameterSource[] batchArgs) {
+                // un joinClub en el club 2 entre la consulta agrupada y el UPDATE
+                getJdbcTemplate().execute("INSERT INTO user_club VALUES (4, 2)");
+                getJdbcTemplate().execute("UPDATE club SET members = members + 1 WHERE id = 2");
+                return super.batchUpdate(sql, batchArgs);
+            }
+        };
+
+        ClubMembersReconciler.Result result = new ClubMembersReconciler(racing, 500).reconcile();
+
+        assertEquals(3, result.drifted());
+        assertEquals(2, result.fixed());
+        assertEquals(6, members().get(2L));
+        reconciler.reconcile();
+        assertEquals(3, members().get(2L));
+    }
+
+    @Test
+    @DisplayName("El job publica clubs desviados y desviación total")
+    void jobPublishesMetrics() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ClubMembersReconcileJob job = new ClubMembersReconcileJob(reconciler, registry);
+
+        job.run();
+        job.run();
+
+        assertEquals(3.0, registry.get("running.club.members.drift.clubs").counter().count());
+        assertEquals(6.0, registry.get("running.club.members.drift.members").counter().count());
+    }
+
+    private Map<Long, Integer> members() {
+        List<Map<String, Object>> rows = jdbc.getJdbcTemplate().queryForList("SELECT id, members FROM club");
+        return rows.stream().collect(Collectors.toMap(
+                r -> ((Number) r.get("id")).longValue(), r -> ((Number) r.get("members")).intValue()));
+    }
+}
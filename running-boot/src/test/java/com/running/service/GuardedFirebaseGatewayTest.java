@@ -0,0 +1,228 @@
+package com.running.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GuardedFirebaseGatewayTest {
+
+    private GuardedFirebaseGateway gateway;
+
+    @AfterEach
+    void tearDown() {
+        if (gateway != null) gateway.shutdown();
+    }
+
+    private GuardedFirebaseGateway guard(FirebaseGateway delegate, Duration timeout) {
+        gateway = new GuardedFirebaseGateway(delegate, 2, 2, timeout, 3, Duration.ofMillis(200), 4, Duration.ofMillis(10));
+        return gateway;
+    }
+
+    @Test
+    @DisplayName("Con el fake en memoria crea y borra cuentas; email repetido -> error de negocio")
+    void fake_createAndDelete() {
+        InMemoryFirebaseGateway fake = new InMemoryFirebaseGateway();
+        guard(fake, Duration.ofSeconds(1));
+
+        String uid = gateway.createUser("ana@x.com", "secret1", "Ana Gil");
+        assertTrue(fake.exists(uid));
+
+        FirebaseGatewayException dup = assertThrows(FirebaseGatewayException.class,
+                () -> gateway.createUser("ANA@x.com", "secret1", "Ana Gil"));
+        assertFalse(dup instanceof FirebaseUnavailableException);
+
+        gateway.deleteUser(uid);
+        assertFalse(fake.exists(uid));
+        assertEquals("closed", gateway.circuitState());
+    }
+
+    @Test
+    @DisplayName("Una llamada lenta se corta en el timeout sin bloquear al llamante")
+    void slowCall_timesOut() {
+        CountDownLatch never = new CountDownLatch(1);
+        guard(new SlowGateway(never), Duration.ofMillis(50));
+
+        long t0 = System.nanoTime();
+        assertThrows(FirebaseUnavailableException.class, () -> gateway.createUser("a@x.com", "secret1", "A"));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0) < 1000);
+    }
+
+    @Test
+    @DisplayName("Si Firebase crea la cuenta después del timeout, se borra (no queda huérfana)")
+    void lateCreate_isRolledBack() throws Exception {
+        InMemoryFirebaseGateway fake = new InMemoryFirebaseGateway();
+        CountDownLatch slow = new CountDownLatch(1);
+        CountDownLatch created = new CountDownLatch(1);
+        guard(new FirebaseGateway() {
+            @Override
+            public String createUser(String email, String password, String displayName) {
+                try {
+                    slow.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                String uid = fake.createUser(email, password, displayName);
+                created.countDown();
+                return uid;
+            }
+
+            @Override
+            public void deleteUser(String uid) {
+                fake.deleteUser(uid);
+            }
+        }, Duration.ofMillis(50));
+
+        assertThrows(FirebaseUnavailableException.class, () -> gateway.createUser("tarde@x.com", "secret1", "Tarde"));
+        slow.countDown();
+        assertTrue(created.await(2, TimeUnit.SECONDS));
+
+        long deadline = System.currentTimeMillis() + 2000;
+        while (fake.size() > 0 && System.currentTimeMillis() < deadline) Thread.sleep(10);
+        assertEquals(0, fake.size());
+    }
+
+    @Test
+    @DisplayName("Tras 3 fallos seguidos el circuito se abre y no se llama a Firebase; luego se recupera")
+    void circuit_opensAndRecovers() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        AtomicInteger failuresLeft = new AtomicInteger(3);
+        guard(new FirebaseGateway() {
+            @Override
+            public String createUser(String email, String password, String displayName) {
+                calls.incrementAndGet();
+                if (failuresLeft.getAndDecrement() > 0) throw new FirebaseUnavailableException("503");
+                return "uid-1";
+            }
+
+            @Override
+            public void deleteUser(String uid) {
+            }
+        }, Duration.ofSeconds(1));
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(FirebaseUnavailableException.class, () -> gateway.createUser("a@x.com", "secret1", "A"));
+        }
+        assertEquals("open", gateway.circuitState());
+
+        assertThrows(FirebaseUnavailableException.class, () -> gateway.createUser("a@x.com", "secret1", "A"));
+        assertEquals(3, calls.get());
+
+        Thread.sleep(250);
+        assertEquals("uid-1", gateway.createUser("a@x.com", "secret1", "A"));
+        assertEquals("closed", gateway.circuitState());
+    }
+
+    @Test
+    @DisplayName("Los errores de negocio no abren el circuito")
+    void businessErrors_doNotOpenCircuit() {
+        InMemoryFirebaseGateway fake = new InMemoryFirebaseGateway();
+        guard(fake, Duration.ofSeconds(1));
+
+        for (int i = 0; i < 10; i++) {
+            assertThrows(FirebaseGatewayException.class, () -> gateway.deleteUser("no-existe"));
+        }
+        assertEquals("closed", gateway.circuitState());
+    }
+
+    @Test
+    @DisplayName("Pool y cola llenos -> rechazo inmediato")
+    void saturatedPool_rejectsImmediately() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        guard(new SlowGateway(release), Duration.ofSeconds(5));
+
+        // 2 hilos + 2 en cola ocupados
+        Thread[] busy = new Thread[4];
+        for (int i = 0; i < busy.length; i++) {
+            busy[i] = new Thread(() -> {
+                try {
+                    gateway.createUser("a@x.com", "secret1", "A");
+                } catch (FirebaseGatewayException ignored) {
+                }
+            });
+            busy[i].start();
+        }
+        Thread.sleep(200);
+
+        FirebaseUnavailableException e = assertThrows(FirebaseUnavailableException.class,
+                () -> gateway.createUser("b@x.com", "secret1", "B"));
+        assertTrue(e.getMessage().contains("Demasiadas"));
+
+        release.countDown();
+        for (Thread t : busy) t.join(2000);
+    }
+
+    @Test
+    @DisplayName("createUserAsync no bloquea y con el pool lleno devuelve un future fallido, sin lanzar")
+    void async_doesNotBlockAndFailsFastWhenSaturated() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        guard(new SlowGateway(release), Duration.ofSeconds(5));
+
+        long t0 = System.nanoTime();
+        List<CompletableFuture<String>> inFlight = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            inFlight.add(gateway.createUserAsync("a" + i + "@x.com", "secret1", "A"));
+        }
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0) < 1000);
+
+        // 2 hilos + 2 en cola: la quinta se rechaza al momento
+        ExecutionException rejected = assertThrows(ExecutionException.class, () -> inFlight.get(4).get(1, TimeUnit.SECONDS));
+        assertTrue(rejected.getCause() instanceof FirebaseUnavailableException);
+
+        release.countDown();
+        for (int i = 0; i < 4; i++) {
+            assertEquals("uid", inFlight.get(i).get(2, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    @DisplayName("deleteUserEventually reintenta con backoff hasta que Firebase responde")
+    void deleteEventually_retries() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch deleted = new CountDownLatch(1);
+        guard(new FirebaseGateway() {
+            @Override
+            public String createUser(String email, String password, String displayName) {
+                return null;
+            }
+
+            @Override
+            public void deleteUser(String uid) {
+                if (attempts.incrementAndGet() < 3) throw new FirebaseUnavailableException("503");
+                deleted.countDown();
+            }
+        }, Duration.ofSeconds(1));
+
+        gateway.deleteUserEventually("uid-1");
+
+        assertTrue(deleted.await(2, TimeUnit.SECONDS));
+        assertEquals(3, attempts.get());
+    }
+
+    /** Se queda bloqueado hasta que se abre el cerrojo. */
+    private record SlowGateway(CountDownLatch latch) implements FirebaseGateway {
+        @Override
+        public String createUser(String email, String password, String displayName) {
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "uid";
+        }
+
+        @Override
+        public void deleteUser(String uid) {
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.running.service;
+
+import com.running.service.boot.config.HikariPoolSizingPostProcessor;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HikariPoolSizingPostProcessorTest {
+
+    @Test
+    @DisplayName("Núcleos * multiplicador + discos, acotado a [min, max]")
+    void poolSize_formula() {
+        assertEquals(17, HikariPoolSizingPostProcessor.poolSize(8, 2, 1, 10, 50));
+        assertEquals(10, HikariPoolSizingPostProcessor.poolSize(2, 2, 1, 10, 50));
+        assertEquals(50, HikariPoolSizingPostProcessor.poolSize(64, 2, 1, 10, 50));
+    }
+
+    @Test
+    @DisplayName("Sin tamaño explícito se calcula y el pool queda fijo")
+    void noExplicitSize_isDerived() {
+        HikariDataSource hikari = new HikariDataSource();
+        MockEnvironment env = new MockEnvironment()
+                .withProperty("running.datasource.pool.min", "3")
+                .withProperty("running.datasource.pool.max", "3");
+
+        new HikariPoolSizingPostProcessor(env).postProcessBeforeInitialization(hikari, "dataSource");
+
+        assertEquals(3, hikari.getMaximumPoolSize());
+        assertEquals(3, hikari.getMinimumIdle());
+    }
+
+    @Test
+    @DisplayName("Un maximum-pool-size explícito (p. ej. perfil vthreads) se respeta")
+    void explicitSize_isKept() {
+        HikariDataSource hikari = new HikariDataSource();
+        hikari.setMaximumPoolSize(20);
+        MockEnvironment env = new MockEnvironment()
+                .withProperty("spring.datasource.hikari.maximum-pool-size", "20");
+
+        new HikariPoolSizingPostProcessor(env).postProcessBeforeInitialization(hikari, "dataSource");
+
+        assertEquals(20, hikari.getMaximumPoolSize());
+    }
+}
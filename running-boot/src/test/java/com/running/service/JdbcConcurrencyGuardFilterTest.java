@@ -0,0 +1,67 @@
+package com.running.service;
+
+import com.running.service.boot.config.JdbcConcurrencyGuardFilter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JdbcConcurrencyGuardFilterTest {
+
+    @Test
+    @DisplayName("Con el cupo ocupado, la siguiente petición espera el timeout y recibe 503 + Retry-After")
+    void fullGuard_returns503() throws Exception {
+        JdbcConcurrencyGuardFilter filter = new JdbcConcurrencyGuardFilter(1, Duration.ofMillis(50));
+        CountDownLatch inside = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Thread first = new Thread(() -> {
+            try {
+                filter.doFilter(new MockHttpServletRequest("GET", "/api/races/filter"), new MockHttpServletResponse(),
+                        (req, res) -> {
+                            inside.countDown();
+                            try {
+                                release.await();
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        });
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        first.start();
+        assertTrue(inside.await(1, TimeUnit.SECONDS));
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/races/filter"), rejected,
+                (req, res) -> fail("No debería llegar al controlador"));
+        assertEquals(503, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+
+        release.countDown();
+        first.join(1000);
+        assertEquals(1, filter.available());
+    }
+
+    @Test
+    @DisplayName("Con hueco libre la petición pasa y el permiso se devuelve aunque el controlador falle")
+    void freeGuard_passesAndReleases() throws Exception {
+        JdbcConcurrencyGuardFilter filter = new JdbcConcurrencyGuardFilter(2, Duration.ofMillis(50));
+
+        MockHttpServletResponse ok = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/races/filter"), ok, (req, res) -> { });
+        assertEquals(200, ok.getStatus());
+
+        assertThrows(IllegalStateException.class, () ->
+                filter.doFilter(new MockHttpServletRequest("GET", "/api/races/filter"), new MockHttpServletResponse(),
+                        (req, res) -> { throw new IllegalStateException("boom"); }));
+        assertEquals(2, filter.available());
+    }
+}
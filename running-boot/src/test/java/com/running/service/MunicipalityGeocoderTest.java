@@ -0,0 +1,68 @@
+package com.running.service;
+
+import com.running.model.GeoPoint;
+import com.running.model.Race;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MunicipalityGeocoderTest {
+
+    private final MunicipalityGeocoder geocoder = new MunicipalityGeocoder();
+
+    @Test
+    @DisplayName("Municipio y provincia sin tildes ni mayúsculas")
+    void municipalityInProvince() {
+        GeoPoint p = geocoder.locate("ARACENA", "huelva").orElseThrow();
+        assertEquals(37.8933, p.latitude(), 1e-4);
+        assertEquals(-6.5613, p.longitude(), 1e-4);
+        assertEquals(p, geocoder.locate("Aracena (Huelva)", "Huelva").orElseThrow());
+        assertEquals(geocoder.locate("Écija", "Sevilla"), geocoder.locate("ecija", "SEVILLA"));
+    }
+
+    @Test
+    @DisplayName("Sin provincia vale el municipio si no hay otro con el mismo nombre")
+    void uniqueNameWithoutProvince() {
+        assertEquals(geocoder.locate("Lepe", "Huelva"), geocoder.locate("Lepe", null));
+        assertEquals(geocoder.locate("Sevilla", "Sevilla"), geocoder.locate("Sevilla", ""));
+    }
+
+    @Test
+    @DisplayName("Nombres alternativos de provincia")
+    void provinceAliases() {
+        assertTrue(geocoder.locate("Bilbao", "Vizcaya").isPresent());
+        assertEquals(geocoder.locate("Bilbao", "Bizkaia"), geocoder.locate("Bilbao", "Vizcaya"));
+    }
+
+    @Test
+    @DisplayName("Lugar desconocido -> sin coordenadas aunque la provincia exista (nada de capital aproximada)")
+    void unknownPlace_isNotLocated() {
+        assertTrue(geocoder.locate("Polideportivo Andrés Estrada", "Huelva").isEmpty());
+        assertTrue(geocoder.locate("Getxo", "Vizcaya").isEmpty());
+        assertTrue(geocoder.locate("Vizcaya", null).isEmpty());
+        assertTrue(geocoder.locate("Sitio inventado", "Provincia inventada").isEmpty());
+        assertTrue(geocoder.locate(null, null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("geocode rellena y, si ya no se encuentra, limpia las coordenadas")
+    void geocodeRace() {
+        Race race = Race.builder().place("Moguer").province("Huelva").build();
+        geocoder.geocode(race);
+        assertEquals(37.2756, race.getLatitude(), 1e-4);
+
+        race.setProvince("Provincia inventada");
+        geocoder.geocode(race);
+        assertNull(race.getLatitude());
+        assertNull(race.getLongitude());
+    }
+
+    @Test
+    @DisplayName("Haversine: Madrid - Barcelona ≈ 505 km")
+    void haversine() {
+        GeoPoint madrid = geocoder.locate("Madrid", "Madrid").orElseThrow();
+        GeoPoint barcelona = geocoder.locate("Barcelona", "Barcelona").orElseThrow();
+        assertEquals(505, madrid.distanceKm(barcelona), 5);
+    }
+}
@@ -14,6 +14,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -24,6 +28,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -148,6 +153,114 @@ public class RaceControllerTestApi {
                 .andExpect(jsonPath("$.length()").value(0));
     }
 
+    // ---------- GET /catalog ----------
+
+    @Test
+    @DisplayName("GET /api/races/catalog -> 200 con items y nextCursor")
+    void catalog_ok() throws Exception {
+        var item = new RaceSummaryDto(1L, "A", "Huelva", "Huelva", 10.0, null, null, 0, 1L, "Ruta", 2L, "Media");
+        when(raceService.findCatalog(null, 20)).thenReturn(new RaceSummaryPageDto(List.of(item), "abc"));
+
+        mockMvc.perform(get("/api/races/catalog").param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].name").value("A"))
+                .andExpect(jsonPath("$.nextCursor").value("abc"));
+
+        verify(raceService).findCatalog(null, 20);
+    }
+
+    @Test
+    @DisplayName("GET /api/races/catalog?cursor=x -> 400 si el cursor no es válido")
+    void catalog_badCursor() throws Exception {
+        when(raceService.findCatalog("x", null))
+                .thenThrow(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor inválido"));
+
+        mockMvc.perform(get("/api/races/catalog").param("cursor", "x"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(containsString("Cursor")));
+    }
+
+    // ---------- GET /search ----------
+
+    @Test
+    @DisplayName("GET /api/races/search?q=huelva -> 200 con página por defecto (0, 20)")
+    void search_ok() throws Exception {
+        var item = new RaceSummaryDto(1L, "Media Maratón de Huelva", "Huelva", "Huelva", 21.1, null, null, 0, 1L, "Ruta", 2L, "Media");
+        when(raceService.search("huelva", 0, 20)).thenReturn(new RaceSearchPageDto(List.of(item), 1, 0, 20));
+
+        mockMvc.perform(get("/api/races/search").param("q", "huelva"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].name").value("Media Maratón de Huelva"))
+                .andExpect(jsonPath("$.total").value(1));
+
+        verify(raceService).search("huelva", 0, 20);
+    }
+
+    @Test
+    @DisplayName("GET /api/races/search con size enorme -> se acota a 100")
+    void search_sizeIsCapped() throws Exception {
+        when(raceService.search("trail", 2, 100)).thenReturn(new RaceSearchPageDto(List.of(), 0, 2, 100));
+
+        mockMvc.perform(get("/api/races/search").param("q", "trail").param("page", "2").param("size", "5000"))
+                .andExpect(status().isOk());
+
+        verify(raceService).search("trail", 2, 100);
+    }
+
+    @Test
+    @DisplayName("GET /api/races/search con q vacío -> 400")
+    void search_blankQuery() throws Exception {
+        when(raceService.search(" ", 0, 20))
+                .thenThrow(new ResponseStatusException(HttpStatus.BAD_REQUEST, "El parámetro q es obligatorio"));
+
+        mockMvc.perform(get("/api/races/search").param("q", " "))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(containsString("obligatorio")));
+    }
+
+    // ---------- GET /near ----------
+
+    @Test
+    @DisplayName("GET /api/races/near?lat&lon -> 200 con radio por defecto y distancia de cada carrera")
+    void near_ok() throws Exception {
+        var race = new RaceSummaryDto(1L, "Carrera de Aracena", "Aracena", "Huelva", 10.0, null, null, 0, 1L, "Trail", 2L, "Media");
+        when(raceService.near(37.26, -6.94, null, null, 0, 20))
+                .thenReturn(new RaceNearPageDto(List.of(new RaceNearDto(race, 71.5)), 1, 0, 20));
+
+        mockMvc.perform(get("/api/races/near").param("lat", "37.26").param("lon", "-6.94"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].race.name").value("Carrera de Aracena"))
+                .andExpect(jsonPath("$.items[0].distanceKm").value(71.5))
+                .andExpect(jsonPath("$.total").value(1));
+
+        verify(raceService).near(37.26, -6.94, null, null, 0, 20);
+    }
+
+    @Test
+    @DisplayName("GET /api/races/near con size enorme -> se acota a 100; pasa radiusKm y finalizada")
+    void near_sizeIsCapped() throws Exception {
+        when(raceService.near(40.4, -3.7, 10.0, false, 1, 100)).thenReturn(new RaceNearPageDto(List.of(), 0, 1, 100));
+
+        mockMvc.perform(get("/api/races/near").param("lat", "40.4").param("lon", "-3.7")
+                        .param("radiusKm", "10").param("finalizada", "false")
+                        .param("page", "1").param("size", "5000"))
+                .andExpect(status().isOk());
+
+        verify(raceService).near(40.4, -3.7, 10.0, false, 1, 100);
+    }
+
+    @Test
+    @DisplayName("GET /api/races/near con radio fuera de rango -> 400")
+    void near_badRadius() throws Exception {
+        when(raceService.near(37.26, -6.94, 5000.0, null, 0, 20))
+                .thenThrow(new ResponseStatusException(HttpStatus.BAD_REQUEST, "radiusKm debe estar entre 0 y 500"));
+
+        mockMvc.perform(get("/api/races/near").param("lat", "37.26").param("lon", "-6.94").param("radiusKm", "5000"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(containsString("radiusKm")));
+    }
+
     // ---------- GET /filter ----------
 
     @Test
@@ -167,6 +280,34 @@ public class RaceControllerTestApi {
         verify(raceService).filterRaces(eq("Sevilla"), any(), any(), eq(1L), eq(2L), eq(false));
     }
 
+    @Test
+    @DisplayName("GET /api/races/filter?page=1&size=10&sort=name,desc -> 200 con X-Total-Count")
+    void filter_paged_ok() throws Exception {
+        var r = Race.builder().id(3L).name("C").build();
+        when(raceService.filterRaces(any(), any(), any(), any(), any(), any(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(r), PageRequest.of(1, 10), 11));
+
+        mockMvc.perform(get("/api/races/filter")
+                        .param("page", "1")
+                        .param("size", "10")
+                        .param("sort", "name,desc"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "11"))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("C"));
+
+        verify(raceService).filterRaces(isNull(), isNull(), isNull(), isNull(), isNull(), isNull(),
+                eq(PageRequest.of(1, 10, Sort.by(Sort.Order.desc("name"), Sort.Order.desc("id")))));
+    }
+
+    @Test
+    @DisplayName("GET /api/races/filter?sort=photo -> 400 campo de orden no permitido")
+    void filter_badSort() throws Exception {
+        mockMvc.perform(get("/api/races/filter").param("sort", "photo"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(containsString("sort")));
+    }
+
     @Test
     @DisplayName("GET /api/races/filter -> 400 formato fechaDesde inválido")
     void filter_badDateStart() throws Exception {
@@ -187,6 +328,46 @@ public class RaceControllerTestApi {
                 .andExpect(content().string(containsString("fechaDesde no puede ser posterior")));
     }
 
+    // ---------- GET /facets ----------
+
+    @Test
+    @DisplayName("GET /api/races/facets -> 200 con recuentos; las fechas se pasan como en /filter")
+    void facets_ok() throws Exception {
+        var facets = new RaceFacetsDto(3,
+                List.of(new FacetCountDto(null, "Huelva", 2), new FacetCountDto(null, "Sevilla", 1)),
+                List.of(new FacetCountDto(1L, "Trail", 3)),
+                List.of(new FacetCountDto(2L, "Media", 3)),
+                2, 1);
+        when(raceService.facets(eq("Huelva"), eq(LocalDateTime.of(2025, 1, 1, 0, 0)),
+                eq(LocalDateTime.of(2025, 12, 31, 23, 59, 59)), eq(1L), isNull(), isNull()))
+                .thenReturn(facets);
+
+        mockMvc.perform(get("/api/races/facets")
+                        .param("province", "Huelva")
+                        .param("typeId", "1")
+                        .param("fechaDesde", "2025-01-01")
+                        .param("fechaHasta", "2025-12-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.provinces[0].name").value("Huelva"))
+                .andExpect(jsonPath("$.provinces[0].count").value(2))
+                .andExpect(jsonPath("$.types[0].id").value(1))
+                .andExpect(jsonPath("$.upcoming").value(2))
+                .andExpect(jsonPath("$.finished").value(1));
+    }
+
+    @Test
+    @DisplayName("GET /api/races/facets con fechaDesde > fechaHasta -> 400")
+    void facets_badRange() throws Exception {
+        mockMvc.perform(get("/api/races/facets")
+                        .param("fechaDesde", "2025-12-31")
+                        .param("fechaHasta", "2025-01-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(containsString("fechaDesde no puede ser posterior")));
+
+        verifyNoInteractions(raceService);
+    }
+
     // ---------- GET /getByProvince ----------
 
     @Test
@@ -0,0 +1,157 @@
+package com.running.service;
+
+import com.running.model.FacetCountDto;
+import com.running.model.RaceFacetsDto;
+import com.running.model.RaceSummaryDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RaceFacetIndexTest {
+
+    private static final String[] PROVINCES = {"Huelva", "Sevilla", "Cádiz", "Córdoba"};
+
+    private final RaceFacetIndex index = new RaceFacetIndex();
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @BeforeEach
+    void load() {
+        index.rebuild(List.of(
+                race(1L, "Huelva", 1L, 1L, 10),
+                race(2L, "Huelva", 2L, 1L, -10),
+                race(3L, "Sevilla", 1L, 2L, 20),
+                race(4L, "cadiz", 2L, 2L, 30),
+                race(5L, "Cádiz", 1L, 1L, -5),
+                race(6L, null, 1L, 1L, null)));
+    }
+
+    @Test
+    @DisplayName("Sin filtros: recuentos por faceta, de más a menos")
+    void countsWithoutFilters() {
+        RaceFacetsDto f = index.facets(null, null, null, null, null, null);
+        assertEquals(6, f.getTotal());
+        assertEquals(Map.of("Huelva", 2, "Cádiz", 2, "Sevilla", 1), byName(f.getProvinces()));
+        assertEquals("Sevilla", f.getProvinces().get(2).getName());
+        assertEquals(List.of(1L, 2L), f.getTypes().stream().map(FacetCountDto::getId).toList());
+        assertEquals(4, f.getTypes().get(0).getCount());
+        assertEquals(3, f.getUpcoming());
+        assertEquals(2, f.getFinished());
+    }
+
+    @Test
+    @DisplayName("Cada faceta se cuenta con los filtros de las demás; total con todos")
+    void otherFiltersApply() {
+        RaceFacetsDto f = index.facets("huelva", 1L, null, null, null, null);
+        assertEquals(1, f.getTotal());
+        // provincias con type=1: Huelva 1, Sevilla 1, Cádiz 1
+        assertEquals(Map.of("Huelva", 1, "Sevilla", 1, "Cádiz", 1), byName(f.getProvinces()));
+        // tipos en Huelva: 1 y 2
+        assertEquals(2, f.getTypes().size());
+        assertEquals(1, f.getUpcoming());
+        assertEquals(0, f.getFinished());
+
+        RaceFacetsDto none = index.facets("Teruel", null, null, null, null, null);
+        assertEquals(0, none.getTotal());
+        assertTrue(none.getTypes().isEmpty());
+    }
+
+    @Test
+    @DisplayName("upsert cambia la carrera de faceta y remove la quita; los ordinales se reutilizan")
+    void upsertAndRemove() {
+        index.upsert(race(1L, "Sevilla", 1L, 1L, 10));
+        index.remove(3L);
+        index.upsert(race(7L, "Córdoba", 2L, 2L, -1));
+
+        RaceFacetsDto f = index.facets(null, null, null, null, null, null);
+        assertEquals(6, f.getTotal());
+        assertEquals(Map.of("Huelva", 1, "Cádiz", 2, "Sevilla", 1, "Córdoba", 1), byName(f.getProvinces()));
+        assertEquals(3, f.getFinished());
+        assertEquals(6, index.size());
+    }
+
+    @Test
+    @DisplayName("Una carrera pasa a celebrada en cuanto llega su fecha, sin reconstruir el índice")
+    void upcomingBecomesFinished() throws Exception {
+        RaceSummaryDto soon = race(8L, "Huelva", 1L, 1L, null);
+        soon.setDate(LocalDateTime.now().plusNanos(50_000_000));
+        index.upsert(soon);
+        assertEquals(4, index.facets(null, null, null, null, null, null).getUpcoming());
+
+        Thread.sleep(100);
+        RaceFacetsDto f = index.facets(null, null, null, null, null, null);
+        assertEquals(3, f.getUpcoming());
+        assertEquals(3, f.getFinished());
+    }
+
+    @Test
+    @DisplayName("Mismos recuentos que filtrar carrera a carrera, con cualquier combinación de filtros")
+    void matchesBruteForce() {
+        Random random = new Random(11);
+        List<RaceSummaryDto> races = new ArrayList<>();
+        for (long id = 1; id <= 2_000; id++) {
+            races.add(race(id, random.nextInt(10) == 0 ? null : PROVINCES[random.nextInt(PROVINCES.length)],
+                    1L + random.nextInt(3), 1L + random.nextInt(3),
+                    random.nextInt(20) == 0 ? null : random.nextInt(200) - 100));
+        }
+        index.rebuild(races);
+
+        for (int q = 0; q < 200; q++) {
+            String province = random.nextBoolean() ? null : PROVINCES[random.nextInt(PROVINCES.length)];
+            Long typeId = random.nextBoolean() ? null : 1L + random.nextInt(3);
+            Long difficultyId = random.nextBoolean() ? null : 1L + random.nextInt(3);
+            Boolean finalizada = random.nextInt(3) == 0 ? null : random.nextBoolean();
+            LocalDateTime from = random.nextBoolean() ? null : now.plusDays(random.nextInt(200) - 100);
+            LocalDateTime to = random.nextBoolean() ? null : now.plusDays(random.nextInt(200) - 100);
+
+            RaceFacetsDto f = index.facets(province, typeId, difficultyId, finalizada, from, to);
+            LocalDateTime at = LocalDateTime.now();
+            Predicate<RaceSummaryDto> p = r -> province == null || province.equals(r.getProvince());
+            Predicate<RaceSummaryDto> t = r -> typeId == null || typeId.equals(r.getTypeId());
+            Predicate<RaceSummaryDto> d = r -> difficultyId == null || difficultyId.equals(r.getDifficultyId());
+            Predicate<RaceSummaryDto> s = r -> finalizada == null
+                    || (r.getDate() != null && finalizada == r.getDate().isBefore(at));
+            Predicate<RaceSummaryDto> range = r -> (from == null && to == null) || (r.getDate() != null
+                    && (from == null || !r.getDate().isBefore(from)) && (to == null || !r.getDate().isAfter(to)));
+
+            String label = province + "/" + typeId + "/" + difficultyId + "/" + finalizada + "/" + from + "/" + to;
+            assertEquals(count(races, p.and(t).and(d).and(s).and(range)), f.getTotal(), label);
+            assertEquals(group(races, t.and(d).and(s).and(range), RaceSummaryDto::getProvince), byName(f.getProvinces()), label);
+            assertEquals(group(races, p.and(d).and(s).and(range), RaceSummaryDto::getTypeName), byName(f.getTypes()), label);
+            assertEquals(group(races, p.and(t).and(s).and(range), RaceSummaryDto::getDifficultyName), byName(f.getDifficulties()), label);
+            Predicate<RaceSummaryDto> statusBase = p.and(t).and(d).and(range);
+            assertEquals(count(races, statusBase.and(r -> r.getDate() != null && !r.getDate().isBefore(at))), f.getUpcoming(), label);
+            assertEquals(count(races, statusBase.and(r -> r.getDate() != null && r.getDate().isBefore(at))), f.getFinished(), label);
+        }
+    }
+
+    private RaceSummaryDto race(long id, String province, long typeId, long difficultyId, Integer daysAhead) {
+        return new RaceSummaryDto(id, "Carrera " + id, null, province, 10.0,
+                daysAhead == null ? null : now.plusDays(daysAhead).withNano(0),
+                null, 0, typeId, "Tipo " + typeId, difficultyId, "Dificultad " + difficultyId);
+    }
+
+    private static int count(List<RaceSummaryDto> races, Predicate<RaceSummaryDto> filter) {
+        return (int) races.stream().filter(filter).count();
+    }
+
+    private static Map<String, Integer> group(List<RaceSummaryDto> races, Predicate<RaceSummaryDto> filter,
+                                              Function<RaceSummaryDto, String> key) {
+        return races.stream().filter(filter).filter(r -> key.apply(r) != null)
+                .collect(Collectors.groupingBy(key, Collectors.summingInt(r -> 1)));
+    }
+
+    private static Map<String, Integer> byName(List<FacetCountDto> counts) {
+        return counts.stream().collect(Collectors.toMap(FacetCountDto::getName, FacetCountDto::getCount));
+    }
+}
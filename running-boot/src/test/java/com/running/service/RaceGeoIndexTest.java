@@ -0,0 +1,120 @@
+package com.running.service;
+
+import com.running.model.GeoPoint;
+import com.running.model.RaceNearDto;
+import com.running.model.RaceNearPageDto;
+import com.running.model.RaceSummaryDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RaceGeoIndexTest {
+
+    private static final double HUELVA_LAT = 37.2614;
+    private static final double HUELVA_LON = -6.9447;
+
+    private final MunicipalityGeocoder geocoder = new MunicipalityGeocoder();
+    private final RaceGeoIndex index = new RaceGeoIndex();
+
+    @BeforeEach
+    void load() {
+        index.rebuild(List.of(
+                race(1L, "Huelva", "Huelva", 30),
+                race(2L, "Moguer", "Huelva", -10),
+                race(3L, "Aracena", "Huelva", 10),
+                race(4L, "Sevilla", "Sevilla", 5),
+                race(5L, "Madrid", "Madrid", 40),
+                race(6L, "Lugar que no existe", null, 20)));
+    }
+
+    @Test
+    @DisplayName("Ordena por distancia y deja fuera lo que queda más allá del radio")
+    void sortedByDistanceWithinRadius() {
+        assertEquals(List.of(1L, 2L), ids(index.near(HUELVA_LAT, HUELVA_LON, 50, null, 0, 10)));
+        RaceNearPageDto page = index.near(HUELVA_LAT, HUELVA_LON, 100, null, 0, 10);
+        assertEquals(List.of(1L, 2L, 3L, 4L), ids(page));
+        assertEquals(9.5, page.getItems().get(1).getDistanceKm(), 0.1);
+        assertEquals(78.0, page.getItems().get(2).getDistanceKm(), 0.1);
+    }
+
+    @Test
+    @DisplayName("Las carreras sin coordenadas no entran en el índice")
+    void racesWithoutCoordinatesAreSkipped() {
+        assertEquals(5, index.size());
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), ids(index.near(HUELVA_LAT, HUELVA_LON, 500, null, 0, 10)));
+    }
+
+    @Test
+    @DisplayName("finalizada=false deja solo las que están por celebrar")
+    void upcomingOnly() {
+        assertEquals(List.of(1L, 3L, 4L), ids(index.near(HUELVA_LAT, HUELVA_LON, 100, false, 0, 10)));
+        assertEquals(List.of(2L), ids(index.near(HUELVA_LAT, HUELVA_LON, 100, true, 0, 10)));
+    }
+
+    @Test
+    @DisplayName("Paginación con total de carreras dentro del radio")
+    void pagination() {
+        RaceNearPageDto second = index.near(HUELVA_LAT, HUELVA_LON, 100, null, 1, 3);
+        assertEquals(4, second.getTotal());
+        assertEquals(List.of(4L), ids(second));
+    }
+
+    @Test
+    @DisplayName("upsert mueve la carrera de celda y remove la quita")
+    void upsertAndRemove() {
+        index.upsert(race(5L, "Ayamonte", "Huelva", 40));
+        assertEquals(List.of(1L, 2L, 5L), ids(index.near(HUELVA_LAT, HUELVA_LON, 50, null, 0, 10)));
+
+        index.remove(2L);
+        assertEquals(List.of(1L, 5L), ids(index.near(HUELVA_LAT, HUELVA_LON, 50, null, 0, 10)));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    @DisplayName("Mismo resultado que recorrer todas las carreras, con radios pequeños y grandes")
+    void matchesLinearScan() {
+        Random random = new Random(7);
+        List<RaceSummaryDto> races = new ArrayList<>();
+        for (long id = 1; id <= 5_000; id++) {
+            RaceSummaryDto r = race(id, null, null, 1);
+            r.setLatitude(36 + random.nextDouble() * 7.5);
+            r.setLongitude(-9.3 + random.nextDouble() * 12.5);
+            races.add(r);
+        }
+        index.rebuild(races);
+
+        for (double radius : new double[]{1, 25, 120, 500}) {
+            double lat = 36 + random.nextDouble() * 7.5;
+            double lon = -9.3 + random.nextDouble() * 12.5;
+            List<Long> expected = races.stream()
+                    .filter(r -> GeoPoint.distanceKm(lat, lon, r.getLatitude(), r.getLongitude()) <= radius)
+                    .map(RaceSummaryDto::getId)
+                    .sorted()
+                    .toList();
+            List<Long> actual = new ArrayList<>(ids(index.near(lat, lon, radius, null, 0, races.size())));
+            actual.sort(null);
+            assertEquals(expected, actual, "radio " + radius);
+        }
+    }
+
+    private RaceSummaryDto race(long id, String place, String province, int daysAhead) {
+        RaceSummaryDto r = new RaceSummaryDto(id, "Carrera " + id, place, province, 10.0, LocalDateTime.now().plusDays(daysAhead),
+                null, 0, 1L, "Ruta", 1L, "Baja");
+        geocoder.locate(place, province).ifPresent(p -> {
+            r.setLatitude(p.latitude());
+            r.setLongitude(p.longitude());
+        });
+        return r;
+    }
+
+    private static List<Long> ids(RaceNearPageDto page) {
+        return page.getItems().stream().map(RaceNearDto::getRace).map(RaceSummaryDto::getId).toList();
+    }
+}
@@ -0,0 +1,104 @@
+package com.running.service;
+
+import com.running.model.RaceSearchPageDto;
+import com.running.model.RaceSummaryDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RaceSearchIndexTest {
+
+    private final RaceSearchIndex index = new RaceSearchIndex();
+
+    @BeforeEach
+    void load() {
+        index.rebuild(List.of(
+                race(1L, "Media Maratón de Huelva", "Huelva", "Huelva", 30),
+                race(2L, "Trail Sierra de Aracena", "Aracena", "Huelva", 10),
+                race(3L, "Carrera Popular de Cádiz", "Cádiz", "Cádiz", 20),
+                race(4L, "San Silvestre Sevillana", "Sevilla", "Sevilla", 5),
+                race(5L, "Cross de Añora", "Añora", "Córdoba", 40)));
+    }
+
+    @Test
+    @DisplayName("Sin tildes ni mayúsculas: 'cadiz' y 'ANORA' encuentran Cádiz y Añora")
+    void accentFolding() {
+        assertEquals(List.of(3L), ids(index.search("cadiz", 0, 10)));
+        assertEquals(List.of(5L), ids(index.search("ANORA", 0, 10)));
+    }
+
+    @Test
+    @DisplayName("Prefijos y erratas: 'arac' y 'aracnea' encuentran Aracena")
+    void prefixAndTypos() {
+        assertEquals(List.of(2L), ids(index.search("arac", 0, 10)));
+        assertEquals(List.of(2L), ids(index.search("aracnea", 0, 10)));
+        assertEquals(List.of(4L), ids(index.search("silvestr sevilana", 0, 10)));
+    }
+
+    @Test
+    @DisplayName("Todos los términos deben casar y el nombre pesa más que la provincia")
+    void rankingAndConjunction() {
+        // "huelva" está en el nombre de la 1 y solo en la provincia de la 2
+        assertEquals(List.of(1L, 2L), ids(index.search("huelva", 0, 10)));
+        assertEquals(List.of(2L), ids(index.search("trail huelva", 0, 10)));
+        assertTrue(index.search("trail cadiz", 0, 10).getItems().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Altas, cambios y bajas incrementales")
+    void incrementalUpdates() {
+        index.upsert(race(6L, "Maratón de Sevilla", "Sevilla", "Sevilla", 50));
+        assertEquals(List.of(6L), ids(index.search("maraton sevilla", 0, 10)));
+
+        index.upsert(race(6L, "Maratón de Málaga", "Málaga", "Málaga", 50));
+        assertTrue(index.search("maraton sevilla", 0, 10).getItems().isEmpty());
+        assertEquals(List.of(6L), ids(index.search("malaga", 0, 10)));
+
+        index.remove(6L);
+        assertTrue(index.search("malaga", 0, 10).getItems().isEmpty());
+        assertEquals(5, index.size());
+    }
+
+    @Test
+    @DisplayName("Paginación con total y orden estable")
+    void pagination() {
+        List<RaceSummaryDto> many = new ArrayList<>();
+        for (long i = 1; i <= 45; i++) many.add(race(i, "Carrera " + i, "Huelva", "Huelva", (int) i));
+        index.rebuild(many);
+
+        RaceSearchPageDto second = index.search("carrera", 1, 20);
+        assertEquals(45, second.getTotal());
+        assertEquals(20, second.getItems().size());
+        assertEquals(21L, second.getItems().get(0).getId());
+        assertEquals(5, index.search("carrera", 2, 20).getItems().size());
+        // page * size no cabe en un int: página vacía, no excepción
+        RaceSearchPageDto beyond = index.search("carrera", Integer.MAX_VALUE / 10, 100);
+        assertTrue(beyond.getItems().isEmpty());
+        assertEquals(45, beyond.getTotal());
+    }
+
+    @Test
+    @DisplayName("Distancia de edición con transposición y corte temprano")
+    void withinEdits() {
+        assertTrue(RaceSearchIndex.withinEdits("aracena", "aracnea", 1));
+        assertTrue(RaceSearchIndex.withinEdits("huelva", "huelba", 1));
+        assertFalse(RaceSearchIndex.withinEdits("huelva", "sevilla", 2));
+    }
+
+    // ---- Helpers ----
+
+    private static List<Long> ids(RaceSearchPageDto page) {
+        return page.getItems().stream().map(RaceSummaryDto::getId).toList();
+    }
+
+    private static RaceSummaryDto race(Long id, String name, String place, String province, int daysAhead) {
+        return new RaceSummaryDto(id, name, place, province, 10.0, LocalDateTime.now().plusDays(daysAhead),
+                null, 0, 1L, "Asfalto", 1L, "Baja");
+    }
+}
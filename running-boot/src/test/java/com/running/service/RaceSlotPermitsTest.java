@@ -0,0 +1,83 @@
+package com.running.service;
+
+import com.running.repository.RaceRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RaceSlotPermitsTest {
+
+    @Mock
+    RaceRepository raceRepository;
+
+    @Test
+    @DisplayName("Con hilos en paralelo se conceden exactamente las plazas libres, estén en la franja que estén")
+    void concurrentAcquire_grantsExactlyFreeSlots() throws Exception {
+        when(raceRepository.findFreeSlots(1L)).thenReturn(Optional.of(37));
+        RaceSlotPermits permits = new RaceSlotPermits(raceRepository, Duration.ofMinutes(1));
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return permits.tryAcquire(1L);
+                }));
+            }
+            start.countDown();
+            int granted = 0;
+            for (Future<Boolean> f : results) {
+                if (f.get(10, TimeUnit.SECONDS)) granted++;
+            }
+            assertEquals(37, granted);
+        } finally {
+            pool.shutdownNow();
+        }
+        assertFalse(permits.tryAcquire(1L));
+    }
+
+    @Test
+    @DisplayName("release devuelve una plaza y markFull vacía todas las franjas")
+    void releaseAndMarkFull() {
+        when(raceRepository.findFreeSlots(1L)).thenReturn(Optional.of(1));
+        RaceSlotPermits permits = new RaceSlotPermits(raceRepository, Duration.ofMinutes(1));
+
+        assertTrue(permits.tryAcquire(1L));
+        assertFalse(permits.tryAcquire(1L));
+
+        permits.release(1L);
+        assertTrue(permits.tryAcquire(1L));
+
+        permits.release(1L);
+        permits.release(1L);
+        permits.markFull(1L);
+        assertFalse(permits.tryAcquire(1L));
+    }
+
+    @Test
+    @DisplayName("Carrera sin aforo: siempre hay plaza")
+    void noCapacity_alwaysGranted() {
+        when(raceRepository.findFreeSlots(3L)).thenReturn(Optional.empty());
+        RaceSlotPermits permits = new RaceSlotPermits(raceRepository, Duration.ofMinutes(1));
+
+        for (int i = 0; i < 1000; i++) assertTrue(permits.tryAcquire(3L));
+    }
+}
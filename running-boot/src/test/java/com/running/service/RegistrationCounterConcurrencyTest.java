@@ -0,0 +1,278 @@
+package com.running.service;
+
+import com.running.model.Race;
+import com.running.repository.RaceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Prueba de estrés de los contadores de inscritos: miles de confirmaciones y cancelaciones
+ * en paralelo (con duplicados) sobre la misma carrera, y se comprueba el valor final de
+ * race.registered. Cada llamada al servicio va en su propia transacción.
+ *
+ * Necesita un MySQL 8 desechable:
+ *   mvn -pl running-boot test -Dtest=RegistrationCounterConcurrencyTest \
+ *       -Dit.mysql.url=jdbc:mysql://localhost:3306/running_it -Dit.mysql.user=root -Dit.mysql.password=...
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfSystemProperty(named = "it.mysql.url", matches = ".+")
+class RegistrationCounterConcurrencyTest {
+
+    private static final int USERS = 2000;
+    private static final int THREADS = 32;
+    private static final String UID_PREFIX = "stress-uid-";
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EnableJpaRepositories(basePackages = "com.running.repository")
+    @EntityScan(basePackages = "com.running.model")
+    @Import({UserRaceService.class, RaceSlotPermits.class})
+    static class Config {
+    }
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getProperty("it.mysql.url"));
+        registry.add("spring.datasource.username", () -> System.getProperty("it.mysql.user", "root"));
+        registry.add("spring.datasource.password", () -> System.getProperty("it.mysql.password", ""));
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> THREADS + 2);
+        registry.add("spring.flyway.baseline-on-migrate", () -> true);
+        registry.add("spring.flyway.baseline-version", () -> 1);
+    }
+
+    @Autowired
+    private UserRaceService userRaceService;
+
+    @Autowired
+    private RaceRepository raceRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long raceId;
+
+    @BeforeEach
+    void seed() {
+        jdbc.update("DELETE ur FROM user_race ur JOIN `user` u ON u.id = ur.user_id WHERE u.uid LIKE ?", UID_PREFIX + "%");
+        jdbc.update("DELETE FROM `user` WHERE uid LIKE ?", UID_PREFIX + "%");
+        jdbc.update("DELETE FROM race WHERE name = 'Stress race'");
+
+        jdbc.update("INSERT IGNORE INTO role (name) SELECT 'user' FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM role WHERE name = 'user')");
+        Long roleId = jdbc.queryForObject("SELECT MIN(id) FROM role WHERE name = 'user'", Long.class);
+        jdbc.update("INSERT IGNORE INTO type (id_type, name) VALUES (1, 'Asfalto')");
+        jdbc.update("INSERT IGNORE INTO difficulty (iddifficulty, name) VALUES (1, 'Fácil')");
+        jdbc.update("""
+                INSERT INTO race (name, place, province, distance_km, date, registered, id_type, iddifficulty)
+                VALUES ('Stress race', 'Huelva', 'Huelva', 10, NOW() + INTERVAL 30 DAY, 0, 1, 1)
+                """);
+        raceId = jdbc.queryForObject("SELECT id FROM race WHERE name = 'Stress race'", Long.class);
+
+        List<Object[]> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            users.add(new Object[]{UID_PREFIX + i, "Stress " + i, "stress" + i + "@it.test", roleId});
+        }
+        jdbc.batchUpdate("INSERT INTO `user` (uid, name, email, role_id) VALUES (?, ?, ?, ?)", users);
+        jdbc.update("""
+                INSERT INTO user_race (user_id, race_id, registration_date, status)
+                SELECT u.id, ?, NOW(), 'pendiente' FROM `user` u WHERE u.uid LIKE ?
+                """, raceId, UID_PREFIX + "%");
+    }
+
+    @Test
+    @DisplayName("Confirmaciones concurrentes (con duplicados) → registered = nº de usuarios")
+    void concurrentConfirmations_countEachUserOnce() throws Exception {
+        // Cada usuario confirma dos veces: la segunda debe ser idempotente
+        List<Callable<Void>> tasks = new ArrayList<>(USERS * 2);
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < USERS; i++) {
+                String uid = UID_PREFIX + i;
+                tasks.add(() -> {
+                    userRaceService.confirmRegistration(uid, raceId);
+                    return null;
+                });
+            }
+        }
+        runConcurrently(tasks);
+
+        assertEquals(USERS, raceRepository.findById(raceId).orElseThrow().getRegistered());
+        assertEquals(USERS, jdbc.queryForObject(
+                "SELECT COUNT(*) FROM user_race WHERE race_id = ? AND status = 'confirmada'", Integer.class, raceId));
+    }
+
+    @Test
+    @DisplayName("Confirmar todos y cancelar la mitad en paralelo → registered = la otra mitad")
+    void concurrentCancellations_decrementOnce() throws Exception {
+        List<Callable<Void>> confirms = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            String uid = UID_PREFIX + i;
+            confirms.add(() -> {
+                userRaceService.confirmRegistration(uid, raceId);
+                return null;
+            });
+        }
+        runConcurrently(confirms);
+
+        List<Callable<Void>> cancels = new ArrayList<>(USERS);
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < USERS; i += 2) {
+                String uid = UID_PREFIX + i;
+                cancels.add(() -> {
+                    userRaceService.cancelRegistration(uid, raceId);
+                    return null;
+                });
+            }
+        }
+        runConcurrently(cancels);
+
+        assertEquals(USERS / 2, raceRepository.findById(raceId).orElseThrow().getRegistered());
+    }
+
+    @Test
+    @DisplayName("Con aforo, las confirmaciones concurrentes nunca lo superan y el resto queda en lista de espera")
+    void concurrentConfirmations_neverOversell() throws Exception {
+        int capacity = USERS / 4;
+        jdbc.update("UPDATE race SET capacity = ? WHERE id = ?", capacity, raceId);
+
+        List<Callable<Void>> tasks = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            String uid = UID_PREFIX + i;
+            tasks.add(() -> {
+                userRaceService.confirmRegistration(uid, raceId);
+                return null;
+            });
+        }
+        runConcurrently(tasks);
+
+        assertEquals(capacity, raceRepository.findById(raceId).orElseThrow().getRegistered());
+        assertEquals(USERS - capacity, jdbc.queryForObject(
+                "SELECT COUNT(*) FROM user_race WHERE race_id = ? AND status = 'lista_espera'", Integer.class, raceId));
+
+        // Una baja libera plaza para el primero de la lista de espera
+        String confirmed = jdbc.queryForObject("""
+                SELECT u.uid FROM user_race ur JOIN `user` u ON u.id = ur.user_id
+                WHERE ur.race_id = ? AND ur.status = 'confirmada' LIMIT 1
+                """, String.class, raceId);
+        userRaceService.cancelRegistration(confirmed, raceId);
+
+        assertEquals(capacity, raceRepository.findById(raceId).orElseThrow().getRegistered());
+        assertEquals(USERS - capacity - 1, jdbc.queryForObject(
+                "SELECT COUNT(*) FROM user_race WHERE race_id = ? AND status = 'lista_espera'", Integer.class, raceId));
+    }
+
+    @Test
+    @DisplayName("Confirmar y cancelar a la vez los mismos usuarios → registered = nº de confirmadas")
+    void concurrentConfirmAndCancel_counterMatchesRows() throws Exception {
+        List<Callable<Void>> tasks = new ArrayList<>(USERS * 2);
+        for (int i = 0; i < USERS; i++) {
+            String uid = UID_PREFIX + i;
+            tasks.add(() -> {
+                userRaceService.confirmRegistration(uid, raceId);
+                return null;
+            });
+            tasks.add(() -> {
+                userRaceService.cancelRegistration(uid, raceId);
+                return null;
+            });
+        }
+        runConcurrently(tasks);
+
+        Integer confirmed = jdbc.queryForObject(
+                "SELECT COUNT(*) FROM user_race WHERE race_id = ? AND status = 'confirmada'", Integer.class, raceId);
+        assertEquals(confirmed, raceRepository.findById(raceId).orElseThrow().getRegistered());
+    }
+
+    @Test
+    @DisplayName("Guardar una carrera leída antes de las confirmaciones no pisa registered")
+    void staleRaceSave_keepsCounter() throws Exception {
+        Race stale = raceRepository.findById(raceId).orElseThrow();
+
+        List<Callable<Void>> confirms = new ArrayList<>(100);
+        for (int i = 0; i < 100; i++) {
+            String uid = UID_PREFIX + i;
+            confirms.add(() -> {
+                userRaceService.confirmRegistration(uid, raceId);
+                return null;
+            });
+        }
+        runConcurrently(confirms);
+
+        stale.setSlope(120);
+        raceRepository.save(stale);
+
+        assertEquals(100, raceRepository.findById(raceId).orElseThrow().getRegistered());
+    }
+
+    @Test
+    @DisplayName("El aforo no baja de los inscritos y al subirlo entra la lista de espera")
+    void capacityChange_guardedAndPromotesWaitlist() throws Exception {
+        jdbc.update("UPDATE race SET capacity = 10 WHERE id = ?", raceId);
+        for (int i = 0; i < 20; i++) {
+            userRaceService.confirmRegistration(UID_PREFIX + i, raceId);
+        }
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        assertEquals(0, tx.execute(st -> raceRepository.updateCapacityIfFits(raceId, 5)));
+        tx.executeWithoutResult(st -> {
+            assertEquals(1, raceRepository.updateCapacityIfFits(raceId, 15));
+            for (int i = 10; i < 15; i++) userRaceService.promoteFromWaitlist(raceId);
+        });
+
+        assertEquals(15, raceRepository.findById(raceId).orElseThrow().getRegistered());
+        assertEquals(5, jdbc.queryForObject(
+                "SELECT COUNT(*) FROM user_race WHERE race_id = ? AND status = 'lista_espera'", Integer.class, raceId));
+    }
+
+    /** Lanza todas las tareas a la vez y propaga la primera excepción. */
+    private static void runConcurrently(List<Callable<Void>> tasks) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Void>> futures = new ArrayList<>(tasks.size());
+            for (Callable<Void> task : tasks) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            for (Future<Void> f : futures) {
+                f.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.running.service;
+
+import com.running.model.RegistrationTicketDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * RegistrationIntakeService sin base de datos: la cola y la deduplicación sin arrancar el hilo de
+ * vaciado, y la escritura de un lote con NamedParameterJdbcTemplate simulado.
+ */
+@ExtendWith(MockitoExtension.class)
+class RegistrationIntakeServiceTest {
+
+    private static final String UID = "uid-1";
+    private static final long USER_ID = 1L;
+    private static final long RACE_ID = 7L;
+
+    @Mock
+    NamedParameterJdbcTemplate jdbc;
+
+    private RegistrationIntakeService service;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (service != null) service.stop();
+    }
+
+    @Test
+    @DisplayName("La misma (uid, carrera) en cola devuelve el mismo ticket y no se encola dos veces")
+    void duplicateWhileQueued_returnsSameTicket() {
+        RegistrationIntakeService intake = new RegistrationIntakeService(jdbc, 10, 500, Duration.ofMinutes(10));
+
+        RegistrationTicketDto first = intake.submit(UID, RACE_ID);
+        RegistrationTicketDto again = intake.submit(UID, RACE_ID);
+        RegistrationTicketDto otherRace = intake.submit(UID, RACE_ID + 1);
+
+        assertEquals(first.getTicket(), again.getTicket());
+        assertNotEquals(first.getTicket(), otherRace.getTicket());
+        assertEquals(RegistrationIntakeService.EN_COLA, intake.getTicket(first.getTicket()).getStatus());
+        assertEquals(2, intake.queued());
+    }
+
+    @Test
+    @DisplayName("Cola llena: 503 y la petición rechazada no deja ticket ni clave de deduplicación")
+    void queueFull_returns503() {
+        RegistrationIntakeService intake = new RegistrationIntakeService(jdbc, 1, 500, Duration.ofMinutes(10));
+        intake.submit(UID, RACE_ID);
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> intake.submit("uid-2", RACE_ID));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatusCode());
+        // Si la clave se hubiera quedado en queuedByKey, el reintento devolvería un ticket fantasma
+        assertThrows(ResponseStatusException.class, () -> intake.submit("uid-2", RACE_ID));
+        assertEquals(1, intake.queued());
+    }
+
+    @Test
+    @DisplayName("Ya en lista de espera: la pre-inscripción es idempotente y no se reescribe la fila")
+    void waitlisted_isNotOverwritten() throws Exception {
+        givenUserAndRace();
+        givenCurrentStatus(UserRaceService.LISTA_ESPERA);
+
+        RegistrationTicketDto ticket = processed(UID, RACE_ID);
+
+        assertEquals(RegistrationIntakeService.REGISTRADA, ticket.getStatus());
+        verify(jdbc, never()).batchUpdate(anyString(), any(SqlParameterSource[].class));
+    }
+
+    @Test
+    @DisplayName("Ya confirmada: se rechaza y no se reescribe la fila")
+    void confirmed_isRejected() throws Exception {
+        givenUserAndRace();
+        givenCurrentStatus("confirmada");
+
+        RegistrationTicketDto ticket = processed(UID, RACE_ID);
+
+        assertEquals(RegistrationIntakeService.RECHAZADA, ticket.getStatus());
+        verify(jdbc, never()).batchUpdate(anyString(), any(SqlParameterSource[].class));
+    }
+
+    @Test
+    @DisplayName("Sin fila previa: un único upsert que, ante una fila concurrente, conserva confirmada y lista_espera")
+    void newRegistration_upsertKeepsConfirmedAndWaitlisted() throws Exception {
+        givenUserAndRace();
+        givenNoCurrentStatus();
+
+        RegistrationTicketDto ticket = processed(UID, RACE_ID);
+
+        assertEquals(RegistrationIntakeService.REGISTRADA, ticket.getStatus());
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<SqlParameterSource[]> params = ArgumentCaptor.forClass(SqlParameterSource[].class);
+        verify(jdbc).batchUpdate(sql.capture(), params.capture());
+
+        assertEquals(1, params.getValue().length);
+        assertEquals(USER_ID, params.getValue()[0].getValue("userId"));
+        assertEquals(RACE_ID, params.getValue()[0].getValue("raceId"));
+        String upsert = sql.getValue().replaceAll("\\s+", " ");
+        assertTrue(upsert.contains("ON DUPLICATE KEY UPDATE"));
+        assertTrue(upsert.contains("status = IF(status IN ('confirmada', 'lista_espera'), status, 'pendiente')"), upsert);
+    }
+
+    // ---- Helpers ----
+
+    /** Arranca el hilo de vaciado, encola y espera a que el lote se procese. */
+    private RegistrationTicketDto processed(String uid, Long raceId) throws InterruptedException {
+        service = new RegistrationIntakeService(jdbc, 10, 500, Duration.ofMinutes(10));
+        service.start();
+        String ticket = service.submit(uid, raceId).getTicket();
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        RegistrationTicketDto dto = service.getTicket(ticket);
+        while (RegistrationIntakeService.EN_COLA.equals(dto.getStatus()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            dto = service.getTicket(ticket);
+        }
+        return dto;
+    }
+
+    private void givenUserAndRace() throws SQLException {
+        ResultSet user = mock(ResultSet.class);
+        when(user.getString("uid")).thenReturn(UID);
+        when(user.getLong("id")).thenReturn(USER_ID);
+        doAnswer(inv -> {
+            inv.<RowCallbackHandler>getArgument(2).processRow(user);
+            return null;
+        }).when(jdbc).query(startsWith("SELECT id, uid FROM `user`"), any(SqlParameterSource.class), any(RowCallbackHandler.class));
+
+        when(jdbc.queryForList(startsWith("SELECT id FROM race"), any(SqlParameterSource.class), eq(Long.class)))
+                .thenReturn(List.of(RACE_ID));
+    }
+
+    /** Stub explícito: con strict stubs, una llamada a query() que no casa con ningún stub falla. */
+    private void givenNoCurrentStatus() {
+        doAnswer(inv -> null)
+                .when(jdbc).query(startsWith("SELECT user_id, race_id, status FROM user_race"), any(SqlParameterSource.class), any(RowCallbackHandler.class));
+    }
+
+    private void givenCurrentStatus(String status) throws SQLException {
+        ResultSet row = mock(ResultSet.class);
+        when(row.getLong("user_id")).thenReturn(USER_ID);
+        when(row.getLong("race_id")).thenReturn(RACE_ID);
+        when(row.getString("status")).thenReturn(status);
+        doAnswer(inv -> {
+            inv.<RowCallbackHandler>getArgument(2).processRow(row);
+            return null;
+        }).when(jdbc).query(startsWith("SELECT user_id, race_id, status FROM user_race"), any(SqlParameterSource.class), any(RowCallbackHandler.class));
+    }
+}
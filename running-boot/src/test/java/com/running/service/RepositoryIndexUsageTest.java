@@ -0,0 +1,406 @@
+package com.running.service;
+
+import com.running.model.ReassignmentLog;
+import com.running.repository.AccessoriesRepository;
+import com.running.repository.ClubRepository;
+import com.running.repository.DifficultyRepository;
+import com.running.repository.RaceRepository;
+import com.running.repository.RaceSpecifications;
+import com.running.repository.ReassignmentLogRepository;
+import com.running.repository.RoleRepository;
+import com.running.repository.TrainingPlanRepository;
+import com.running.repository.TypeRepository;
+import com.running.repository.UserRaceRepository;
+import com.running.repository.UserRepository;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica con EXPLAIN que cada consulta de com.running.repository usa un índice una vez
+ * aplicadas las migraciones de Flyway. Cada caso llama al método del repositorio; el SQL que
+ * Hibernate emite se captura con {@link StatementCapture} (con sus parámetros) y es ese el
+ * que se pasa a EXPLAIN.
+ * <p>
+ * Las consultas en las que el full scan es lo esperado van en {@link #FULL_SCAN_ALLOWED}: se
+ * ejecutan igual, pero no se les exige índice. No se listan las búsquedas por clave primaria
+ * (findById, findSummaryById, findFreeSlots...) ni las sentencias {@code @Modifying}, que
+ * cambiarían los datos de los demás casos.
+ *
+ * Necesita un MySQL 8 desechable:
+ *   mvn -pl running-boot test -Dtest=RepositoryIndexUsageTest \
+ *       -Dit.mysql.url=jdbc:mysql://localhost:3306/running_it -Dit.mysql.user=root -Dit.mysql.password=...
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfSystemProperty(named = "it.mysql.url", matches = ".+")
+class RepositoryIndexUsageTest {
+
+    private static final String URL = System.getProperty("it.mysql.url");
+    private static final String USER = System.getProperty("it.mysql.user", "root");
+    private static final String PASSWORD = System.getProperty("it.mysql.password", "");
+
+    /** "from tabla alias" / "join tabla alias", con o sin comillas invertidas. */
+    private static final Pattern TABLE_REF = Pattern.compile("(?i)\\b(?:from|join)\\s+`?(\\w+)`?(?:\\s+(?:as\\s+)?(\\w+))?");
+    private static final Set<String> KEYWORDS = Set.of("where", "join", "left", "right", "inner", "cross", "on", "order", "group", "limit");
+
+    /** Métodos cuyo full scan es intencionado; cada uno debe tener su caso en everyRepositoryQueryUsesAnIndex. */
+    private static final Set<String> FULL_SCAN_ALLOWED = Set.of(
+            // Todos los clubs salvo el que se excluye (listado sin provincia): devuelve casi toda la
+            // tabla, un índice sobre upper(name) no evita leerla entera
+            "ClubRepository.findByNameNotIgnoreCase"
+    );
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EnableJpaRepositories(basePackages = "com.running.repository")
+    @EntityScan(basePackages = "com.running.model")
+    @Import(StatementCapture.class)
+    static class Config {
+    }
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> URL);
+        registry.add("spring.datasource.username", () -> USER);
+        registry.add("spring.datasource.password", () -> PASSWORD);
+        registry.add("spring.flyway.baseline-on-migrate", () -> true);
+        registry.add("spring.flyway.baseline-version", () -> 1);
+    }
+
+    /** table: tabla cuyo acceso debe ir por índice en todas las sentencias que lance call. */
+    record QueryCase(String method, String table, StatementCapture.Action call) {
+    }
+
+    @Autowired private UserRepository userRepository;
+    @Autowired private RoleRepository roleRepository;
+    @Autowired private RaceRepository raceRepository;
+    @Autowired private TypeRepository typeRepository;
+    @Autowired private DifficultyRepository difficultyRepository;
+    @Autowired private UserRaceRepository userRaceRepository;
+    @Autowired private ClubRepository clubRepository;
+    @Autowired private TrainingPlanRepository trainingPlanRepository;
+    @Autowired private AccessoriesRepository accessoriesRepository;
+    @Autowired private ReassignmentLogRepository reassignmentLogRepository;
+
+    @BeforeAll
+    static void migrateAndSeed() throws SQLException {
+        Flyway.configure()
+                .dataSource(URL, USER, PASSWORD)
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+
+        try (Connection cn = connect()) {
+            seed(cn);
+        }
+    }
+
+    @TestFactory
+    Stream<DynamicTest> everyRepositoryQueryUsesAnIndex() {
+        LocalDateTime now = LocalDateTime.now();
+        List<QueryCase> cases = List.of(
+                // UserRepository
+                new QueryCase("UserRepository.findByUID", "user",
+                        () -> userRepository.findByUID("uid-10")),
+                new QueryCase("UserRepository.findByUIDWithRole", "user",
+                        () -> userRepository.findByUIDWithRole("uid-10")),
+                new QueryCase("UserRepository.findByUIDWithClubs", "user",
+                        () -> userRepository.findByUIDWithClubs("uid-10")),
+                new QueryCase("UserRepository.findByEmail", "user",
+                        () -> userRepository.findByEmail("user10@it.test")),
+                new QueryCase("UserRepository.existsByIdAndRole_Name", "role",
+                        () -> userRepository.existsByIdAndRole_Name(10L, "admin")),
+                new QueryCase("UserRepository.findByClubs_Id", "user_club",
+                        () -> userRepository.findByClubs_Id(5L)),
+                new QueryCase("UserRepository.findClubMembersFirstPage", "user_club",
+                        () -> userRepository.findClubMembersFirstPage(5L, "Nombre%", PageRequest.of(0, 51))),
+                new QueryCase("UserRepository.findClubMembersAfter", "user_club",
+                        () -> userRepository.findClubMembersAfter(5L, "Nombre%", "Nombre1", 1L, PageRequest.of(0, 51))),
+                new QueryCase("UserRepository.findFirstByRole_NameOrderByIdAsc", "role",
+                        () -> userRepository.findFirstByRole_NameOrderByIdAsc("admin")),
+                new QueryCase("UserRepository.findClubIdsByUserId", "user_club",
+                        () -> userRepository.findClubIdsByUserId(10L)),
+                // RoleRepository
+                new QueryCase("RoleRepository.findByName", "role",
+                        () -> roleRepository.findByName("user")),
+                // RaceRepository
+                new QueryCase("RaceRepository.findByProvince", "race",
+                        () -> raceRepository.findByProvince("Huelva")),
+                new QueryCase("RaceRepository.findByType", "race",
+                        () -> raceRepository.findByType(typeRepository.getReferenceById(2L))),
+                new QueryCase("RaceRepository.findByDifficulty", "race",
+                        () -> raceRepository.findByDifficulty(difficultyRepository.getReferenceById(2L))),
+                new QueryCase("RaceRepository.findByOrganizer_IdOrderByDateDesc", "race",
+                        () -> raceRepository.findByOrganizer_IdOrderByDateDesc(3L)),
+                new QueryCase("RaceRepository.findByOrganizer_UIDOrderByDateDesc", "user",
+                        () -> raceRepository.findByOrganizer_UIDOrderByDateDesc("uid-3")),
+                new QueryCase("RaceRepository.findIdsByOrganizer", "race",
+                        () -> raceRepository.findIdsByOrganizer(userRepository.getReferenceById(3L))),
+                new QueryCase("RaceRepository.findByNameIgnoreCase", "race",
+                        () -> raceRepository.findByNameIgnoreCase("carrera 10")),
+                new QueryCase("RaceRepository.existsByNameIgnoreCase", "race",
+                        () -> raceRepository.existsByNameIgnoreCase("carrera 10")),
+                new QueryCase("RaceRepository.existsByNameIgnoreCaseAndIdNot", "race",
+                        () -> raceRepository.existsByNameIgnoreCaseAndIdNot("carrera 10", 10L)),
+                new QueryCase("RaceRepository.findSummariesFirstPage", "race",
+                        () -> raceRepository.findSummariesFirstPage(PageRequest.of(0, 51))),
+                new QueryCase("RaceRepository.findSummariesAfter", "race",
+                        () -> raceRepository.findSummariesAfter(now, 100L, PageRequest.of(0, 51))),
+                // Recorre toda la tabla, pero por rangos de la clave primaria (carga de los índices en memoria)
+                new QueryCase("RaceRepository.findSummariesAfterId", "race",
+                        () -> raceRepository.findSummariesAfterId(2_500L, PageRequest.of(0, 1_000))),
+                new QueryCase("RaceSpecifications.filter(province, finalizada=false)", "race",
+                        () -> raceRepository.findAll(RaceSpecifications.filter("Huelva", null, null, null, null, false, now),
+                                Sort.by(Sort.Order.asc("date"), Sort.Order.asc("id")))),
+                // UserRaceRepository
+                new QueryCase("UserRaceRepository.findByUser_UID", "user",
+                        () -> userRaceRepository.findByUser_UID("uid-10")),
+                new QueryCase("UserRaceRepository.findByUser_UIDAndRace_Id", "user_race",
+                        () -> userRaceRepository.findByUser_UIDAndRace_Id("uid-38", 10L)),
+                new QueryCase("UserRaceRepository.findByUserIdAndStatus", "user_race",
+                        () -> userRaceRepository.findByUserIdAndStatus(10L, "confirmada")),
+                new QueryCase("UserRaceRepository.findByRace_IdAndStatus", "user_race",
+                        () -> userRaceRepository.findByRace_IdAndStatus(10L, "pendiente")),
+                // Lista de espera: idx_user_race_race_status_date (V3) resuelve también el orden
+                new QueryCase("UserRaceRepository.findFirstByRace_IdAndStatusOrderByRegistrationDateAsc", "user_race",
+                        () -> userRaceRepository.findFirstByRace_IdAndStatusOrderByRegistrationDateAsc(10L, "lista_espera")),
+                new QueryCase("UserRaceRepository.findByRace_Organizer_UIDAndStatus", "user",
+                        () -> userRaceRepository.findByRace_Organizer_UIDAndStatus("uid-3", "pendiente")),
+                new QueryCase("UserRaceRepository.findByRace_Organizer_IdAndStatus", "race",
+                        () -> userRaceRepository.findByRace_Organizer_IdAndStatus(3L, "pendiente")),
+                new QueryCase("UserRaceRepository.findStatusByUserIdAndRaceId", "user_race",
+                        () -> userRaceRepository.findStatusByUserIdAndRaceId(38L, 10L)),
+                new QueryCase("UserRaceRepository.findParticipantsByRaceAndRoleUser", "user_race",
+                        () -> userRaceRepository.findParticipantsByRaceAndRoleUser(10L, null)),
+                new QueryCase("UserRaceRepository.findPendingByRaceIdAndUserUid", "user_race",
+                        () -> userRaceRepository.findPendingByRaceIdAndUserUid(10L, "uid-38")),
+                new QueryCase("UserRaceRepository.findResponseDtosByUserUid", "user_race",
+                        () -> userRaceRepository.findResponseDtosByUserUid("uid-10")),
+                new QueryCase("UserRaceRepository.findResponseDtosByUserUidAndStatus", "user_race",
+                        () -> userRaceRepository.findResponseDtosByUserUidAndStatus("uid-10", "confirmada")),
+                new QueryCase("UserRaceRepository.findResponseDtosByOrganizerIdAndStatus", "race",
+                        () -> userRaceRepository.findResponseDtosByOrganizerIdAndStatus(3L, "pendiente")),
+                new QueryCase("UserRaceRepository.findResponseDtosByRaceIdAndStatus", "user_race",
+                        () -> userRaceRepository.findResponseDtosByRaceIdAndStatus(10L, "confirmada")),
+                new QueryCase("UserRaceRepository.findConfirmedMarcasByUserUid", "user_race",
+                        () -> userRaceRepository.findConfirmedMarcasByUserUid("uid-10")),
+                // ClubRepository
+                new QueryCase("ClubRepository.findByManager_UIDOrderByNameAsc", "user",
+                        () -> clubRepository.findByManager_UIDOrderByNameAsc("uid-4")),
+                new QueryCase("ClubRepository.findIdsByManager", "club",
+                        () -> clubRepository.findIdsByManager(userRepository.getReferenceById(4L))),
+                new QueryCase("ClubRepository.findByNameIgnoreCase", "club",
+                        () -> clubRepository.findByNameIgnoreCase("club 7")),
+                new QueryCase("ClubRepository.existsByNameIgnoreCase", "club",
+                        () -> clubRepository.existsByNameIgnoreCase("club 7")),
+                new QueryCase("ClubRepository.existsByNameIgnoreCaseAndIdNot", "club",
+                        () -> clubRepository.existsByNameIgnoreCaseAndIdNot("club 7", 7L)),
+                new QueryCase("ClubRepository.findByProvinceIgnoreCaseAndNameNotIgnoreCase", "club",
+                        () -> clubRepository.findByProvinceIgnoreCaseAndNameNotIgnoreCase("huelva", "default")),
+                new QueryCase("ClubRepository.findByNameNotIgnoreCase", "club",
+                        () -> clubRepository.findByNameNotIgnoreCase("default")),
+                // TrainingPlanRepository
+                new QueryCase("TrainingPlanRepository.findByClub", "training_plans",
+                        () -> trainingPlanRepository.findByClub(clubRepository.getReferenceById(5L))),
+                new QueryCase("TrainingPlanRepository.existsByClub_IdAndNameIgnoreCase", "training_plans",
+                        () -> trainingPlanRepository.existsByClub_IdAndNameIgnoreCase(5L, "plan 5")),
+                new QueryCase("TrainingPlanRepository.existsByClub_IdAndNameIgnoreCaseAndIdNot", "training_plans",
+                        () -> trainingPlanRepository.existsByClub_IdAndNameIgnoreCaseAndIdNot(5L, "plan 5", 5L)),
+                // AccessoriesRepository
+                new QueryCase("AccessoriesRepository.existsByTitleIgnoreCase", "accessories",
+                        () -> accessoriesRepository.existsByTitleIgnoreCase("accesorio 3")),
+                new QueryCase("AccessoriesRepository.existsByTitleIgnoreCaseAndIdNot", "accessories",
+                        () -> accessoriesRepository.existsByTitleIgnoreCaseAndIdNot("accesorio 3", 3L)),
+                // ReassignmentLogRepository
+                new QueryCase("ReassignmentLogRepository.findByToUser_UIDAndEntityTypeOrderByCreatedAtDesc", "reassignment_log",
+                        () -> reassignmentLogRepository.findByToUser_UIDAndEntityTypeOrderByCreatedAtDesc(
+                                "uid-1", ReassignmentLog.EntityType.RACE))
+        );
+
+        Set<String> methods = cases.stream().map(QueryCase::method).collect(Collectors.toSet());
+        assertTrue(methods.containsAll(FULL_SCAN_ALLOWED), "FULL_SCAN_ALLOWED sin caso: " + FULL_SCAN_ALLOWED);
+
+        return cases.stream().map(c -> DynamicTest.dynamicTest(c.method(), () -> assertUsesIndex(c)));
+    }
+
+    private void assertUsesIndex(QueryCase c) throws Exception {
+        List<StatementCapture.Statement> statements = StatementCapture.capture(c.call());
+        assertFalse(statements.isEmpty(), c.method() + " no lanzó ninguna sentencia");
+
+        boolean found = false;
+        try (Connection cn = connect()) {
+            for (StatementCapture.Statement statement : statements) {
+                Set<String> aliases = aliasesOf(statement.sql(), c.table());
+                if (aliases.isEmpty()) continue;
+                try (PreparedStatement ps = cn.prepareStatement("EXPLAIN " + statement.sql())) {
+                    statement.bind(ps);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            if (aliases.contains(rs.getString("table"))) {
+                                found = true;
+                                if (FULL_SCAN_ALLOWED.contains(c.method())) continue;
+                                assertNotNull(rs.getString("key"),
+                                        c.method() + " hace full scan sobre " + c.table() + ": " + statement.sql());
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        assertTrue(found, "Ninguna sentencia de " + c.method() + " lee la tabla " + c.table() + ": " + statements);
+    }
+
+    /** Alias con los que aparece table en el SQL (el propio nombre si va sin alias). */
+    static Set<String> aliasesOf(String sql, String table) {
+        Set<String> aliases = new HashSet<>();
+        Matcher m = TABLE_REF.matcher(sql);
+        while (m.find()) {
+            if (!m.group(1).equalsIgnoreCase(table)) continue;
+            String alias = m.group(2);
+            aliases.add(alias == null || KEYWORDS.contains(alias.toLowerCase(Locale.ROOT)) ? m.group(1) : alias);
+        }
+        return aliases;
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(URL, USER, PASSWORD);
+    }
+
+    // ---- Datos: suficientes filas para que el optimizador no prefiera un full scan ----
+
+    private static void seed(Connection cn) throws SQLException {
+        try (Statement st = cn.createStatement(); ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM race")) {
+            rs.next();
+            if (rs.getLong(1) > 0) return;
+        }
+
+        cn.setAutoCommit(false);
+        try (Statement st = cn.createStatement()) {
+            st.execute("INSERT INTO role (id, name) VALUES (1, 'admin'), (2, 'organizator'), (3, 'club-administrator'), (4, 'user')");
+            st.execute("INSERT INTO type (id_type, name) VALUES (1, 'Asfalto'), (2, 'Trail'), (3, 'Cross')");
+            st.execute("INSERT INTO difficulty (iddifficulty, name) VALUES (1, 'Baja'), (2, 'Media'), (3, 'Alta')");
+        }
+        batch(cn, "INSERT INTO `user` (id, email, name, surname, uid, role_id) VALUES (?, ?, ?, ?, ?, ?)", 2_000,
+                (ps, i) -> {
+                    ps.setLong(1, i);
+                    ps.setString(2, "user" + i + "@it.test");
+                    ps.setString(3, "Nombre" + i);
+                    ps.setString(4, "Apellido" + i);
+                    ps.setString(5, "uid-" + i);
+                    ps.setLong(6, i <= 5 ? 1 + (i % 3) : 4);
+                });
+        batch(cn, "INSERT INTO club (id, name, province, members, manager_user_id) VALUES (?, ?, ?, 0, ?)", 200,
+                (ps, i) -> {
+                    ps.setLong(1, i);
+                    ps.setString(2, "Club " + i);
+                    ps.setString(3, i % 4 == 0 ? "Huelva" : "Provincia " + (i % 40));
+                    ps.setLong(4, 1 + (i % 5));
+                });
+        batch(cn, "INSERT INTO user_club (user_id, club_id) VALUES (?, ?)", 2_000,
+                (ps, i) -> {
+                    ps.setLong(1, i);
+                    ps.setLong(2, 1 + (i % 200));
+                });
+        LocalDateTime base = LocalDateTime.now().minusYears(2);
+        batch(cn, "INSERT INTO race (id, name, place, distance_km, date, province, registered, id_type, iddifficulty, organizer_user_id) " +
+                        "VALUES (?, ?, ?, 10, ?, ?, 0, ?, ?, ?)", 5_000,
+                (ps, i) -> {
+                    ps.setLong(1, i);
+                    ps.setString(2, "Carrera " + i);
+                    ps.setString(3, "Lugar " + i);
+                    ps.setTimestamp(4, Timestamp.valueOf(base.plusHours(i * 7L)));
+                    ps.setString(5, i % 30 == 0 ? "Huelva" : "Provincia " + (i % 40));
+                    ps.setLong(6, 1 + (i % 3));
+                    ps.setLong(7, 1 + (i % 3));
+                    ps.setLong(8, 1 + (i % 5));
+                });
+        batch(cn, "INSERT INTO user_race (user_id, race_id, registration_date, status) VALUES (?, ?, ?, ?)", 20_000,
+                (ps, i) -> {
+                    ps.setLong(1, 1 + (i % 2_000));
+                    ps.setLong(2, 1 + ((i - 1) / 4));
+                    ps.setTimestamp(3, Timestamp.valueOf(base));
+                    ps.setString(4, i % 3 == 0 ? "pendiente" : (i % 3 == 1 ? "confirmada" : "cancelada"));
+                });
+        batch(cn, "INSERT INTO training_plans (id_club, name, content_json) VALUES (?, ?, '{}')", 400,
+                (ps, i) -> {
+                    ps.setLong(1, 1 + (i % 200));
+                    ps.setString(2, "Plan " + i);
+                });
+        batch(cn, "INSERT INTO accessories (title) VALUES (?)", 300,
+                (ps, i) -> ps.setString(1, "Accesorio " + i));
+        batch(cn, "INSERT INTO reassignment_log (entity_type, entity_id, from_user_id, to_user_id) VALUES (?, ?, ?, ?)", 1_000,
+                (ps, i) -> {
+                    ps.setString(1, i % 2 == 0 ? "RACE" : "CLUB");
+                    ps.setLong(2, i);
+                    ps.setLong(3, 1 + (i % 2_000));
+                    ps.setLong(4, 1 + (i % 50));
+                });
+        cn.commit();
+        cn.setAutoCommit(true);
+
+        try (Statement st = cn.createStatement()) {
+            for (String t : List.of("role", "`user`", "user_club", "club", "race", "user_race",
+                    "training_plans", "accessories", "reassignment_log")) {
+                st.execute("ANALYZE TABLE " + t);
+            }
+        }
+    }
+
+    interface RowBinder {
+        void bind(PreparedStatement ps, long i) throws SQLException;
+    }
+
+    private static void batch(Connection cn, String sql, int rows, RowBinder binder) throws SQLException {
+        try (PreparedStatement ps = cn.prepareStatement(sql)) {
+            for (long i = 1; i <= rows; i++) {
+                binder.bind(ps, i);
+                ps.addBatch();
+                if (i % 1_000 == 0) {
+                    ps.executeBatch();
+                }
+            }
+            ps.executeBatch();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.running.service;
+
+import com.running.service.boot.config.ServiceMetricsAspect;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.stereotype.Service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServiceMetricsAspectTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private MetricsSampleService proxy() {
+        AspectJProxyFactory factory = new AspectJProxyFactory(new MetricsSampleService());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new ServiceMetricsAspect(registry));
+        return factory.getProxy();
+    }
+
+    @Test
+    @DisplayName("Cada método público de un @Service registra un timer con clase y método")
+    void publicMethod_isTimed() {
+        MetricsSampleService service = proxy();
+
+        assertEquals("ok", service.find());
+        assertEquals("ok", service.find());
+
+        Timer timer = registry.find("running.service.invocations")
+                .tags("class", "MetricsSampleService", "method", "find", "exception", "none")
+                .timer();
+        assertNotNull(timer);
+        assertEquals(2, timer.count());
+    }
+
+    @Test
+    @DisplayName("Si el método lanza, la excepción se propaga y queda en el tag exception")
+    void failingMethod_isTaggedWithException() {
+        MetricsSampleService service = proxy();
+
+        assertThrows(IllegalStateException.class, service::fail);
+
+        assertNotNull(registry.find("running.service.invocations")
+                .tags("method", "fail", "exception", "IllegalStateException")
+                .timer());
+    }
+}
+
+@Service
+class MetricsSampleService {
+
+    public String find() {
+        return "ok";
+    }
+
+    public void fail() {
+        throw new IllegalStateException("fallo");
+    }
+}
@@ -0,0 +1,61 @@
+package com.running.service;
+
+import com.running.service.boot.sql.SqlInspector;
+import com.running.service.boot.sql.SqlStats;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fija el número de sentencias SQL de un bloque de test. Cuenta lo que pasa por el DataSource
+ * envuelto por SqlProxyConfig (contexto de Spring con BD real), incluidas las peticiones
+ * de MockMvc que se hagan dentro del bloque:
+ *
+ *   SqlStats stats = SqlAssertions.assertStatements(2, () -> mockMvc.perform(get("/api/clubs/5/members")));
+ *   SqlAssertions.assertNoRepeatedShape(stats, 1);
+ */
+final class SqlAssertions {
+
+    interface Action {
+        void run() throws Exception;
+    }
+
+    private SqlAssertions() {
+    }
+
+    static SqlStats capture(Action action) throws Exception {
+        try (SqlInspector.Scope scope = SqlInspector.open()) {
+            action.run();
+            return scope.stats();
+        }
+    }
+
+    static SqlStats assertStatements(int expected, Action action) throws Exception {
+        SqlStats stats = capture(action);
+        assertEquals(expected, stats.statements(), () -> "Sentencias ejecutadas:\n" + describe(stats));
+        return stats;
+    }
+
+    static SqlStats assertMaxStatements(int max, Action action) throws Exception {
+        SqlStats stats = capture(action);
+        assertTrue(stats.statements() <= max,
+                () -> stats.statements() + " sentencias (máximo " + max + "):\n" + describe(stats));
+        return stats;
+    }
+
+    /** Ninguna forma de SQL se ejecuta más de maxRepeats veces (detecta N+1). */
+    static void assertNoRepeatedShape(SqlStats stats, int maxRepeats) {
+        Map.Entry<String, Integer> top = stats.mostRepeated();
+        assertTrue(top == null || top.getValue() <= maxRepeats,
+                () -> "Sentencia repetida " + top.getValue() + " veces: " + top.getKey());
+    }
+
+    private static String describe(SqlStats stats) {
+        return stats.shapes().entrySet().stream()
+                .map(e -> String.format("%4d x %s", e.getValue(), e.getKey()))
+                .collect(Collectors.joining("\n"));
+    }
+}
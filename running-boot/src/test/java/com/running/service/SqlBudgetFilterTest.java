@@ -0,0 +1,98 @@
+package com.running.service;
+
+import com.running.service.boot.sql.SqlBudgetFilter;
+import com.running.service.boot.sql.SqlInspector;
+import com.running.service.boot.sql.SqlStats;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlBudgetFilterTest {
+
+    private final SqlInspector inspector = new SqlInspector();
+    private final SqlBudgetFilter filter = new SqlBudgetFilter(3, Duration.ofMillis(100), 2);
+
+    @Test
+    @DisplayName("La forma de una sentencia ignora literales, longitud de IN y espacios")
+    void shapeOf_normalizesLiteralsAndInLists() {
+        assertEquals("select * from race r where r.id in (?) and r.province = ?",
+                SqlInspector.shapeOf("SELECT *  FROM race r\n WHERE r.id IN (?, ?, ?) AND r.province = 'Huelva'"));
+        assertEquals(SqlInspector.shapeOf("select * from club c1_0 where c1_0.id=5"),
+                SqlInspector.shapeOf("select * from club c1_0 where c1_0.id=17"));
+    }
+
+    @Test
+    @DisplayName("Sin ámbito abierto el listener no cuenta nada")
+    void noScope_noStats() {
+        execute("select 1", 1);
+        try (SqlInspector.Scope scope = SqlInspector.open()) {
+            assertEquals(0, scope.stats().statements());
+        }
+    }
+
+    @Test
+    @DisplayName("Un ámbito anidado suma sus sentencias al exterior al cerrarse")
+    void nestedScopes_propagateToParent() {
+        try (SqlInspector.Scope outer = SqlInspector.open()) {
+            execute("select * from race where id = ?", 2);
+            try (SqlInspector.Scope inner = SqlInspector.open()) {
+                execute("select * from club where id = ?", 3);
+                assertEquals(1, inner.stats().statements());
+            }
+            assertEquals(2, outer.stats().statements());
+            assertEquals(5, outer.stats().elapsedMillis());
+        }
+    }
+
+    @Test
+    @DisplayName("Presupuesto: demasiadas sentencias, demasiado tiempo y N+1")
+    void violations() throws Exception {
+        SqlStats ok = statsOf(() -> {
+            execute("select * from race where id = ?", 10);
+            execute("select * from club where id = ?", 10);
+        });
+        assertTrue(filter.violations(ok).isEmpty());
+
+        SqlStats nPlusOne = statsOf(() -> {
+            for (int i = 0; i < 4; i++) execute("select * from user where id = " + i, 40);
+        });
+        assertEquals(List.of("statements", "db_time", "n_plus_one"), filter.violations(nPlusOne));
+    }
+
+    @Test
+    @DisplayName("El filtro abre un ámbito por petición y lo cierra aunque falle")
+    void filter_scopesEachRequest() throws Exception {
+        try (SqlInspector.Scope outer = SqlInspector.open()) {
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/clubs/5/members"), new MockHttpServletResponse(),
+                    (req, res) -> {
+                        execute("select * from club where id = ?", 1);
+                        execute("select * from user where club_id = ?", 1);
+                    });
+            assertEquals(2, outer.stats().statements());
+        }
+    }
+
+    // ---- Helpers ----
+
+    private SqlStats statsOf(Runnable action) {
+        try (SqlInspector.Scope scope = SqlInspector.open()) {
+            action.run();
+            return scope.stats();
+        }
+    }
+
+    private void execute(String sql, long millis) {
+        ExecutionInfo info = new ExecutionInfo();
+        info.setElapsedTime(millis);
+        QueryInfo query = new QueryInfo(sql);
+        inspector.afterQuery(info, List.of(query));
+    }
+}
@@ -0,0 +1,96 @@
+package com.running.service;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.running.service.boot.sql.SqlLogEndpoint;
+import com.running.service.boot.sql.SqlLogListener;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlLogListenerTest {
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger("running.sql");
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @BeforeEach
+    void attach() {
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void detach() {
+        logger.detachAppender(appender);
+    }
+
+    @Test
+    @DisplayName("Desactivado o con sampleRate 0 no escribe nada")
+    void disabledOrZeroRate_logsNothing() {
+        new SqlLogListener(false, 1.0, true).afterQuery(info(), List.of(query()));
+        new SqlLogListener(true, 0.0, true).afterQuery(info(), List.of(query()));
+
+        assertTrue(appender.list.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Con sampleRate 1 escribe una línea con tiempo, parámetros y la SQL en una línea")
+    void fullRate_logsStructuredLine() {
+        new SqlLogListener(true, 1.0, true).afterQuery(info(), List.of(query()));
+
+        assertEquals(1, appender.list.size());
+        String line = appender.list.get(0).getFormattedMessage();
+        assertTrue(line.contains("elapsed_ms=7"), line);
+        assertTrue(line.contains("params=[Huelva]"), line);
+        assertTrue(line.contains("query=\"select * from race where province = ?\""), line);
+    }
+
+    @Test
+    @DisplayName("El endpoint cambia la configuración en caliente y acota sampleRate a [0, 1]")
+    void endpoint_updatesAtRuntime() {
+        SqlLogListener listener = new SqlLogListener(false, 0.01, false);
+        SqlLogEndpoint endpoint = new SqlLogEndpoint(listener);
+
+        Map<String, Object> settings = endpoint.update(true, 5.0, null);
+
+        assertEquals(true, settings.get("enabled"));
+        assertEquals(1.0, settings.get("sampleRate"));
+        assertEquals(false, settings.get("includeParameters"));
+
+        listener.afterQuery(info(), List.of(query()));
+        assertEquals(1, appender.list.size());
+        assertFalse(appender.list.get(0).getFormattedMessage().contains("params="));
+    }
+
+    // ---- Helpers ----
+
+    private ExecutionInfo info() {
+        ExecutionInfo info = new ExecutionInfo();
+        info.setElapsedTime(7);
+        info.setSuccess(true);
+        return info;
+    }
+
+    private QueryInfo query() {
+        QueryInfo query = new QueryInfo("select *\n  from race where province = ?");
+        try {
+            query.getParametersList().add(List.of(new ParameterSetOperation(
+                    PreparedStatement.class.getMethod("setString", int.class, String.class), new Object[]{1, "Huelva"})));
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+        return query;
+    }
+}
@@ -0,0 +1,146 @@
+package com.running.service;
+
+import com.running.service.boot.RunningServiceBoot;
+import com.running.service.boot.config.FirebaseAdminConfig;
+import com.running.service.boot.sql.SqlStats;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Número máximo de sentencias SQL por endpoint (estadísticas de Hibernate). Si un cambio vuelve
+ * a introducir un N+1 o una carga EAGER, el endpoint supera su presupuesto y el test falla.
+ * Los presupuestos no dependen del volumen de datos: se ejecutan sobre el dataset de
+ * {@link RepositoryIndexUsageTest} (miles de carreras, usuarios e inscripciones).
+ *
+ * Necesita un MySQL 8 desechable:
+ *   mvn -pl running-boot test -Dtest=SqlStatementBudgetTest \
+ *       -Dit.mysql.url=jdbc:mysql://localhost:3306/running_it -Dit.mysql.user=root -Dit.mysql.password=...
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@EnabledIfSystemProperty(named = "it.mysql.url", matches = ".+")
+class SqlStatementBudgetTest {
+
+    /** La aplicación completa salvo Firebase (no hace falta para lecturas). */
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EnableJpaRepositories(basePackages = "com.running.repository")
+    @EntityScan(basePackages = "com.running.model")
+    @ComponentScan(basePackages = "com.running", excludeFilters = {
+            @ComponentScan.Filter(type = FilterType.CUSTOM, classes = TypeExcludeFilter.class),
+            @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE,
+                    classes = {RunningServiceBoot.class, FirebaseAdminConfig.class})
+    })
+    static class App {
+    }
+
+    record Budget(String url, int maxStatements) {
+    }
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getProperty("it.mysql.url"));
+        registry.add("spring.datasource.username", () -> System.getProperty("it.mysql.user", "root"));
+        registry.add("spring.datasource.password", () -> System.getProperty("it.mysql.password", ""));
+        registry.add("spring.jpa.properties.hibernate.generate_statistics", () -> true);
+        registry.add("running.firebase.mode", () -> "fake");
+    }
+
+    @BeforeAll
+    static void seed() throws SQLException {
+        RepositoryIndexUsageTest.migrateAndSeed();
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @TestFactory
+    Stream<DynamicTest> everyEndpointStaysWithinItsStatementBudget() {
+        List<Budget> budgets = List.of(
+                // Carreras: type y difficulty por entity graph, organizador lazy
+                new Budget("/api/races/getAll", 1),
+                new Budget("/api/races/getById?id=30", 1),
+                new Budget("/api/races/getByProvince?province=Huelva", 1),
+                new Budget("/api/races/getByOrganizer?organizerUserId=1", 1),
+                new Budget("/api/races/filter?province=Huelva", 1),
+                new Budget("/api/races/filter?province=Huelva&page=0&size=20", 2),
+                new Budget("/api/races/catalog?size=50", 1),
+                new Budget("/api/races/30/organizer", 1),
+                // usuario + rol, y sus carreras
+                new Budget("/api/organizer/uid-1/races", 2),
+                // Clubs: el manager ya no se carga con cada club
+                new Budget("/api/clubs/all", 1),
+                new Budget("/api/clubs/all?provincia=Huelva", 1),
+                new Budget("/api/clubs/5/members", 2),
+                new Budget("/api/clubs/5/AdminClub", 1),
+                // Historial de inscripciones (proyecciones)
+                new Budget("/api/user-race/list/uid-10", 1),
+                new Budget("/api/user-race/list-by-status/uid-10?status=confirmada", 1),
+                new Budget("/api/user-race/uid-10/marcas", 1),
+                // Reasignaciones: log (email de origen copiado en la fila) + entidades por id
+                new Budget("/api/admin/reassigned/uid-10/races", 2),
+                new Budget("/api/admin/reassigned/uid-10/clubs", 2)
+        );
+
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return budgets.stream().map(b -> DynamicTest.dynamicTest(b.url(), () -> {
+            cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+            stats.clear();
+
+            mockMvc.perform(get(b.url())).andExpect(status().is2xxSuccessful());
+
+            long statements = stats.getPrepareStatementCount();
+            assertTrue(statements <= b.maxStatements(),
+                    b.url() + " ejecutó " + statements + " sentencias (máximo " + b.maxStatements() + ")");
+        }));
+    }
+
+    @Test
+    @DisplayName("Sentencias fijas (datasource-proxy) y sin N+1 en miembros de club e historial de inscripciones")
+    void pinnedStatementCounts() throws Exception {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+
+        SqlStats members = SqlAssertions.assertStatements(2,
+                () -> mockMvc.perform(get("/api/clubs/5/members")).andExpect(status().isOk()));
+        SqlAssertions.assertNoRepeatedShape(members, 1);
+
+        SqlStats history = SqlAssertions.assertStatements(1,
+                () -> mockMvc.perform(get("/api/user-race/list/uid-10")).andExpect(status().isOk()));
+        SqlAssertions.assertNoRepeatedShape(history, 1);
+    }
+}
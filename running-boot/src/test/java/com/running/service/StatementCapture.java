@@ -0,0 +1,92 @@
+package com.running.service;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Captura con datasource-proxy el SQL que ejecutan de verdad los repositorios (Hibernate,
+ * Specifications, consultas derivadas), con sus parámetros, para hacer EXPLAIN sobre él en
+ * vez de sobre una copia escrita a mano.
+ * <p>
+ * Se añade al contexto con {@code @Import(StatementCapture.class)}: envuelve el DataSource y
+ * solo apunta sentencias dentro de {@link #capture} y en el mismo hilo.
+ */
+public class StatementCapture implements BeanPostProcessor, QueryExecutionListener {
+
+    private static final ThreadLocal<List<Statement>> CURRENT = new ThreadLocal<>();
+
+    /** Una sentencia con sus parámetros en orden de posición. */
+    public record Statement(String sql, List<Object> params) {
+
+        public void bind(PreparedStatement ps) throws SQLException {
+            for (int i = 0; i < params.size(); i++) {
+                ps.setObject(i + 1, params.get(i));
+            }
+        }
+    }
+
+    public interface Action {
+        void run() throws Exception;
+    }
+
+    /** Ejecuta action y devuelve las sentencias que lanzó, en orden. */
+    public static List<Statement> capture(Action action) throws Exception {
+        List<Statement> statements = new ArrayList<>();
+        CURRENT.set(statements);
+        try {
+            action.run();
+        } finally {
+            CURRENT.remove();
+        }
+        return statements;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+            return ProxyDataSourceBuilder.create(dataSource)
+                    .name(beanName)
+                    .listener(this)
+                    .build();
+        }
+        return bean;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        List<Statement> statements = CURRENT.get();
+        if (statements == null) return;
+        for (QueryInfo query : queryInfoList) {
+            List<List<ParameterSetOperation>> batches = query.getParametersList();
+            statements.add(new Statement(query.getQuery(),
+                    batches.isEmpty() ? List.of() : params(batches.get(0))));
+        }
+    }
+
+    /** setXxx(índice, valor) → valor; setNull(índice, tipo) → null. */
+    private static List<Object> params(List<ParameterSetOperation> operations) {
+        List<ParameterSetOperation> sorted = new ArrayList<>(operations);
+        sorted.sort(Comparator.comparingInt(op -> ((Number) op.getArgs()[0]).intValue()));
+        List<Object> out = new ArrayList<>(sorted.size());
+        for (ParameterSetOperation op : sorted) {
+            out.add("setNull".equals(op.getMethod().getName()) ? null : op.getArgs()[1]);
+        }
+        return out;
+    }
+}
@@ -5,6 +5,7 @@ import com.running.endpoint.api.UserController;
 import com.running.model.RoleDto;
 import com.running.model.User;
 import com.running.model.UserDto;
+import com.running.model.UserImportResultDto;
 import com.running.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -23,6 +24,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.InputStream;
 import java.util.List;
 
 import static org.hamcrest.Matchers.containsString;
@@ -35,6 +37,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 public class UserControllerTestApi {
 
     @Mock UserService userService;
+    @Mock UserImportService userImportService;
     @InjectMocks UserController controller;
 
     MockMvc mockMvc;
@@ -366,6 +369,72 @@ public class UserControllerTestApi {
                 .andExpect(content().string(containsString("Only ADMIN")));
     }
 
+    // ---------- POST /admin-import ----------
+
+    @Test
+    @DisplayName("POST /api/user/admin-import (text/csv) -> 200 y resultado por fila")
+    void importCsv_ok() throws Exception {
+        when(userImportService.importCsv(any(InputStream.class), eq("admin-1"))).thenReturn(List.of(
+                UserImportResultDto.builder().row(1).email("a@a.com").uid("fb-1").status("creado").build(),
+                UserImportResultDto.builder().row(2).email("b@b.com").status("error")
+                        .message("Ya existe un usuario con ese email").build()));
+
+        mockMvc.perform(post("/api/user/admin-import")
+                        .param("actingUid", "admin-1")
+                        .contentType("text/csv")
+                        .content("email,name,surname,role,password\na@a.com,Ana,Gil,user,secret1\nb@b.com,Bea,Ruiz,user,secret2\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].status").value("creado"))
+                .andExpect(jsonPath("$[0].uid").value("fb-1"))
+                .andExpect(jsonPath("$[1].status").value("error"));
+
+        verify(userImportService).importCsv(any(InputStream.class), eq("admin-1"));
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    @DisplayName("POST /api/user/admin-import (application/x-ndjson) -> 200")
+    void importNdjson_ok() throws Exception {
+        when(userImportService.importNdjson(any(InputStream.class), eq("admin-1"))).thenReturn(List.of(
+                UserImportResultDto.builder().row(1).email("a@a.com").uid("fb-1").status("creado").build()));
+
+        mockMvc.perform(post("/api/user/admin-import")
+                        .param("actingUid", "admin-1")
+                        .contentType("application/x-ndjson")
+                        .content("{\"email\":\"a@a.com\",\"role\":\"user\",\"password\":\"secret1\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].email").value("a@a.com"));
+
+        verify(userImportService).importNdjson(any(InputStream.class), eq("admin-1"));
+    }
+
+    @Test
+    @DisplayName("POST /api/user/admin-import -> 403 si no es administrador")
+    void import_forbidden() throws Exception {
+        when(userImportService.importCsv(any(InputStream.class), eq("user-x")))
+                .thenThrow(new ResponseStatusException(HttpStatus.FORBIDDEN, "Solo un administrador puede importar usuarios"));
+
+        mockMvc.perform(post("/api/user/admin-import")
+                        .param("actingUid", "user-x")
+                        .contentType("text/csv")
+                        .content("email,name,surname,role,password\n"))
+                .andExpect(status().isForbidden())
+                .andExpect(content().string(containsString("administrador")));
+    }
+
+    @Test
+    @DisplayName("POST /api/user/admin-import -> 415 con otro formato")
+    void import_unsupportedMediaType() throws Exception {
+        mockMvc.perform(post("/api/user/admin-import")
+                        .param("actingUid", "admin-1")
+                        .contentType(MediaType.APPLICATION_XML)
+                        .content("<users/>"))
+                .andExpect(status().isUnsupportedMediaType());
+
+        verifyNoInteractions(userImportService);
+    }
+
     // ---------- GET /by-email?email=... ----------
 
     @Test
@@ -0,0 +1,182 @@
+package com.running.service;
+
+import com.running.service.boot.config.CacheConfig;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * El borrado de usuarios (con y sin reasignación) ejecuta el mismo número de sentencias
+ * tenga el usuario 5 inscripciones o miles, y deja contadores y log coherentes.
+ *
+ * Necesita un MySQL 8 desechable:
+ *   mvn -pl running-boot test -Dtest=UserDeletionStatementCountTest \
+ *       -Dit.mysql.url=jdbc:mysql://localhost:3306/running_it -Dit.mysql.user=root -Dit.mysql.password=...
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfSystemProperty(named = "it.mysql.url", matches = ".+")
+class UserDeletionStatementCountTest {
+
+    private static final String PREFIX = "del-";
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EnableJpaRepositories(basePackages = "com.running.repository")
+    @EntityScan(basePackages = "com.running.model")
+    @Import({UserService.class, UserPrincipalResolver.class, InMemoryFirebaseGateway.class, CacheConfig.class})
+    static class Config {
+    }
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getProperty("it.mysql.url"));
+        registry.add("spring.datasource.username", () -> System.getProperty("it.mysql.user", "root"));
+        registry.add("spring.datasource.password", () -> System.getProperty("it.mysql.password", ""));
+        registry.add("spring.jpa.properties.hibernate.generate_statistics", () -> true);
+        registry.add("spring.flyway.baseline-on-migrate", () -> true);
+        registry.add("spring.flyway.baseline-version", () -> 1);
+    }
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private long adminId;
+
+    @BeforeEach
+    void seed() {
+        cleanup();
+        for (String role : List.of("user", "admin", "organizator", "club-administrator")) {
+            jdbc.update("INSERT INTO role (name) SELECT ? FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM role WHERE name = ?)", role, role);
+        }
+        jdbc.update("INSERT IGNORE INTO type (id_type, name) VALUES (1, 'Asfalto')");
+        jdbc.update("INSERT IGNORE INTO difficulty (iddifficulty, name) VALUES (1, 'Fácil')");
+        adminId = insertUser(PREFIX + "admin", "admin");
+    }
+
+    @Test
+    @DisplayName("Borrar y reasignar: mismas sentencias con 5 que con 3000 inscripciones")
+    void adminDeleteAndReassign_constantStatements() {
+        long small = seedUser(PREFIX + "small", "organizator", 5);
+        long big = seedUser(PREFIX + "big", "organizator", 3000);
+
+        long smallStatements = statementsOf(() -> userService.adminDeleteAndReassign(PREFIX + "small", PREFIX + "admin"));
+        long bigStatements = statementsOf(() -> userService.adminDeleteAndReassign(PREFIX + "big", PREFIX + "admin"));
+
+        assertEquals(smallStatements, bigStatements);
+        for (long id : List.of(small, big)) {
+            assertEquals(0, count("SELECT COUNT(*) FROM `user` WHERE id = ?", id));
+            assertEquals(0, count("SELECT COUNT(*) FROM user_race WHERE user_id = ?", id));
+            assertEquals(0, count("SELECT COUNT(*) FROM user_club WHERE user_id = ?", id));
+        }
+        // Las carreras organizadas pasan al admin y quedan en el log
+        assertEquals(3005, count("SELECT COUNT(*) FROM race WHERE organizer_user_id = ?", adminId));
+        assertEquals(3005, count("SELECT COUNT(*) FROM reassignment_log WHERE to_user_id = ? AND entity_type = 'RACE'", adminId));
+        // from_user_id se pierde con el borrado, pero el log conserva de quién venían
+        assertEquals(5, count("""
+                SELECT COUNT(*) FROM reassignment_log
+                WHERE to_user_id = ? AND from_user_id IS NULL AND from_user_email = ? AND from_user_name = ?
+                """, adminId, PREFIX + "small@it.test", PREFIX + "small"));
+        // Contadores: cada usuario confirmado en todas sus carreras y miembro de 3 clubs
+        assertEquals(0, count("SELECT COALESCE(SUM(registered), 0) FROM race WHERE name LIKE ?", PREFIX + "%"));
+        assertEquals(0, count("SELECT COALESCE(SUM(members), 0) FROM club WHERE name LIKE ?", PREFIX + "%"));
+    }
+
+    @Test
+    @DisplayName("Baja del propio usuario: mismas sentencias con 5 que con 3000 inscripciones")
+    void deleteByUID_constantStatements() {
+        seedUser(PREFIX + "small", "user", 5);
+        seedUser(PREFIX + "big", "user", 3000);
+
+        long smallStatements = statementsOf(() -> userService.deleteByUID(PREFIX + "small"));
+        long bigStatements = statementsOf(() -> userService.deleteByUID(PREFIX + "big"));
+
+        assertEquals(smallStatements, bigStatements);
+        assertEquals(0, count("SELECT COUNT(*) FROM `user` WHERE uid IN (?, ?)", PREFIX + "small", PREFIX + "big"));
+        assertEquals(0, count("SELECT COALESCE(SUM(members), 0) FROM club WHERE name LIKE ?", PREFIX + "%"));
+    }
+
+    // ---- Helpers ----
+
+    private long statementsOf(Runnable action) {
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        action.run();
+        return stats.getPrepareStatementCount();
+    }
+
+    /** Usuario organizador de n carreras, confirmado en todas ellas y miembro de 3 clubs. */
+    private long seedUser(String uid, String role, int races) {
+        long userId = insertUser(uid, role);
+
+        List<Object[]> rows = new ArrayList<>(races);
+        for (int i = 0; i < races; i++) {
+            rows.add(new Object[]{PREFIX + uid + "-" + i, userId});
+        }
+        jdbc.batchUpdate("""
+                INSERT INTO race (name, place, province, distance_km, date, registered, id_type, iddifficulty, organizer_user_id)
+                VALUES (?, 'Huelva', 'Huelva', 10, NOW() + INTERVAL 30 DAY, 1, 1, 1, ?)
+                """, rows);
+        jdbc.update("""
+                INSERT INTO user_race (user_id, race_id, registration_date, status)
+                SELECT ?, r.id, NOW(), 'confirmada' FROM race r WHERE r.organizer_user_id = ?
+                """, userId, userId);
+
+        for (int i = 0; i < 3; i++) {
+            jdbc.update("INSERT INTO club (name, members) VALUES (?, 1)", PREFIX + uid + "-club-" + i);
+            jdbc.update("INSERT INTO user_club (user_id, club_id) SELECT ?, id FROM club WHERE name = ?",
+                    userId, PREFIX + uid + "-club-" + i);
+        }
+        return userId;
+    }
+
+    private long insertUser(String uid, String role) {
+        jdbc.update("""
+                INSERT INTO `user` (uid, name, email, role_id)
+                SELECT ?, ?, ?, MIN(id) FROM role WHERE name = ?
+                """, uid, uid, uid + "@it.test", role);
+        return jdbc.queryForObject("SELECT id FROM `user` WHERE uid = ?", Long.class, uid);
+    }
+
+    private long count(String sql, Object... args) {
+        return jdbc.queryForObject(sql, Long.class, args);
+    }
+
+    private void cleanup() {
+        jdbc.update("DELETE ur FROM user_race ur JOIN race r ON r.id = ur.race_id WHERE r.name LIKE ?", PREFIX + "%");
+        jdbc.update("DELETE uc FROM user_club uc JOIN club c ON c.id = uc.club_id WHERE c.name LIKE ?", PREFIX + "%");
+        jdbc.update("DELETE l FROM reassignment_log l JOIN `user` u ON u.id = l.to_user_id WHERE u.uid LIKE ?", PREFIX + "%");
+        jdbc.update("DELETE FROM race WHERE name LIKE ?", PREFIX + "%");
+        jdbc.update("DELETE FROM club WHERE name LIKE ?", PREFIX + "%");
+        jdbc.update("DELETE FROM `user` WHERE uid LIKE ?", PREFIX + "%");
+    }
+}
@@ -3,6 +3,7 @@ package com.running.service;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.running.endpoint.api.UserRaceController;
 import com.running.model.MarcaDto;
+import com.running.model.RegistrationTicketDto;
 import com.running.model.UserRaceResponseDto;
 import com.running.service.UserRaceService;
 import org.junit.jupiter.api.BeforeEach;
@@ -36,6 +37,9 @@ public class UserRaceControllerTestApi {
     @Mock
     UserRaceService userRaceService;
 
+    @Mock
+    RegistrationIntakeService registrationIntakeService;
+
     @InjectMocks
     UserRaceController controller;
 
@@ -89,6 +93,53 @@ public class UserRaceControllerTestApi {
                 .andExpect(content().string(containsString("Carrera no encontrada")));
     }
 
+    // ---------- POST /pre-register/{raceId}/async ----------
+
+    @Test
+    @DisplayName("POST /api/user-race/pre-register/{raceId}/async -> 202 con ticket")
+    void preRegisterAsync_accepted() throws Exception {
+        when(registrationIntakeService.submit("u1", 11L)).thenReturn(
+                RegistrationTicketDto.builder().ticket("t-1").raceId(11L).status("en_cola").build());
+
+        mockMvc.perform(post("/api/user-race/pre-register/{raceId}/async", 11)
+                        .param("uid", "u1"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.ticket").value("t-1"))
+                .andExpect(jsonPath("$.status").value("en_cola"));
+    }
+
+    @Test
+    @DisplayName("POST /api/user-race/pre-register/{raceId}/async -> 503 si la cola está llena")
+    void preRegisterAsync_queueFull503() throws Exception {
+        when(registrationIntakeService.submit("u1", 11L))
+                .thenThrow(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Demasiadas inscripciones"));
+
+        mockMvc.perform(post("/api/user-race/pre-register/{raceId}/async", 11)
+                        .param("uid", "u1"))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    @DisplayName("GET /api/user-race/intake/{ticket} -> 200 con estado")
+    void intakeStatus_ok() throws Exception {
+        when(registrationIntakeService.getTicket("t-1")).thenReturn(
+                RegistrationTicketDto.builder().ticket("t-1").raceId(11L).status("registrada").build());
+
+        mockMvc.perform(get("/api/user-race/intake/{ticket}", "t-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("registrada"));
+    }
+
+    @Test
+    @DisplayName("GET /api/user-race/intake/{ticket} -> 404 si no existe")
+    void intakeStatus_notFound() throws Exception {
+        when(registrationIntakeService.getTicket("nope"))
+                .thenThrow(new ResponseStatusException(HttpStatus.NOT_FOUND, "Ticket no encontrado"));
+
+        mockMvc.perform(get("/api/user-race/intake/{ticket}", "nope"))
+                .andExpect(status().isNotFound());
+    }
+
     // ---------- PUT /confirm/{raceId} ----------
 
     @Test
@@ -102,6 +153,17 @@ public class UserRaceControllerTestApi {
         verify(userRaceService).confirmRegistration("u1", 7L);
     }
 
+    @Test
+    @DisplayName("PUT /api/user-race/confirm/{raceId} -> 200 y aviso si queda en lista de espera")
+    void confirm_waitlisted() throws Exception {
+        when(userRaceService.confirmRegistration("u1", 7L)).thenReturn(UserRaceService.LISTA_ESPERA);
+
+        mockMvc.perform(put("/api/user-race/confirm/{raceId}", 7)
+                        .param("uid", "u1"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("lista de espera")));
+    }
+
     @Test
     @DisplayName("PUT /api/user-race/confirm -> 500 si falla servicio")
     void confirm_error500() throws Exception {
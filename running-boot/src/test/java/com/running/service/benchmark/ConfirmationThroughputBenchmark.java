@@ -0,0 +1,159 @@
+package com.running.service.benchmark;
+
+import com.running.service.RaceSlotPermits;
+import com.running.service.UserRaceService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Confirmaciones por segundo con 64 clientes concurrentes contra la misma carrera,
+ * sin aforo y con aforo (el resto acaba en lista de espera). Comprueba además que
+ * nunca se vende de más.
+ *
+ * No forma parte de la suite normal: necesita un MySQL desechable.
+ *   mvn -pl running-boot test -Dtest=ConfirmationThroughputBenchmark \
+ *       -Dbench.mysql.url=jdbc:mysql://localhost:3306/running_bench \
+ *       -Dbench.mysql.user=root -Dbench.mysql.password=...
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfSystemProperty(named = "bench.mysql.url", matches = ".+")
+class ConfirmationThroughputBenchmark {
+
+    private static final int CLIENTS = Integer.getInteger("bench.clients", 64);
+    private static final int USERS = Integer.getInteger("bench.users", 20_000);
+    private static final int CAPACITY = Integer.getInteger("bench.capacity", 5_000);
+    private static final String UID_PREFIX = "bench-uid-";
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EnableJpaRepositories(basePackages = "com.running.repository")
+    @EntityScan(basePackages = "com.running.model")
+    @Import({UserRaceService.class, RaceSlotPermits.class})
+    static class Config {
+    }
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getProperty("bench.mysql.url"));
+        registry.add("spring.datasource.username", () -> System.getProperty("bench.mysql.user", "root"));
+        registry.add("spring.datasource.password", () -> System.getProperty("bench.mysql.password", ""));
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> CLIENTS);
+        registry.add("spring.flyway.baseline-on-migrate", () -> true);
+        registry.add("spring.flyway.baseline-version", () -> 1);
+    }
+
+    @Autowired
+    private UserRaceService userRaceService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void confirmationsPerSecond() throws Exception {
+        System.out.printf("%-12s %10s %12s %12s %10s%n", "aforo", "usuarios", "confirm/s", "confirmadas", "espera");
+
+        long raceId = seed(null);
+        run("sin límite", raceId);
+        assertEquals(USERS, registered(raceId));
+
+        raceId = seed(CAPACITY);
+        run(String.valueOf(CAPACITY), raceId);
+        assertEquals(CAPACITY, registered(raceId));
+        assertEquals(CAPACITY, count(raceId, "confirmada"));
+        assertEquals(USERS - CAPACITY, count(raceId, UserRaceService.LISTA_ESPERA));
+    }
+
+    private void run(String label, long raceId) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(CLIENTS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger next = new AtomicInteger();
+        try {
+            List<Future<?>> clients = new ArrayList<>(CLIENTS);
+            for (int c = 0; c < CLIENTS; c++) {
+                clients.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = next.getAndIncrement(); i < USERS; i = next.getAndIncrement()) {
+                        userRaceService.confirmRegistration(UID_PREFIX + i, raceId);
+                    }
+                    return null;
+                }));
+            }
+            long t0 = System.nanoTime();
+            start.countDown();
+            for (Future<?> f : clients) {
+                f.get(10, TimeUnit.MINUTES);
+            }
+            double seconds = (System.nanoTime() - t0) / 1e9;
+
+            System.out.printf("%-12s %10d %12.0f %12d %10d%n", label, USERS, USERS / seconds,
+                    count(raceId, "confirmada"), count(raceId, UserRaceService.LISTA_ESPERA));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private long seed(Integer capacity) {
+        jdbc.update("DELETE ur FROM user_race ur JOIN `user` u ON u.id = ur.user_id WHERE u.uid LIKE ?", UID_PREFIX + "%");
+        jdbc.update("DELETE FROM race WHERE name = 'Bench race'");
+
+        jdbc.update("INSERT INTO role (name) SELECT 'user' FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM role WHERE name = 'user')");
+        Long roleId = jdbc.queryForObject("SELECT MIN(id) FROM role WHERE name = 'user'", Long.class);
+        jdbc.update("INSERT IGNORE INTO type (id_type, name) VALUES (1, 'Asfalto')");
+        jdbc.update("INSERT IGNORE INTO difficulty (iddifficulty, name) VALUES (1, 'Fácil')");
+        jdbc.update("""
+                INSERT INTO race (name, place, province, distance_km, date, registered, capacity, id_type, iddifficulty)
+                VALUES ('Bench race', 'Huelva', 'Huelva', 10, NOW() + INTERVAL 30 DAY, 0, ?, 1, 1)
+                """, capacity);
+        long raceId = jdbc.queryForObject("SELECT id FROM race WHERE name = 'Bench race'", Long.class);
+
+        Integer existing = jdbc.queryForObject("SELECT COUNT(*) FROM `user` WHERE uid LIKE ?", Integer.class, UID_PREFIX + "%");
+        if (existing == null || existing < USERS) {
+            jdbc.update("DELETE FROM `user` WHERE uid LIKE ?", UID_PREFIX + "%");
+            List<Object[]> users = new ArrayList<>(USERS);
+            for (int i = 0; i < USERS; i++) {
+                users.add(new Object[]{UID_PREFIX + i, "Bench " + i, "bench" + i + "@it.test", roleId});
+            }
+            jdbc.batchUpdate("INSERT INTO `user` (uid, name, email, role_id) VALUES (?, ?, ?, ?)", users);
+        }
+        jdbc.update("""
+                INSERT INTO user_race (user_id, race_id, registration_date, status)
+                SELECT u.id, ?, NOW(), 'pendiente' FROM `user` u WHERE u.uid LIKE ?
+                """, raceId, UID_PREFIX + "%");
+        return raceId;
+    }
+
+    private int registered(long raceId) {
+        return jdbc.queryForObject("SELECT registered FROM race WHERE id = ?", Integer.class, raceId);
+    }
+
+    private int count(long raceId, String status) {
+        return jdbc.queryForObject(
+                "SELECT COUNT(*) FROM user_race WHERE race_id = ? AND status = ?", Integer.class, raceId, status);
+    }
+}
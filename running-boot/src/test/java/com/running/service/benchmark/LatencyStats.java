@@ -0,0 +1,62 @@
+package com.running.service.benchmark;
+
+import java.util.Arrays;
+
+/**
+ * Latencias (ns) de las respuestas correctas más contadores de rechazos (503) y errores.
+ * No es thread-safe: una instancia por cliente y {@link #merge} al final.
+ */
+final class LatencyStats {
+
+    private long[] latencies = new long[1024];
+    private int count;
+    private int rejected;
+    private int errors;
+
+    void record(long nanos) {
+        if (count == latencies.length) latencies = Arrays.copyOf(latencies, count * 2);
+        latencies[count++] = nanos;
+    }
+
+    void reject() {
+        rejected++;
+    }
+
+    void error() {
+        errors++;
+    }
+
+    /** Clasifica la respuesta por código HTTP. */
+    void record(int status, long nanos) {
+        if (status == 503) reject();
+        else if (status >= 400) error();
+        else record(nanos);
+    }
+
+    void merge(LatencyStats other) {
+        for (int i = 0; i < other.count; i++) record(other.latencies[i]);
+        rejected += other.rejected;
+        errors += other.errors;
+    }
+
+    int count() {
+        return count;
+    }
+
+    int rejected() {
+        return rejected;
+    }
+
+    int errors() {
+        return errors;
+    }
+
+    /** Percentil en milisegundos. */
+    double percentile(double p) {
+        if (count == 0) return 0;
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        int idx = (int) Math.ceil(p / 100.0 * count) - 1;
+        return sorted[Math.max(idx, 0)] / 1e6;
+    }
+}
@@ -0,0 +1,290 @@
+package com.running.service.benchmark;
+
+import com.running.service.boot.RunningServiceBoot;
+import com.running.service.boot.config.FirebaseAdminConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prueba de carga de extremo a extremo: siembra {@link SyntheticDataset} (por defecto 1M de
+ * inscripciones), arranca la aplicación completa en un puerto aleatorio y lanza N usuarios
+ * virtuales que repiten una mezcla de flujos durante un tiempo fijo:
+ * <ul>
+ *   <li>50% filtro de carreras (provincia, tipo, finalizada, página)</li>
+ *   <li>20% pre-inscripción + confirmación + cancelación en una carrera futura</li>
+ *   <li>15% alta y baja en un club</li>
+ *   <li>15% consulta y actualización de marcas en una carrera ya celebrada</li>
+ * </ul>
+ * Al final imprime por operación: peticiones, req/s, p50/p95/p99 y errores.
+ *
+ * Por defecto usa H2 en memoria en modo MySQL (esquema generado por Hibernate). Para medir
+ * contra MySQL de verdad se pasa una base vacía y se aplica Flyway:
+ *   mvn -pl running-boot test -Dtest=LoadScenarioTest -Dload.enabled=true \
+ *       -Dload.clients=100 -Dload.seconds=60 -Dload.registrations=1000000 \
+ *       [-Dload.mysql.url=jdbc:mysql://localhost:3306/running_load -Dload.mysql.user=root -Dload.mysql.password=...]
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@EnabledIfSystemProperty(named = "load.enabled", matches = "true")
+class LoadScenarioTest {
+
+    private static final String MYSQL_URL = System.getProperty("load.mysql.url");
+    private static final int CLIENTS = Integer.getInteger("load.clients", 50);
+    private static final int SECONDS = Integer.getInteger("load.seconds", 60);
+    private static final int WARMUP_SECONDS = Integer.getInteger("load.warmup-seconds", 10);
+
+    /** La aplicación completa con Firebase en memoria. */
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EnableJpaRepositories(basePackages = "com.running.repository")
+    @EntityScan(basePackages = "com.running.model")
+    @ComponentScan(basePackages = "com.running", excludeFilters = {
+            @ComponentScan.Filter(type = FilterType.CUSTOM, classes = TypeExcludeFilter.class),
+            @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE,
+                    classes = {RunningServiceBoot.class, FirebaseAdminConfig.class})
+    })
+    static class App {
+    }
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        if (MYSQL_URL != null && !MYSQL_URL.isBlank()) {
+            registry.add("spring.datasource.url", () -> MYSQL_URL);
+            registry.add("spring.datasource.username", () -> System.getProperty("load.mysql.user", "root"));
+            registry.add("spring.datasource.password", () -> System.getProperty("load.mysql.password", ""));
+        } else {
+            registry.add("spring.datasource.url",
+                    () -> "jdbc:h2:mem:load;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1");
+            registry.add("spring.datasource.driver-class-name", () -> "org.h2.Driver");
+            registry.add("spring.datasource.username", () -> "sa");
+            registry.add("spring.datasource.password", () -> "");
+            registry.add("spring.jpa.hibernate.ddl-auto", () -> "create");
+            registry.add("spring.flyway.enabled", () -> false);
+        }
+        registry.add("spring.jpa.show-sql", () -> false);
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> Math.max(10, CLIENTS / 2));
+        registry.add("running.firebase.mode", () -> "fake");
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final SyntheticDataset dataset = new SyntheticDataset();
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newFixedThreadPool(32))
+            .build();
+
+    @Test
+    void mixedScenario() throws Exception {
+        long t0 = System.nanoTime();
+        try (Connection cn = dataSource.getConnection()) {
+            dataset.seed(cn);
+        }
+        System.out.printf("Dataset: %d usuarios, %d clubs, %d carreras, %d inscripciones en %d s%n",
+                dataset.users, dataset.clubs, dataset.races,
+                (long) dataset.users * dataset.registrationsPerUser(),
+                TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - t0));
+
+        run(WARMUP_SECONDS);
+        Map<String, LatencyStats> results = run(SECONDS);
+
+        System.out.printf("%-14s %9s %9s %9s %9s %9s %8s%n",
+                "operación", "peticiones", "req/s", "p50 ms", "p95 ms", "p99 ms", "errores");
+        int ok = 0;
+        int failed = 0;
+        for (Map.Entry<String, LatencyStats> e : results.entrySet()) {
+            LatencyStats s = e.getValue();
+            System.out.printf("%-14s %9d %9.0f %9.1f %9.1f %9.1f %8d%n",
+                    e.getKey(), s.count(), s.count() / (double) SECONDS,
+                    s.percentile(50), s.percentile(95), s.percentile(99), s.errors() + s.rejected());
+            ok += s.count();
+            failed += s.errors() + s.rejected();
+        }
+
+        assertTrue(ok > 0, "Ninguna petición terminó bien");
+        assertTrue(failed <= ok / 100, "Más de un 1% de errores: " + failed + " de " + (ok + failed));
+    }
+
+    // ---- Escenario ----
+
+    private Map<String, LatencyStats> run(int seconds) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(CLIENTS);
+        CountDownLatch start = new CountDownLatch(1);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        try {
+            List<Future<Map<String, LatencyStats>>> clients = new ArrayList<>(CLIENTS);
+            for (int c = 0; c < CLIENTS; c++) {
+                int client = c;
+                clients.add(pool.submit(() -> {
+                    VirtualUser vu = new VirtualUser(client);
+                    start.await();
+                    while (System.nanoTime() < deadline) {
+                        vu.next();
+                    }
+                    return vu.stats;
+                }));
+            }
+            start.countDown();
+
+            Map<String, LatencyStats> total = new TreeMap<>();
+            for (Future<Map<String, LatencyStats>> f : clients) {
+                f.get(seconds + 60L, TimeUnit.SECONDS)
+                        .forEach((op, s) -> total.computeIfAbsent(op, k -> new LatencyStats()).merge(s));
+            }
+            return total;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Cada usuario virtual trabaja solo con los usuarios {@code id ≡ client (mod CLIENTS)}, así dos
+     * clientes nunca tocan la misma inscripción ni la misma membresía a la vez.
+     */
+    private final class VirtualUser {
+
+        private final int client;
+        private final Random random;
+        private final Map<String, LatencyStats> stats = new TreeMap<>();
+        private long iteration;
+
+        VirtualUser(int client) {
+            this.client = client;
+            this.random = new Random(client);
+        }
+
+        void next() {
+            long span = Math.max(CLIENTS, dataset.users / CLIENTS * CLIENTS);
+            long userId = 1 + client + (iteration++ * CLIENTS) % span;
+            String uid = "load-uid-" + userId;
+            int dice = random.nextInt(100);
+            if (dice < 50) filter();
+            else if (dice < 70) registration(userId, uid);
+            else if (dice < 85) club(userId, uid);
+            else marcas(userId, uid);
+        }
+
+        private void filter() {
+            String query = "province=" + new String[]{"Huelva", "Sevilla", "Madrid", "Valencia"}[random.nextInt(4)]
+                    + (random.nextBoolean() ? "&typeId=" + (1 + random.nextInt(3)) : "")
+                    + (random.nextBoolean() ? "&finalizada=" + random.nextBoolean() : "")
+                    + "&page=" + random.nextInt(5) + "&size=20";
+            send("filter", get("/api/races/filter?" + query));
+        }
+
+        private void registration(long userId, String uid) {
+            long raceId = futureRaceNotRegistered(userId);
+            String suffix = "/" + raceId + "?uid=" + uid;
+            if (send("pre-register", post("/api/user-race/pre-register" + suffix))
+                    && send("confirm", put("/api/user-race/confirm" + suffix, null))) {
+                send("cancel", put("/api/user-race/cancel" + suffix, null));
+            }
+        }
+
+        private void club(long userId, String uid) {
+            // Cualquier club salvo el 1 y el suyo
+            long clubId = 2 + (dataset.homeClub(userId) - 1 + random.nextInt(dataset.clubs - 2)) % (dataset.clubs - 1);
+            if (send("join-club", put("/api/user/" + uid + "/join-club/" + clubId, null))) {
+                send("leave-club", put("/api/user/" + uid + "/leave-club/" + clubId, null));
+            }
+        }
+
+        private void marcas(long userId, String uid) {
+            send("marcas", get("/api/user-race/" + uid + "/marcas"));
+            for (int k = 0; k < dataset.registrationsPerUser(); k++) {
+                long raceId = dataset.raceOf(userId, k);
+                if (dataset.isPast(raceId)) {
+                    int seconds = 1_500 + random.nextInt(12_000);
+                    String body = "{\"tiempo\":\"%s\",\"pace\":\"%s\",\"posicion\":%d}".formatted(
+                            hms(seconds), hms(seconds / 10), 1 + random.nextInt(2_000));
+                    send("marca-update", put("/api/user-race/" + uid + "/marcas/" + raceId, body));
+                    return;
+                }
+            }
+        }
+
+        private long futureRaceNotRegistered(long userId) {
+            while (true) {
+                long raceId = dataset.races / 2 + 1 + random.nextInt(dataset.races - dataset.races / 2);
+                boolean mine = false;
+                for (int k = 0; k < dataset.registrationsPerUser() && !mine; k++) {
+                    mine = dataset.raceOf(userId, k) == raceId;
+                }
+                if (!mine) return raceId;
+            }
+        }
+
+        private boolean send(String op, HttpRequest request) {
+            LatencyStats s = stats.computeIfAbsent(op, k -> new LatencyStats());
+            long t0 = System.nanoTime();
+            try {
+                int status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                s.record(status, System.nanoTime() - t0);
+                return status < 400;
+            } catch (Exception e) {
+                s.error();
+                return false;
+            }
+        }
+    }
+
+    // ---- Helpers ----
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).GET().build();
+    }
+
+    private HttpRequest post(String path) {
+        return HttpRequest.newBuilder(uri(path)).POST(HttpRequest.BodyPublishers.noBody()).build();
+    }
+
+    private HttpRequest put(String path, String json) {
+        HttpRequest.Builder b = HttpRequest.newBuilder(uri(path));
+        if (json == null) return b.PUT(HttpRequest.BodyPublishers.noBody()).build();
+        return b.header("Content-Type", "application/json").PUT(HttpRequest.BodyPublishers.ofString(json)).build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static String hms(int seconds) {
+        return "%02d:%02d:%02d".formatted(seconds / 3600, seconds / 60 % 60, seconds % 60);
+    }
+}
@@ -0,0 +1,215 @@
+package com.running.service.benchmark;
+
+import com.running.model.Race;
+import com.running.repository.RaceRepository;
+import com.running.repository.RaceSpecifications;
+import com.running.service.StatementCapture;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Compara el filtro catch-all antiguo de /api/races/filter ({@link #LEGACY_FILTER}, que ya no está
+ * en RaceRepository) con RaceSpecifications (solo predicados presentes) sobre 500k carreras en el
+ * esquema de Flyway. Las dos pasan por Hibernate: la latencia lo incluye y el coste del plan
+ * (EXPLAIN FORMAT=JSON) se calcula sobre el SQL que emitieron, capturado con datasource-proxy.
+ *
+ * No forma parte de la suite normal: necesita un MySQL desechable.
+ *   mvn -pl running-boot test -Dtest=RaceFilterBenchmark \
+ *       -Dbench.mysql.url=jdbc:mysql://localhost:3306/running_bench \
+ *       -Dbench.mysql.user=root -Dbench.mysql.password=...
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfSystemProperty(named = "bench.mysql.url", matches = ".+")
+class RaceFilterBenchmark {
+
+    private static final int RACES = Integer.getInteger("bench.races", 500_000);
+    private static final int RUNS = Integer.getInteger("bench.runs", 20);
+    private static final String[] PROVINCES = {
+            "Huelva", "Sevilla", "Cádiz", "Córdoba", "Málaga", "Granada", "Jaén", "Almería",
+            "Madrid", "Barcelona", "Valencia", "Badajoz"
+    };
+    private static final Pattern QUERY_COST = Pattern.compile("\"query_cost\"\\s*:\\s*\"([0-9.]+)\"");
+    /** La JPQL que tenía RaceRepository.filterRaces: cada filtro ausente se anula con ":param IS NULL OR". */
+    private static final String LEGACY_FILTER = """
+            SELECT c FROM Race c
+            WHERE (:province IS NULL OR c.province = :province)
+              AND (:typeId IS NULL OR c.type.id_type = :typeId)
+              AND (:difficultyId IS NULL OR c.difficulty.iddifficulty = :difficultyId)
+              AND (:fechaDesde IS NULL OR c.date >= :fechaDesde)
+              AND (:fechaHasta IS NULL OR c.date <= :fechaHasta)
+              AND (:finalizada IS NULL OR
+                   (:finalizada = TRUE  AND c.date < :now) OR
+                   (:finalizada = FALSE AND c.date >= :now))
+            ORDER BY c.date ASC
+            """;
+    /** El mismo orden que RaceService.filterRaces. */
+    private static final Sort FILTER_SORT = Sort.by(Sort.Order.asc("date"), Sort.Order.asc("id"));
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EnableJpaRepositories(basePackages = "com.running.repository")
+    @EntityScan(basePackages = "com.running.model")
+    @Import(StatementCapture.class)
+    static class Config {
+    }
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getProperty("bench.mysql.url"));
+        registry.add("spring.datasource.username", () -> System.getProperty("bench.mysql.user", "root"));
+        registry.add("spring.datasource.password", () -> System.getProperty("bench.mysql.password", ""));
+        registry.add("spring.flyway.baseline-on-migrate", () -> true);
+        registry.add("spring.flyway.baseline-version", () -> 1);
+    }
+
+    record Filter(String label, String province, Long typeId, Long difficultyId,
+                  LocalDateTime from, LocalDateTime to, Boolean finalizada) {
+    }
+
+    @Autowired
+    private RaceRepository raceRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void compareLegacyAndDynamicFilter() throws Exception {
+        seed();
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Filter> filters = List.of(
+                new Filter("province", "Huelva", null, null, null, null, null),
+                new Filter("province+upcoming", "Sevilla", null, null, null, null, false),
+                new Filter("type+difficulty", null, 2L, 3L, null, null, null),
+                new Filter("date range", null, null, null, now.minusMonths(1), now.plusMonths(1), null),
+                new Filter("all params", "Málaga", 1L, 2L, now.minusYears(1), now.plusYears(1), true)
+        );
+
+        System.out.printf("%-20s %14s %14s %12s %12s%n", "filter", "legacy cost", "dynamic cost", "legacy ms", "dynamic ms");
+        List<String> sql = new ArrayList<>();
+        for (Filter f : filters) {
+            Supplier<List<Race>> legacy = () -> legacyFilter(f, now);
+            Supplier<List<Race>> dynamic = () -> raceRepository.findAll(
+                    RaceSpecifications.filter(f.province(), f.typeId(), f.difficultyId(), f.from(), f.to(), f.finalizada(), now),
+                    FILTER_SORT);
+
+            StatementCapture.Statement legacySql = firstStatement(legacy);
+            StatementCapture.Statement dynamicSql = firstStatement(dynamic);
+            sql.add(f.label() + ": " + dynamicSql.sql());
+
+            System.out.printf("%-20s %14.1f %14.1f %12.2f %12.2f%n", f.label(),
+                    explainCost(legacySql), explainCost(dynamicSql), medianMillis(legacy), medianMillis(dynamic));
+        }
+        System.out.println();
+        sql.forEach(System.out::println);
+    }
+
+    // ---- SQL ----
+
+    private List<Race> legacyFilter(Filter f, LocalDateTime now) {
+        return entityManager.createQuery(LEGACY_FILTER, Race.class)
+                .setParameter("province", f.province())
+                .setParameter("typeId", f.typeId())
+                .setParameter("difficultyId", f.difficultyId())
+                .setParameter("fechaDesde", f.from())
+                .setParameter("fechaHasta", f.to())
+                .setParameter("finalizada", f.finalizada())
+                .setParameter("now", now)
+                .getResultList();
+    }
+
+    /** La consulta principal que lanza el repositorio (las siguientes serían cargas de relaciones). */
+    private StatementCapture.Statement firstStatement(Supplier<List<Race>> call) throws Exception {
+        List<StatementCapture.Statement> statements = StatementCapture.capture(call::get);
+        assertFalse(statements.isEmpty(), "El repositorio no lanzó ninguna sentencia");
+        return statements.get(0);
+    }
+
+    private double explainCost(StatementCapture.Statement statement) {
+        String plan = jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement("EXPLAIN FORMAT=JSON " + statement.sql());
+            statement.bind(ps);
+            return ps;
+        }, rs -> rs.next() ? rs.getString(1) : "");
+        Matcher m = QUERY_COST.matcher(plan);
+        return m.find() ? Double.parseDouble(m.group(1)) : Double.NaN;
+    }
+
+    private double medianMillis(Supplier<List<Race>> call) {
+        double[] samples = new double[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            call.get();
+            samples[i] = (System.nanoTime() - start) / 1_000_000.0;
+        }
+        Arrays.sort(samples);
+        return samples[RUNS / 2];
+    }
+
+    // ---- Dataset ----
+
+    private void seed() {
+        jdbc.update("INSERT IGNORE INTO type (id_type, name) VALUES (1, 'Asfalto'), (2, 'Trail'), (3, 'Cross'), (4, 'Montaña')");
+        jdbc.update("INSERT IGNORE INTO difficulty (iddifficulty, name) VALUES (1, 'Baja'), (2, 'Media'), (3, 'Alta')");
+
+        Long existing = jdbc.queryForObject("SELECT COUNT(*) FROM race", Long.class);
+        if (existing != null && existing >= RACES) return;
+
+        Random rnd = new Random(42);
+        LocalDateTime base = LocalDateTime.now().minusYears(3);
+        List<Object[]> rows = new ArrayList<>(5_000);
+        for (long i = existing == null ? 0 : existing; i < RACES; i++) {
+            String province = PROVINCES[rnd.nextInt(PROVINCES.length)];
+            rows.add(new Object[]{
+                    "Carrera " + i, province, 5 + rnd.nextInt(38),
+                    Timestamp.valueOf(base.plusMinutes(rnd.nextInt(6 * 365 * 24 * 60))),
+                    province, rnd.nextInt(1500), rnd.nextInt(3000), 1 + rnd.nextInt(4), 1 + rnd.nextInt(3)
+            });
+            if (rows.size() == 5_000) {
+                insertRaces(rows);
+                rows.clear();
+            }
+        }
+        insertRaces(rows);
+        jdbc.execute("ANALYZE TABLE race");
+    }
+
+    private void insertRaces(List<Object[]> rows) {
+        if (rows.isEmpty()) return;
+        jdbc.batchUpdate("INSERT INTO race (name, place, distance_km, date, province, slope, registered, id_type, iddifficulty) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+}
@@ -0,0 +1,110 @@
+package com.running.service.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * Throughput y latencias (p50/p99) de /api/races/filter y /api/user-race/pre-register con muchos
+ * clientes concurrentes, contra una aplicación ya arrancada. Para comparar los dos modos se
+ * arranca la aplicación dos veces y se lanza el harness contra cada una:
+ *
+ *   java -jar running-boot.jar                                        (hilos de plataforma)
+ *   java -jar running-boot.jar --spring.profiles.active=vthreads      (hilos virtuales, Java 21)
+ *
+ *   mvn -pl running-boot test -Dtest=RequestModeLoadBenchmark \
+ *       -Dbench.base-url=http://localhost:8080 -Dbench.label=vthreads \
+ *       -Dbench.race-id=1 -Dbench.clients=400 -Dbench.seconds=30
+ *
+ * Para pre-register se usan los usuarios bench-uid-0..N que crea ConfirmationThroughputBenchmark
+ * (la operación es idempotente, se puede repetir). Los 503 del guard de conexiones se cuentan
+ * aparte: son rechazos rápidos, no errores.
+ */
+@EnabledIfSystemProperty(named = "bench.base-url", matches = ".+")
+class RequestModeLoadBenchmark {
+
+    private static final String BASE_URL = System.getProperty("bench.base-url");
+    private static final String LABEL = System.getProperty("bench.label", "default");
+    private static final int CLIENTS = Integer.getInteger("bench.clients", 400);
+    private static final int SECONDS = Integer.getInteger("bench.seconds", 30);
+    private static final int WARMUP_SECONDS = Integer.getInteger("bench.warmup-seconds", 5);
+    private static final long RACE_ID = Long.getLong("bench.race-id", 1L);
+    private static final int USERS = Integer.getInteger("bench.users", 20_000);
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newFixedThreadPool(32))
+            .build();
+
+    @Test
+    void compareEndpoints() throws Exception {
+        System.out.printf("%-10s %-28s %8s %10s %9s %9s %8s %8s%n",
+                "modo", "endpoint", "clientes", "req/s", "p50 ms", "p99 ms", "503", "errores");
+
+        run("races/filter", i -> HttpRequest.newBuilder(
+                        URI.create(BASE_URL + "/api/races/filter?province=Huelva&page=" + (i % 5) + "&size=20"))
+                .GET().build());
+
+        run("user-race/pre-register", i -> HttpRequest.newBuilder(
+                        URI.create(BASE_URL + "/api/user-race/pre-register/" + RACE_ID + "?uid=bench-uid-" + (i % USERS)))
+                .POST(HttpRequest.BodyPublishers.noBody()).build());
+    }
+
+    private void run(String endpoint, IntFunction<HttpRequest> requests) throws Exception {
+        measure(requests, WARMUP_SECONDS);
+        LatencyStats r = measure(requests, SECONDS);
+        System.out.printf("%-10s %-28s %8d %10.0f %9.1f %9.1f %8d %8d%n",
+                LABEL, endpoint, CLIENTS, r.count() / (double) SECONDS,
+                r.percentile(50), r.percentile(99), r.rejected(), r.errors());
+    }
+
+    private LatencyStats measure(IntFunction<HttpRequest> requests, int seconds) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(CLIENTS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger next = new AtomicInteger();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        try {
+            List<Future<LatencyStats>> clients = new ArrayList<>(CLIENTS);
+            for (int c = 0; c < CLIENTS; c++) {
+                clients.add(pool.submit(() -> {
+                    LatencyStats mine = new LatencyStats();
+                    start.await();
+                    while (System.nanoTime() < deadline) {
+                        HttpRequest request = requests.apply(next.getAndIncrement());
+                        long t0 = System.nanoTime();
+                        try {
+                            int status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                            mine.record(status, System.nanoTime() - t0);
+                        } catch (Exception e) {
+                            mine.error();
+                        }
+                    }
+                    return mine;
+                }));
+            }
+            start.countDown();
+
+            LatencyStats total = new LatencyStats();
+            for (Future<LatencyStats> f : clients) {
+                total.merge(f.get(seconds + 60L, TimeUnit.SECONDS));
+            }
+            return total;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.running.service.benchmark;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Dataset sintético y determinista (semilla fija) para pruebas de carga: roles, tipos,
+ * dificultades, usuarios, clubs, carreras, inscripciones y planes de entrenamiento.
+ * La escala se lee de propiedades de sistema, p. ej. {@code -Dload.registrations=1000000}.
+ *
+ * Convenciones que usa {@link LoadScenarioTest}:
+ * <ul>
+ *   <li>Usuarios {@code load-uid-1..N} con ids explícitos; el club 1 es el club por defecto.</li>
+ *   <li>Cada usuario es miembro del club 1 y de {@link #homeClub(long)}.</li>
+ *   <li>La primera mitad de las carreras ya se ha celebrado; la segunda es futura.</li>
+ *   <li>La inscripción k del usuario u es a la carrera {@link #raceOf(long, int)}: confirmada con
+ *       tiempo y ritmo si la carrera ya pasó, y con estado mixto si es futura.</li>
+ * </ul>
+ * Los contadores race.registered y club.members se recalculan al final a partir de las filas.
+ */
+final class SyntheticDataset {
+
+    private static final int BATCH = 5_000;
+    private static final String[] PROVINCES = {
+            "Huelva", "Sevilla", "Cádiz", "Córdoba", "Málaga", "Granada", "Jaén", "Almería", "Madrid", "Valencia"
+    };
+
+    final int users = Integer.getInteger("load.users", 50_000);
+    final int clubs = Integer.getInteger("load.clubs", 500);
+    final int races = Integer.getInteger("load.races", 20_000);
+    final int registrations = Integer.getInteger("load.registrations", 1_000_000);
+    final int plans = Integer.getInteger("load.plans", 2_000);
+
+    private final LocalDateTime now = LocalDateTime.now().withNano(0);
+    private final Random random = new Random(42);
+
+    int registrationsPerUser() {
+        return Math.max(1, registrations / users);
+    }
+
+    /** Carrera de la inscripción k del usuario u; no se repite para un mismo usuario. */
+    long raceOf(long userId, int k) {
+        long stride = Math.max(1, races / registrationsPerUser());
+        return 1 + (userId * 31 + k * stride) % races;
+    }
+
+    boolean isPast(long raceId) {
+        return raceId <= races / 2;
+    }
+
+    /** Segundo club del usuario (el primero siempre es el 1). */
+    long homeClub(long userId) {
+        return 2 + userId % (clubs - 1);
+    }
+
+    void seed(Connection cn) throws SQLException {
+        boolean autoCommit = cn.getAutoCommit();
+        cn.setAutoCommit(false);
+        try {
+            try (Statement st = cn.createStatement()) {
+                st.execute("INSERT INTO role (id, name) VALUES (1, 'admin'), (2, 'organizator'), (3, 'club-administrator'), (4, 'user')");
+                st.execute("INSERT INTO type (id_type, name) VALUES (1, 'Asfalto'), (2, 'Trail'), (3, 'Cross')");
+                st.execute("INSERT INTO difficulty (iddifficulty, name) VALUES (1, 'Baja'), (2, 'Media'), (3, 'Alta')");
+            }
+            batch(cn, "INSERT INTO `user` (id, email, name, surname, uid, role_id) VALUES (?, ?, ?, ?, ?, ?)", users,
+                    (ps, i) -> {
+                        ps.setLong(1, i);
+                        ps.setString(2, "load" + i + "@load.test");
+                        ps.setString(3, "Nombre" + i);
+                        ps.setString(4, "Apellido" + i);
+                        ps.setString(5, "load-uid-" + i);
+                        ps.setLong(6, i <= 10 ? 1 + (i % 3) : 4);
+                    });
+            batch(cn, "INSERT INTO club (id, name, province, place, members, manager_user_id) VALUES (?, ?, ?, ?, 0, ?)", clubs,
+                    (ps, i) -> {
+                        ps.setLong(1, i);
+                        ps.setString(2, i == 1 ? "default" : "Club " + i);
+                        ps.setString(3, PROVINCES[(int) (i % PROVINCES.length)]);
+                        ps.setString(4, "Lugar " + i);
+                        ps.setLong(5, 1 + (i % 10));
+                    });
+            batch(cn, "INSERT INTO user_club (user_id, club_id) VALUES (?, ?)", users * 2L,
+                    (ps, i) -> {
+                        long userId = (i + 1) / 2;
+                        ps.setLong(1, userId);
+                        ps.setLong(2, i % 2 == 1 ? 1 : homeClub(userId));
+                    });
+            LocalDateTime first = now.minusDays(races / 2 / 8);
+            batch(cn, "INSERT INTO race (id, name, place, distance_km, date, province, slope, registered, id_type, iddifficulty, organizer_user_id) " +
+                            "VALUES (?, ?, ?, ?, ?, ?, ?, 0, ?, ?, ?)", races,
+                    (ps, i) -> {
+                        ps.setLong(1, i);
+                        ps.setString(2, "Carrera " + i);
+                        ps.setString(3, "Lugar " + i);
+                        ps.setDouble(4, new double[]{5, 10, 21.1, 42.2}[random.nextInt(4)]);
+                        // ~8 carreras al día, la mitad antes de hoy
+                        ps.setTimestamp(5, Timestamp.valueOf(first.plusMinutes(i * 180L)));
+                        ps.setString(6, PROVINCES[random.nextInt(PROVINCES.length)]);
+                        ps.setInt(7, random.nextInt(1500));
+                        ps.setLong(8, 1 + random.nextInt(3));
+                        ps.setLong(9, 1 + random.nextInt(3));
+                        ps.setLong(10, 1 + (i % 10));
+                    });
+            int perUser = registrationsPerUser();
+            batch(cn, "INSERT INTO user_race (user_id, race_id, registration_date, status, tiempo, posicion, pace) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                    (long) users * perUser,
+                    (ps, i) -> {
+                        long userId = 1 + (i - 1) / perUser;
+                        long raceId = raceOf(userId, (int) ((i - 1) % perUser));
+                        ps.setLong(1, userId);
+                        ps.setLong(2, raceId);
+                        ps.setTimestamp(3, Timestamp.valueOf(now.minusDays(1 + random.nextInt(365))));
+                        if (isPast(raceId)) {
+                            int seconds = 1_500 + random.nextInt(12_000);
+                            ps.setString(4, "confirmada");
+                            ps.setTime(5, Time.valueOf(LocalTime.ofSecondOfDay(seconds)));
+                            ps.setInt(6, 1 + random.nextInt(2_000));
+                            ps.setTime(7, Time.valueOf(LocalTime.ofSecondOfDay(seconds / 10)));
+                        } else {
+                            int r = random.nextInt(10);
+                            ps.setString(4, r < 5 ? "pendiente" : (r < 9 ? "confirmada" : "cancelada"));
+                            ps.setNull(5, Types.TIME);
+                            ps.setNull(6, Types.INTEGER);
+                            ps.setNull(7, Types.TIME);
+                        }
+                    });
+            batch(cn, "INSERT INTO training_plans (id_club, name, content_json) VALUES (?, ?, ?)", plans,
+                    (ps, i) -> {
+                        ps.setLong(1, 1 + (i % clubs));
+                        ps.setString(2, "Plan " + i);
+                        ps.setString(3, "{\"semanas\":" + (4 + i % 12) + "}");
+                    });
+            try (Statement st = cn.createStatement()) {
+                st.executeUpdate("UPDATE race r SET registered = " +
+                        "(SELECT COUNT(*) FROM user_race ur WHERE ur.race_id = r.id AND ur.status = 'confirmada')");
+                st.executeUpdate("UPDATE club c SET members = (SELECT COUNT(*) FROM user_club uc WHERE uc.club_id = c.id)");
+            }
+            cn.commit();
+        } catch (SQLException e) {
+            cn.rollback();
+            throw e;
+        } finally {
+            cn.setAutoCommit(autoCommit);
+        }
+        restartIdentities(cn);
+    }
+
+    /** Con ids explícitos H2 no avanza las columnas identity; MySQL sí lo hace solo. */
+    private void restartIdentities(Connection cn) throws SQLException {
+        if (!cn.getMetaData().getDatabaseProductName().startsWith("H2")) return;
+        try (Statement st = cn.createStatement()) {
+            for (String t : List.of("role", "`user`", "club", "race", "type", "difficulty")) {
+                String column = switch (t) {
+                    case "type" -> "id_type";
+                    case "difficulty" -> "iddifficulty";
+                    default -> "id";
+                };
+                long next;
+                try (ResultSet rs = st.executeQuery("SELECT COALESCE(MAX(" + column + "), 0) + 1 FROM " + t)) {
+                    rs.next();
+                    next = rs.getLong(1);
+                }
+                st.execute("ALTER TABLE " + t + " ALTER COLUMN " + column + " RESTART WITH " + next);
+            }
+        }
+    }
+
+    interface RowBinder {
+        void bind(PreparedStatement ps, long i) throws SQLException;
+    }
+
+    private static void batch(Connection cn, String sql, long rows, RowBinder binder) throws SQLException {
+        try (PreparedStatement ps = cn.prepareStatement(sql)) {
+            for (long i = 1; i <= rows; i++) {
+                binder.bind(ps, i);
+                ps.addBatch();
+                if (i % BATCH == 0) ps.executeBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.running.model;
 import lombok.*;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Data
 @Builder
@@ -15,5 +16,18 @@ public class AccessoriesDto {
     private String photo;
     private List<String> features;
     private List<BrandDto> brands;
+
+    public static AccessoriesDto from(Accessories a) {
+        return AccessoriesDto.builder()
+                .id(a.getId())
+                .title(a.getTitle())
+                .description(a.getDescription())
+                .photo(a.getPhoto())
+                .features(a.getFeatures())
+                .brands(a.getBrands() != null
+                        ? a.getBrands().stream().map(BrandDto::from).collect(Collectors.toList())
+                        : null)
+                .build();
+    }
 }
 
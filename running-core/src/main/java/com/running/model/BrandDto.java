@@ -10,5 +10,13 @@ public class BrandDto {
     private String img;
     private String name;
     private String url;
+
+    public static BrandDto from(Brand brand) {
+        return BrandDto.builder()
+                .name(brand.getName())
+                .img(brand.getImg())
+                .url(brand.getUrl())
+                .build();
+    }
 }
 
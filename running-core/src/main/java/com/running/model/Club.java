@@ -1,13 +1,16 @@
 package com.running.model;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import com.running.model.TrainingPlan;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.util.List;
 
@@ -26,8 +29,14 @@ public class Club {
     private String province;
     private String photo;
     private String place;
+    // Solo lo escriben incrementMembers/decrementMembers y ClubMembersReconciler:
+    // un save() de la entidad no debe pisar con el valor que leyó
+    @Column(updatable = false)
     private Integer members;
     private String contact;
+    // Coordenadas de place/province (MunicipalityGeocoder); null si no se encuentra el municipio
+    private Double latitude;
+    private Double longitude;
 
     @OneToMany(mappedBy = "club")
     @JsonManagedReference
@@ -37,7 +46,11 @@ public class Club {
     @JsonBackReference
     private List<User> users;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    // LAZY: los datos del manager se piden con findByIdWithManager
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "manager_user_id")
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User manager;
 }
\ No newline at end of file
@@ -18,4 +18,21 @@ public class ClubDto {
     private Integer members;
     private boolean joined;
     private String contact;
+    private Double latitude;
+    private Double longitude;
+
+    public static ClubDto from(Club c, boolean joined) {
+        return ClubDto.builder()
+                .id(c.getId())
+                .name(c.getName())
+                .province(c.getProvince())
+                .photo(c.getPhoto())
+                .place(c.getPlace())
+                .members(c.getMembers())
+                .contact(c.getContact())
+                .latitude(c.getLatitude())
+                .longitude(c.getLongitude())
+                .joined(joined)
+                .build();
+    }
 }
@@ -0,0 +1,23 @@
+package com.running.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Miembro de un club para listados: se construye desde JPQL (user_club + user + role) sin
+ * hidratar User ni sus clubs. El id solo se usa para el cursor.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClubMemberDto {
+    @JsonIgnore
+    private Long id;
+    private String uid;
+    private String name;
+    private String surname;
+    private String email;
+    private String role;
+}
@@ -0,0 +1,19 @@
+package com.running.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página de miembros de un club paginada por cursor (keyset sobre name,id).
+ * nextCursor es null cuando no hay más resultados.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClubMemberPageDto {
+    private List<ClubMemberDto> items;
+    private String nextCursor;
+}
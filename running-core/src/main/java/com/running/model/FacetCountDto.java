@@ -0,0 +1,17 @@
+package com.running.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Un valor de faceta y cuántas carreras lo tienen. id es null en las facetas sin tabla (provincia).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetCountDto {
+    private Long id;
+    private String name;
+    private int count;
+}
@@ -0,0 +1,22 @@
+package com.running.model;
+
+/**
+ * Coordenadas WGS84 en grados decimales.
+ */
+public record GeoPoint(double latitude, double longitude) {
+
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+
+    /** Distancia de círculo máximo (haversine) en km. */
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    public double distanceKm(GeoPoint other) {
+        return distanceKm(latitude, longitude, other.latitude, other.longitude);
+    }
+}
@@ -3,6 +3,7 @@ package com.running.model;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.DateTimeException;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 
@@ -24,4 +25,53 @@ public class MarcaDto {
         this.pace = pace;
     }
 
+    /** Para proyecciones JPQL: tiempo y ritmo llegan como LocalTime. */
+    public MarcaDto(Long raceId, LocalDateTime raceDate, LocalTime tiempo, Integer posicion,
+                    String comentarios, LocalTime pace) {
+        this.raceId = raceId;
+        this.raceDate = raceDate;
+        this.tiempo = tiempo != null ? tiempo.toString() : null;
+        this.posicion = posicion;
+        this.comentarios = comentarios;
+        this.pace = pace != null ? pace.toString() : null;
+    }
+
+    /** Tiempo o ritmo tal como llega de la API: HH:mm:ss, HH:mm o HH. */
+    public static LocalTime parseTime(String input) {
+        if (input == null || input.isEmpty()) {
+            throw new RuntimeException("El tiempo no puede estar vacío");
+        }
+
+        String[] parts = input.split(":");
+
+        int hours = 0;
+        int minutes = 0;
+        int seconds = 0;
+
+        try {
+            if (parts.length == 3) {
+                // HH:mm:ss
+                hours = Integer.parseInt(parts[0]);
+                minutes = Integer.parseInt(parts[1]);
+                seconds = Integer.parseInt(parts[2]);
+            } else if (parts.length == 2) {
+                // HH:mm
+                hours = Integer.parseInt(parts[0]);
+                minutes = Integer.parseInt(parts[1]);
+            } else if (parts.length == 1) {
+                // HH
+                hours = Integer.parseInt(parts[0]);
+            } else {
+                throw new RuntimeException("Formato de tiempo inválido. Usa HH:mm:ss, HH:mm o HH.");
+            }
+
+            return LocalTime.of(hours, minutes, seconds);
+
+        } catch (NumberFormatException | DateTimeException e) {
+            throw new RuntimeException(
+                    "El formato del tiempo debe ser HH:mm:ss, HH:mm o HH. Ejemplo: 01:23:45 o 15:45",
+                    e
+            );
+        }
+    }
 }
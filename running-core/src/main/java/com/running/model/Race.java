@@ -1,10 +1,13 @@
 package com.running.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.time.LocalDateTime;
 
@@ -26,7 +29,16 @@ public class Race {
     private LocalDateTime date;
     private String province;
     private Integer slope;
+    // Solo lo escriben las sentencias de RaceRepository (reserveSlot, decrementRegistered...):
+    // un save() de la entidad no debe pisar con el valor que leyó
+    @Column(updatable = false)
     private Integer registered;
+    // null = sin límite. Lo cambia RaceRepository#updateCapacityIfFits (nunca por debajo de registered)
+    @Column(updatable = false)
+    private Integer capacity;
+    // Coordenadas de place/province (MunicipalityGeocoder); null si no se encuentra el municipio
+    private Double latitude;
+    private Double longitude;
     @Column(name = "url")
     private String url;
     @ManyToOne
@@ -35,7 +47,11 @@ public class Race {
     @ManyToOne
     @JoinColumn(name = "iddifficulty", nullable = false)
     private Difficulty difficulty;
-    @ManyToOne(fetch = FetchType.EAGER)
+    // LAZY: cada lectura pide el organizador solo si lo necesita (findByIdWithOrganizer)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "organizer_user_id")
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User organizer;
 }
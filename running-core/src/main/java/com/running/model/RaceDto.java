@@ -21,6 +21,7 @@ public class RaceDto {
     private Difficulty iddifficulty;
     private Integer slope;
     private Integer registered;
+    private Integer capacity;
     @Column(name = "url")
     private String url;
     private Long organizerUserId;
@@ -0,0 +1,24 @@
+package com.running.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Recuentos de /api/races/facets para la pantalla de filtros. total cumple todos los filtros;
+ * cada faceta se cuenta con los filtros de las demás, para que la pantalla pueda mostrar cuántas
+ * carreras quedarían al cambiar el valor elegido.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RaceFacetsDto {
+    private int total;
+    private List<FacetCountDto> provinces;
+    private List<FacetCountDto> types;
+    private List<FacetCountDto> difficulties;
+    private int upcoming;
+    private int finished;
+}
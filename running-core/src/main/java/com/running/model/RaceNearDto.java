@@ -0,0 +1,16 @@
+package com.running.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Carrera de /api/races/near con su distancia al punto de búsqueda.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RaceNearDto {
+    private RaceSummaryDto race;
+    private double distanceKm;
+}
@@ -0,0 +1,20 @@
+package com.running.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página de /api/races/near: carreras ordenadas por distancia y total dentro del radio.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RaceNearPageDto {
+    private List<RaceNearDto> items;
+    private int total;
+    private int page;
+    private int size;
+}
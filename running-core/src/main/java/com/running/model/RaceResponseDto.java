@@ -0,0 +1,56 @@
+package com.running.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Carrera tal como sale por la API. Mismos campos que la entidad, pero el organizador va solo
+ * como id (leerlo de un proxy lazy no lanza consulta); sus datos están en /api/races/{id}/organizer.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RaceResponseDto {
+    private Long id;
+    private String photo;
+    private String name;
+    private String place;
+    private Double distance_km;
+    private LocalDateTime date;
+    private String province;
+    private Integer slope;
+    private Integer registered;
+    private Integer capacity;
+    private Double latitude;
+    private Double longitude;
+    private String url;
+    private Type type;
+    private Difficulty difficulty;
+    private Long organizerUserId;
+
+    public static RaceResponseDto from(Race r) {
+        return RaceResponseDto.builder()
+                .id(r.getId())
+                .photo(r.getPhoto())
+                .name(r.getName())
+                .place(r.getPlace())
+                .distance_km(r.getDistance_km())
+                .date(r.getDate())
+                .province(r.getProvince())
+                .slope(r.getSlope())
+                .registered(r.getRegistered())
+                .capacity(r.getCapacity())
+                .latitude(r.getLatitude())
+                .longitude(r.getLongitude())
+                .url(r.getUrl())
+                .type(r.getType())
+                .difficulty(r.getDifficulty())
+                .organizerUserId(r.getOrganizer() != null ? r.getOrganizer().getId() : null)
+                .build();
+    }
+}
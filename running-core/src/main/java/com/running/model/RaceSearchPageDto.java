@@ -0,0 +1,18 @@
+package com.running.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/** Página de resultados de /api/races/search, ordenados por relevancia. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RaceSearchPageDto {
+    private List<RaceSummaryDto> items;
+    private int total;
+    private int page;
+    private int size;
+}
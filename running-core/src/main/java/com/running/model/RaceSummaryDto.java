@@ -0,0 +1,40 @@
+package com.running.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Vista ligera de una carrera para listados: se construye directamente desde JPQL
+ * (constructor projection), sin hidratar la entidad ni su organizer/type/difficulty.
+ * Las coordenadas solo las cargan las consultas de los índices en memoria.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RaceSummaryDto {
+    private Long id;
+    private String name;
+    private String place;
+    private String province;
+    private Double distanceKm;
+    private LocalDateTime date;
+    private String photo;
+    private Integer registered;
+    private Long typeId;
+    private String typeName;
+    private Long difficultyId;
+    private String difficultyName;
+    private Double latitude;
+    private Double longitude;
+
+    /** Proyección del catálogo, sin coordenadas. */
+    public RaceSummaryDto(Long id, String name, String place, String province, Double distanceKm,
+                          LocalDateTime date, String photo, Integer registered, Long typeId, String typeName,
+                          Long difficultyId, String difficultyName) {
+        this(id, name, place, province, distanceKm, date, photo, registered, typeId, typeName,
+                difficultyId, difficultyName, null, null);
+    }
+}
@@ -0,0 +1,19 @@
+package com.running.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página del catálogo de carreras paginado por cursor (keyset sobre date,id).
+ * nextCursor es null cuando no hay más resultados.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RaceSummaryPageDto {
+    private List<RaceSummaryDto> items;
+    private String nextCursor;
+}
@@ -26,6 +26,13 @@ public class ReassignmentLog {
     @JoinColumn(name = "from_user_id")
     private User fromUser;
 
+    // Copia del usuario de origen: from_user_id se pierde al borrarlo
+    @Column(name = "from_user_email")
+    private String fromUserEmail;
+
+    @Column(name = "from_user_name")
+    private String fromUserName;
+
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "to_user_id", nullable = false)
     private User toUser;
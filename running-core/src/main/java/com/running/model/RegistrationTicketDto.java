@@ -0,0 +1,17 @@
+package com.running.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RegistrationTicketDto {
+    private String ticket;
+    private Long raceId;
+    private String status; // en_cola | registrada | rechazada | error
+    private String message;
+}
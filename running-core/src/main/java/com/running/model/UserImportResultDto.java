@@ -0,0 +1,18 @@
+package com.running.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportResultDto {
+    private int row;        // fila de datos en el fichero (1 = primera tras la cabecera)
+    private String email;
+    private String uid;
+    private String status;  // creado | error | reintentar
+    private String message;
+}
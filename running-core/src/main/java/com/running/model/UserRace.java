@@ -30,7 +30,7 @@ public class UserRace {
 
     private LocalDateTime registrationDate;
 
-    private String status; // pendiente | confirmada | cancelada
+    private String status; // pendiente | confirmada | lista_espera | cancelada
 
     private LocalTime tiempo;
 
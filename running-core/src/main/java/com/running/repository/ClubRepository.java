@@ -24,7 +24,7 @@ public interface ClubRepository extends JpaRepository<Club, Long> {
 
     List<Club> findByManager_UIDOrderByNameAsc(String managerUid);
 
-    @Query("select c from Club c left join fetch c.manager where c.id = :id")
+    @Query("select c from Club c left join fetch c.manager m left join fetch m.role where c.id = :id")
     Optional<Club> findByIdWithManager(@Param("id") Long id);
 
     @Modifying(clearAutomatically = true, flushAutomatically = true)
@@ -35,6 +35,10 @@ public interface ClubRepository extends JpaRepository<Club, Long> {
     @Query("select c.id from Club c where c.manager = :manager")
     List<Long> findIdsByManager(@Param("manager") User manager);
 
+    @Modifying
+    @Query("update Club c set c.members = coalesce(c.members, 0) + 1 where c.id = :id")
+    void incrementMembers(@Param("id") Long id);
+
     @Modifying
     @Query("""
            update Club c
@@ -42,4 +46,13 @@ public interface ClubRepository extends JpaRepository<Club, Long> {
            where c.id = :id
            """)
     void decrementMembers(@Param("id") Long id);
+
+    /** -1 miembro en todos los clubs del usuario, en una sola sentencia (antes de borrar sus filas de user_club). */
+    @Modifying
+    @Query(value = """
+           UPDATE club c
+           SET c.members = CASE WHEN c.members > 0 THEN c.members - 1 ELSE 0 END
+           WHERE c.id IN (SELECT uc.club_id FROM user_club uc WHERE uc.user_id = :userId)
+           """, nativeQuery = true)
+    int decrementMembersOfUserClubs(@Param("userId") Long userId);
 }
@@ -1,51 +1,168 @@
 package com.running.repository;
 
 import com.running.model.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface RaceRepository extends JpaRepository<Race, Long> {
+public interface RaceRepository extends JpaRepository<Race, Long>, JpaSpecificationExecutor<Race> {
 
+    // Lecturas de carreras: type y difficulty en la misma consulta; el organizador no se carga
+
+    @EntityGraph(attributePaths = {"type", "difficulty"})
     List<Race> findByProvince(String province);
+    @EntityGraph(attributePaths = {"type", "difficulty"})
     List<Race> findByType(Type type);
+    @EntityGraph(attributePaths = {"type", "difficulty"})
     List<Race> findByDifficulty(Difficulty difficulty);
+    @EntityGraph(attributePaths = {"type", "difficulty"})
     Optional<Race> findById(Long id);
+    @EntityGraph(attributePaths = {"type", "difficulty"})
     List<Race> findByOrganizer_IdOrderByDateDesc(Long organizerUserId);
+    @EntityGraph(attributePaths = {"type", "difficulty"})
     List<Race> findByOrganizer_UIDOrderByDateDesc(String organizerUid);
+
+    @Override
+    @EntityGraph(attributePaths = {"type", "difficulty"})
+    List<Race> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = {"type", "difficulty"})
+    List<Race> findAllById(Iterable<Long> ids);
+
+    @Override
+    @EntityGraph(attributePaths = {"type", "difficulty"})
+    List<Race> findAll(Specification<Race> spec, Sort sort);
+
+    @Override
+    @EntityGraph(attributePaths = {"type", "difficulty"})
+    Page<Race> findAll(Specification<Race> spec, Pageable pageable);
     boolean existsByIdAndOrganizer_Id(Long raceId, Long organizerUserId);
 
     Optional<Race> findByNameIgnoreCase(String name);
     boolean existsByNameIgnoreCase(String name);
     boolean existsByNameIgnoreCaseAndIdNot(String name, Long id);
 
-    @Query("select c from Race c left join fetch c.organizer where c.id = :id")
+    @Query("""
+           select c from Race c
+           join fetch c.type
+           join fetch c.difficulty
+           left join fetch c.organizer o
+           left join fetch o.role
+           where c.id = :id
+           """)
     Optional<Race> findByIdWithOrganizer(@Param("id") Long id);
 
-    @Query("SELECT c FROM Race c " +
-            "WHERE (:province IS NULL OR c.province = :province) " +
-            "AND (:typeId IS NULL OR c.type.id_type = :typeId) " +
-            "AND (:difficultyId IS NULL OR c.difficulty.iddifficulty = :difficultyId) " +
-            "AND (:fechaDesde IS NULL OR c.date >= :fechaDesde) " +
-            "AND (:fechaHasta IS NULL OR c.date <= :fechaHasta) " +
-            "AND (:finalizada IS NULL OR " +
-            "     (:finalizada = TRUE  AND c.date < :now) OR " +
-            "     (:finalizada = FALSE AND c.date >= :now)) " +
-            "ORDER BY c.date ASC")
-    List<Race> filterRaces(
-            @Param("province") String province,
-            @Param("typeId") Long typeId,
-            @Param("difficultyId") Long difficultyId,
-            @Param("fechaDesde") LocalDateTime fechaDesde,
-            @Param("fechaHasta") LocalDateTime fechaHasta,
-            @Param("finalizada") Boolean finalizada,
-            @Param("now") LocalDateTime now
-    );
+    // ---- Catálogo paginado por cursor (keyset sobre date,id) ----
+
+    @Query("""
+           SELECT new com.running.model.RaceSummaryDto(
+                  c.id, c.name, c.place, c.province, c.distance_km, c.date, c.photo, c.registered,
+                  t.id_type, t.name, d.iddifficulty, d.name)
+           FROM Race c
+           JOIN c.type t
+           JOIN c.difficulty d
+           WHERE c.date IS NOT NULL
+           ORDER BY c.date ASC, c.id ASC
+           """)
+    List<RaceSummaryDto> findSummariesFirstPage(Pageable pageable);
+
+    @Query("""
+           SELECT new com.running.model.RaceSummaryDto(
+                  c.id, c.name, c.place, c.province, c.distance_km, c.date, c.photo, c.registered,
+                  t.id_type, t.name, d.iddifficulty, d.name)
+           FROM Race c
+           JOIN c.type t
+           JOIN c.difficulty d
+           WHERE c.date > :afterDate
+              OR (c.date = :afterDate AND c.id > :afterId)
+           ORDER BY c.date ASC, c.id ASC
+           """)
+    List<RaceSummaryDto> findSummariesAfter(@Param("afterDate") LocalDateTime afterDate,
+                                            @Param("afterId") Long afterId,
+                                            Pageable pageable);
+
+    // ---- Índices en memoria (RaceIndexUpdater): todas las carreras, con o sin fecha ----
+
+    @Query("""
+           SELECT new com.running.model.RaceSummaryDto(
+                  c.id, c.name, c.place, c.province, c.distance_km, c.date, c.photo, c.registered,
+                  t.id_type, t.name, d.iddifficulty, d.name, c.latitude, c.longitude)
+           FROM Race c
+           JOIN c.type t
+           JOIN c.difficulty d
+           WHERE c.id > :afterId
+           ORDER BY c.id ASC
+           """)
+    List<RaceSummaryDto> findSummariesAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("""
+           SELECT new com.running.model.RaceSummaryDto(
+                  c.id, c.name, c.place, c.province, c.distance_km, c.date, c.photo, c.registered,
+                  t.id_type, t.name, d.iddifficulty, d.name, c.latitude, c.longitude)
+           FROM Race c
+           JOIN c.type t
+           JOIN c.difficulty d
+           WHERE c.id = :id
+           """)
+    Optional<RaceSummaryDto> findSummaryById(@Param("id") Long id);
+
+    // ---- Contador de inscritos: se actualiza en la propia sentencia, sin leer-modificar-escribir ----
+
+    /** Reserva una plaza solo si queda aforo (o no hay límite). 1 = reservada, 0 = completa. */
+    @Modifying
+    @Query("""
+           update Race c
+           set c.registered = coalesce(c.registered, 0) + 1
+           where c.id = :id
+             and (c.capacity is null or coalesce(c.registered, 0) < c.capacity)
+           """)
+    int reserveSlot(@Param("id") Long id);
+
+    /** Cambia el aforo solo si no queda por debajo de los inscritos. 1 = cambiado, 0 = no cabe. */
+    @Modifying
+    @Query("update Race c set c.capacity = :capacity where c.id = :id and coalesce(c.registered, 0) <= :capacity")
+    int updateCapacityIfFits(@Param("id") Long id, @Param("capacity") Integer capacity);
+
+    /** Inscritos actuales de una página de resultados de los índices en memoria. */
+    @Query("select c.id as id, c.registered as registered from Race c where c.id in :ids")
+    List<RegisteredCount> findRegisteredByIdIn(@Param("ids") Collection<Long> ids);
+
+    interface RegisteredCount {
+        Long getId();
+        Integer getRegistered();
+    }
+
+    /** Plazas libres; vacío si la carrera no tiene aforo. */
+    @Query("select c.capacity - coalesce(c.registered, 0) from Race c where c.id = :id and c.capacity is not null")
+    Optional<Integer> findFreeSlots(@Param("id") Long id);
+
+    @Modifying
+    @Query("""
+           update Race c
+           set c.registered = case when c.registered > 0 then c.registered - 1 else 0 end
+           where c.id = :id
+           """)
+    void decrementRegistered(@Param("id") Long id);
+
+    /** -1 inscrito en las carreras donde el usuario estaba confirmado (antes de borrar sus user_race). */
+    @Modifying
+    @Query(value = """
+           UPDATE race c
+           SET c.registered = CASE WHEN c.registered > 0 THEN c.registered - 1 ELSE 0 END
+           WHERE c.id IN (SELECT ur.race_id FROM user_race ur WHERE ur.user_id = :userId AND ur.status = 'confirmada')
+           """, nativeQuery = true)
+    int decrementRegisteredOfUserConfirmations(@Param("userId") Long userId);
 
     @Modifying(clearAutomatically = true, flushAutomatically = true)
     @Query("UPDATE Race c SET c.organizer = :newOrganizer WHERE c.organizer = :oldOrganizer")
@@ -0,0 +1,56 @@
+package com.running.repository;
+
+import com.running.model.Race;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Filtros dinámicos sobre Race. Solo se emite un predicado por cada parámetro presente,
+ * de modo que MySQL recibe un WHERE simple y puede elegir índice (a diferencia del patrón
+ * "(:x IS NULL OR col = :x)").
+ */
+public final class RaceSpecifications {
+
+    private RaceSpecifications() {
+    }
+
+    public static Specification<Race> filter(String province,
+                                             Long typeId,
+                                             Long difficultyId,
+                                             LocalDateTime fechaDesde,
+                                             LocalDateTime fechaHasta,
+                                             Boolean finalizada,
+                                             LocalDateTime now) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (province != null) {
+                predicates.add(cb.equal(root.get("province"), province));
+            }
+            if (typeId != null) {
+                predicates.add(cb.equal(root.get("type").get("id_type"), typeId));
+            }
+            if (difficultyId != null) {
+                predicates.add(cb.equal(root.get("difficulty").get("iddifficulty"), difficultyId));
+            }
+            if (fechaDesde != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("date"), fechaDesde));
+            }
+            if (fechaHasta != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("date"), fechaHasta));
+            }
+            // finalizada se traduce a un rango simple sobre date
+            if (Boolean.TRUE.equals(finalizada)) {
+                predicates.add(cb.lessThan(root.get("date"), now));
+            } else if (Boolean.FALSE.equals(finalizada)) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("date"), now));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
@@ -3,10 +3,42 @@ package com.running.repository;
 import com.running.model.ReassignmentLog;
 import com.running.model.ReassignmentLog.EntityType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
 public interface ReassignmentLogRepository extends JpaRepository<ReassignmentLog, Long> {
+
+    // El email de origen se lee de la copia (from_user_email), no hace falta cargar fromUser
     List<ReassignmentLog> findByToUser_UIDAndEntityTypeOrderByCreatedAtDesc(
             String toUserUid, EntityType entityType);
+
+    // Un INSERT ... SELECT por tipo: se registran todas las entidades del usuario antes de reasignarlas,
+    // con su email y nombre copiados (from_user_id se pone a NULL al borrarlo)
+
+    @Modifying
+    @Query(value = """
+           INSERT INTO reassignment_log (entity_type, entity_id, from_user_id, to_user_id, from_user_email, from_user_name)
+           SELECT 'RACE', c.id, u.id, :toUserId, u.email, u.name
+           FROM race c JOIN `user` u ON u.id = :fromUserId
+           WHERE c.organizer_user_id = :fromUserId
+           """, nativeQuery = true)
+    int logRaceReassignments(@Param("fromUserId") Long fromUserId, @Param("toUserId") Long toUserId);
+
+    @Modifying
+    @Query(value = """
+           INSERT INTO reassignment_log (entity_type, entity_id, from_user_id, to_user_id, from_user_email, from_user_name)
+           SELECT 'CLUB', c.id, u.id, :toUserId, u.email, u.name
+           FROM club c JOIN `user` u ON u.id = :fromUserId
+           WHERE c.manager_user_id = :fromUserId
+           """, nativeQuery = true)
+    int logClubReassignments(@Param("fromUserId") Long fromUserId, @Param("toUserId") Long toUserId);
+
+    // from_user_id es opcional: el log sobrevive al usuario borrado (si no, la FK impide el DELETE);
+    // quién era queda en from_user_email / from_user_name
+    @Modifying
+    @Query(value = "UPDATE reassignment_log SET from_user_id = NULL WHERE from_user_id = :userId", nativeQuery = true)
+    int clearFromUser(@Param("userId") Long userId);
 }
@@ -1,8 +1,10 @@
 package com.running.repository;
 
+import com.running.model.MarcaDto;
 import com.running.model.ParticipantDto;
 import com.running.model.UserRace;
 import com.running.model.UserRaceId;
+import com.running.model.UserRaceResponseDto;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -25,6 +27,13 @@ public interface UserRaceRepository extends JpaRepository<UserRace, UserRaceId>
     // Pendientes de una carrera concreta
     List<UserRace> findByRace_IdAndStatus(Long raceId, String status);
 
+    // Primero de la lista de espera (por orden de inscripción)
+    Optional<UserRace> findFirstByRace_IdAndStatusOrderByRegistrationDateAsc(Long raceId, String status);
+
+    @Modifying
+    @Query("delete from UserRace ur where ur.user.id = :userId")
+    int deleteAllByUserId(@Param("userId") Long userId);
+
     @Modifying(clearAutomatically = true, flushAutomatically = true)
     @Query("""
            update UserRace ur
@@ -43,6 +52,27 @@ public interface UserRaceRepository extends JpaRepository<UserRace, UserRaceId>
            """)
     int cancelAllPendingByRace(@Param("raceId") Long raceId);
 
+    /**
+     * Cambia el estado solo si sigue siendo {@code fromStatus}. Devuelve las filas afectadas:
+     * con peticiones concurrentes solo una obtiene 1, y es la única que debe tocar el contador.
+     */
+    @Modifying
+    @Query("""
+           update UserRace ur
+              set ur.status = :toStatus
+            where ur.user.id = :userId
+              and ur.race.id = :raceId
+              and lower(ur.status) = :fromStatus
+           """)
+    int updateStatusIfCurrent(@Param("userId") Long userId,
+                              @Param("raceId") Long raceId,
+                              @Param("fromStatus") String fromStatus,
+                              @Param("toStatus") String toStatus);
+
+    /** Estado actual leído de la BD (no de la entidad en caché), tras un updateStatusIfCurrent que devolvió 0. */
+    @Query("select ur.status from UserRace ur where ur.user.id = :userId and ur.race.id = :raceId")
+    Optional<String> findStatusByUserIdAndRaceId(@Param("userId") Long userId, @Param("raceId") Long raceId);
+
     @Query("""
            SELECT new com.running.model.ParticipantDto(u.UID, u.name, u.email)
            FROM UserRace ur
@@ -57,6 +87,62 @@ public interface UserRaceRepository extends JpaRepository<UserRace, UserRaceId>
             @Param("status") String status
     );
 
+    // ---- Historial de inscripciones: una consulta, directamente al DTO ----
+
+    @Query("""
+           SELECT new com.running.model.UserRaceResponseDto(
+                  r.id, r.name, r.place, r.distance_km, r.date, ur.registrationDate, ur.status, r.photo)
+           FROM UserRace ur
+           JOIN ur.race r
+           JOIN ur.user u
+           WHERE u.UID = :uid
+           """)
+    List<UserRaceResponseDto> findResponseDtosByUserUid(@Param("uid") String uid);
+
+    @Query("""
+           SELECT new com.running.model.UserRaceResponseDto(
+                  r.id, r.name, r.place, r.distance_km, r.date, ur.registrationDate, ur.status, r.photo)
+           FROM UserRace ur
+           JOIN ur.race r
+           JOIN ur.user u
+           WHERE u.UID = :uid
+             AND ur.status = :status
+           """)
+    List<UserRaceResponseDto> findResponseDtosByUserUidAndStatus(@Param("uid") String uid,
+                                                                 @Param("status") String status);
+
+    @Query("""
+           SELECT new com.running.model.UserRaceResponseDto(
+                  r.id, r.name, r.place, r.distance_km, r.date, ur.registrationDate, ur.status, r.photo)
+           FROM UserRace ur
+           JOIN ur.race r
+           WHERE r.organizer.id = :organizerId
+             AND ur.status = :status
+           """)
+    List<UserRaceResponseDto> findResponseDtosByOrganizerIdAndStatus(@Param("organizerId") Long organizerId,
+                                                                     @Param("status") String status);
+
+    @Query("""
+           SELECT new com.running.model.UserRaceResponseDto(
+                  r.id, r.name, r.place, r.distance_km, r.date, ur.registrationDate, ur.status, r.photo)
+           FROM UserRace ur
+           JOIN ur.race r
+           WHERE r.id = :raceId
+             AND ur.status = :status
+           """)
+    List<UserRaceResponseDto> findResponseDtosByRaceIdAndStatus(@Param("raceId") Long raceId,
+                                                                @Param("status") String status);
+
+    @Query("""
+           SELECT new com.running.model.MarcaDto(r.id, r.date, ur.tiempo, ur.posicion, ur.comentarios, ur.pace)
+           FROM UserRace ur
+           JOIN ur.race r
+           JOIN ur.user u
+           WHERE u.UID = :uid
+             AND LOWER(ur.status) = 'confirmada'
+           """)
+    List<MarcaDto> findConfirmedMarcasByUserUid(@Param("uid") String uid);
+
     @Query("""
            SELECT ur FROM UserRace ur
            JOIN ur.user u
@@ -1,6 +1,9 @@
 package com.running.repository;
 
+import com.running.model.ClubMemberDto;
 import com.running.model.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -13,8 +16,11 @@ import java.util.Optional;
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUID(String uid);
+    @Query("select u from User u left join fetch u.role where u.UID = :uid")
+    Optional<User> findByUIDWithRole(@Param("uid") String uid);
     Optional<User> findByEmail(String email);
     boolean existsByIdAndRole_Name(Long id, String roleName);
+    @EntityGraph(attributePaths = "role")
     List<User> findByClubs_Id(Long clubId);
     // Buscar un usuario por primer rol disponible
     Optional<User> findFirstByRole_NameOrderByIdAsc(String roleName);
@@ -27,4 +33,43 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Modifying(clearAutomatically = true, flushAutomatically = true)
     @Query(value = "DELETE FROM user_club WHERE user_id = :userId", nativeQuery = true)
     void deleteAllClubsByUserId(@Param("userId") Long userId);
+
+    // ---- Miembros de un club: proyección (user_club + user + role) paginada por cursor sobre (name, id) ----
+    // prefix es "<texto>%" ("%" = todos). Las filas se buscan por idx_user_club_club_user y el orden se
+    // resuelve sobre los miembros del club; COALESCE para que los usuarios sin nombre también paginen.
+
+    @Query("""
+           SELECT new com.running.model.ClubMemberDto(u.id, u.UID, u.name, u.surname, u.email, r.name)
+           FROM User u
+           JOIN u.clubs c
+           LEFT JOIN u.role r
+           WHERE c.id = :clubId
+             AND COALESCE(u.name, '') LIKE :prefix ESCAPE '!'
+           ORDER BY COALESCE(u.name, '') ASC, u.id ASC
+           """)
+    List<ClubMemberDto> findClubMembersFirstPage(@Param("clubId") Long clubId,
+                                                 @Param("prefix") String prefix,
+                                                 Pageable pageable);
+
+    @Query("""
+           SELECT new com.running.model.ClubMemberDto(u.id, u.UID, u.name, u.surname, u.email, r.name)
+           FROM User u
+           JOIN u.clubs c
+           LEFT JOIN u.role r
+           WHERE c.id = :clubId
+             AND COALESCE(u.name, '') LIKE :prefix ESCAPE '!'
+             AND (COALESCE(u.name, '') > :afterName
+                  OR (COALESCE(u.name, '') = :afterName AND u.id > :afterId))
+           ORDER BY COALESCE(u.name, '') ASC, u.id ASC
+           """)
+    List<ClubMemberDto> findClubMembersAfter(@Param("clubId") Long clubId,
+                                             @Param("prefix") String prefix,
+                                             @Param("afterName") String afterName,
+                                             @Param("afterId") Long afterId,
+                                             Pageable pageable);
+
+    // Borrado directo de la fila (las tablas hijas ya se han limpiado con sentencias en bloque)
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("delete from User u where u.id = :id")
+    int deleteRowById(@Param("id") Long id);
 }
\ No newline at end of file
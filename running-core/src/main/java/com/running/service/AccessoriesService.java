@@ -41,7 +41,7 @@ public class AccessoriesService {
 
         try {
             Accessories saved = repository.save(entity);
-            return toDto(saved);
+            return AccessoriesDto.from(saved);
         } catch (DataIntegrityViolationException e) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Ya existe un accesorio con ese título", e);
         }
@@ -79,7 +79,7 @@ public class AccessoriesService {
 
         try {
             Accessories saved = repository.save(acc);
-            return toDto(saved);
+            return AccessoriesDto.from(saved);
         } catch (DataIntegrityViolationException e) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Ya existe un accesorio con ese título", e);
         }
@@ -93,19 +93,6 @@ public class AccessoriesService {
 
     // === Mappers ===
 
-    private AccessoriesDto toDto(Accessories a) {
-        return AccessoriesDto.builder()
-                .id(a.getId())
-                .title(a.getTitle())
-                .description(a.getDescription())
-                .photo(a.getPhoto())
-                .features(a.getFeatures())
-                .brands(a.getBrands() != null
-                        ? a.getBrands().stream().map(this::toBrandDto).collect(Collectors.toList())
-                        : null)
-                .build();
-    }
-
     private Brand toBrand(BrandDto dto) {
         return Brand.builder()
                 .name(dto.getName())
@@ -113,12 +100,4 @@ public class AccessoriesService {
                 .url(dto.getUrl())
                 .build();
     }
-
-    private BrandDto toBrandDto(Brand brand) {
-        return BrandDto.builder()
-                .name(brand.getName())
-                .img(brand.getImg())
-                .url(brand.getUrl())
-                .build();
-    }
 }
@@ -0,0 +1,20 @@
+package com.running.service;
+
+/**
+ * Nombres de las cachés en memoria (Caffeine). Deben coincidir con spring.cache.cache-names
+ * para que Actuator publique sus métricas de aciertos/fallos desde el arranque.
+ */
+public final class CacheNames {
+
+    public static final String TYPES = "types";
+    public static final String TYPE_BY_ID = "typeById";
+    public static final String DIFFICULTIES = "difficulties";
+    public static final String DIFFICULTY_BY_ID = "difficultyById";
+    public static final String ROLE_NAMES = "roleNames";
+    public static final String CAROUSEL = "carousel";
+    /** UID → nombre de rol, con TTL corto (ver CacheConfig). */
+    public static final String USER_ROLES = "userRoles";
+
+    private CacheNames() {
+    }
+}
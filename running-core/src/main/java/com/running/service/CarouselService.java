@@ -2,10 +2,10 @@ package com.running.service;
 
 import com.running.model.CarouselItem;
 import com.running.model.CarouselItemDto;
-import com.running.model.User;
 import com.running.repository.CarouselRepository;
-import com.running.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
@@ -17,22 +17,19 @@ import java.util.List;
 public class CarouselService {
 
     private final CarouselRepository carouselRepository;
-    private final UserRepository userRepository;
+    private final UserPrincipalResolver principals;
 
     /* ======= Auth helpers ======= */
-    private boolean isAdmin(User u) {
-        return userRepository.existsByIdAndRole_Name(u.getId(), "admin")
-                || userRepository.existsByIdAndRole_Name(u.getId(), "administrator");
-    }
-
-    private User requireAdmin(String uid) {
-        User u = userRepository.findByUID(uid)
+    private void requireAdmin(String uid) {
+        String role = principals.findRoleByUid(uid)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found by uid"));
-        if (!isAdmin(u)) throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Only admin can manage carousel");
-        return u;
+        if (!principals.hasAnyRole(role, "admin", "administrator")) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Only admin can manage carousel");
+        }
     }
 
     /* ======= Read ======= */
+    @Cacheable(CacheNames.CAROUSEL)
     public List<CarouselItem> findAll() {
         return carouselRepository.findAll();
     }
@@ -43,6 +40,7 @@ public class CarouselService {
     }
 
     /* ======= Create ======= */
+    @CacheEvict(cacheNames = CacheNames.CAROUSEL, allEntries = true)
     public CarouselItem create(String uid, CarouselItemDto dto) {
         requireAdmin(uid);
         String photo = sanitize(dto.getPhoto());
@@ -59,6 +57,7 @@ public class CarouselService {
     }
 
     /* ======= Update ======= */
+    @CacheEvict(cacheNames = CacheNames.CAROUSEL, allEntries = true)
     public CarouselItem update(String uid, Long id, CarouselItemDto dto) {
         requireAdmin(uid);
         CarouselItem item = findById(id);
@@ -76,6 +75,7 @@ public class CarouselService {
     }
 
     /* ======= Delete ======= */
+    @CacheEvict(cacheNames = CacheNames.CAROUSEL, allEntries = true)
     public void delete(String uid, Long id) {
         requireAdmin(uid);
         CarouselItem item = findById(id);
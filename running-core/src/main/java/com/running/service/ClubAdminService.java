@@ -4,7 +4,6 @@ import com.running.model.Club;
 import com.running.model.ClubDto;
 import com.running.model.User;
 import com.running.repository.ClubRepository;
-import com.running.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
@@ -19,16 +18,13 @@ import java.util.List;
 public class ClubAdminService {
 
     private final ClubRepository clubRepository;
-    private final UserRepository userRepository;
-
-    private boolean isAdmin(User u) {
-        return userRepository.existsByIdAndRole_Name(u.getId(), "admin");
-    }
+    private final UserPrincipalResolver principals;
+    private final MunicipalityGeocoder geocoder;
 
     private User requireClubAdminByUid(String uid) {
-        User u = userRepository.findByUID(uid)
+        User u = principals.findByUid(uid)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found by uid"));
-        boolean ok = isAdmin(u) || userRepository.existsByIdAndRole_Name(u.getId(), "club-administrator");
+        boolean ok = principals.hasAnyRole(u, "admin", "club-administrator");
         if (!ok) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "User is not admin nor club-administrator");
         }
@@ -44,6 +40,8 @@ public class ClubAdminService {
                 .place(c.getPlace())
                 .members(c.getMembers())
                 .contact(c.getContact())
+                .latitude(c.getLatitude())
+                .longitude(c.getLongitude())
                 .joined(joinedFlag)
                 .build();
     }
@@ -71,10 +69,11 @@ public class ClubAdminService {
                 .province(dto.getProvince())
                 .place(dto.getPlace())
                 .photo(dto.getPhoto())
-                .members(dto.getMembers())
+                .members(0) // lo mantienen joinClub/leaveClub y ClubMembersReconciler, nunca el DTO
                 .contact(dto.getContact())
                 .manager(me)
                 .build();
+        geocoder.geocode(c);
 
         try {
             return toDto(clubRepository.save(c), false);
@@ -106,8 +105,8 @@ public class ClubAdminService {
         if (dto.getProvince() != null) c.setProvince(dto.getProvince());
         if (dto.getPlace() != null) c.setPlace(dto.getPlace());
         if (dto.getPhoto() != null) c.setPhoto(dto.getPhoto());
-        if (dto.getMembers() != null) c.setMembers(dto.getMembers());
         if (dto.getContact() != null) c.setContact(dto.getContact());
+        if (dto.getPlace() != null || dto.getProvince() != null) geocoder.geocode(c);
 
         try {
             return toDto(clubRepository.save(c), false);
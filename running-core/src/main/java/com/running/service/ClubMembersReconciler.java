@@ -0,0 +1,86 @@
+package com.running.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Corrige club.members con el número real de filas de user_club. Los listados siguen leyendo la
+ * columna (barata); los incrementos de joinClub/leaveClub la mantienen al día y esto arregla lo que
+ * se haya desviado (borrados a mano, importaciones, fallos a mitad).
+ * <ul>
+ *   <li>Una sola consulta agrupada (club LEFT JOIN user_club, índice idx_user_club_club_user).</li>
+ *   <li>Solo se actualizan los clubs desviados, por lotes JDBC.</li>
+ *   <li>Cada UPDATE exige que members siga valiendo lo que se leyó: si un join/leave lo ha movido
+ *       entre medias, ese club se deja para la siguiente pasada en vez de pisar el incremento.</li>
+ * </ul>
+ */
+@Component
+public class ClubMembersReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(ClubMembersReconciler.class);
+
+    private static final String COUNT_SQL = """
+            SELECT c.id, c.members, COUNT(uc.user_id) AS actual
+            FROM club c
+            LEFT JOIN user_club uc ON uc.club_id = c.id
+            GROUP BY c.id, c.members
+            """;
+    private static final String FIX_SQL =
+            "UPDATE club SET members = :actual WHERE id = :id AND COALESCE(members, -1) = :seen";
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final int batchSize;
+
+    public ClubMembersReconciler(NamedParameterJdbcTemplate jdbc,
+                                 @Value("${running.club-members.reconcile.batch-size:500}") int batchSize) {
+        this.jdbc = jdbc;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * clubs: revisados; drifted: con members desviado; fixed: corregidos en esta pasada;
+     * drift: suma de |members - filas de user_club| de los desviados.
+     */
+    public record Result(int clubs, int drifted, int fixed, long drift) {
+    }
+
+    public Result reconcile() {
+        List<MapSqlParameterSource> fixes = new ArrayList<>();
+        long[] drift = {0};
+        int[] clubs = {0};
+        jdbc.query(COUNT_SQL, rs -> {
+            clubs[0]++;
+            long id = rs.getLong("id");
+            int stored = rs.getInt("members");
+            boolean isNull = rs.wasNull();
+            int actual = rs.getInt("actual");
+            if (isNull || stored != actual) {
+                drift[0] += isNull ? actual : Math.abs(stored - actual);
+                fixes.add(new MapSqlParameterSource()
+                        .addValue("id", id)
+                        .addValue("actual", actual)
+                        .addValue("seen", isNull ? -1 : stored));
+            }
+        });
+
+        int fixed = 0;
+        for (int from = 0; from < fixes.size(); from += batchSize) {
+            List<MapSqlParameterSource> chunk = fixes.subList(from, Math.min(from + batchSize, fixes.size()));
+            for (int updated : jdbc.batchUpdate(FIX_SQL, chunk.toArray(new MapSqlParameterSource[0]))) {
+                // rewriteBatchedStatements puede devolver SUCCESS_NO_INFO (-2): se cuenta como hecho
+                if (updated != 0) fixed++;
+            }
+        }
+        if (!fixes.isEmpty()) {
+            log.warn("club_members_drift clubs={} fixed={} drift={}", fixes.size(), fixed, drift[0]);
+        }
+        return new Result(clubs[0], fixes.size(), fixed, drift[0]);
+    }
+}
@@ -5,11 +5,16 @@ import com.running.repository.ClubRepository;
 import com.running.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -19,12 +24,16 @@ import java.util.stream.Collectors;
 public class ClubService {
 
     private static final String CLUB_ADMIN_ROLE = "club-administrator";
+    private static final int MEMBERS_DEFAULT_SIZE = 50;
+    private static final int MEMBERS_MAX_SIZE = 200;
 
     private final ClubRepository clubRepository;
     private final UserRepository userRepository;
+    private final UserPrincipalResolver principals;
+    private final MunicipalityGeocoder geocoder;
 
     private boolean isAdmin(User u) {
-        return userRepository.existsByIdAndRole_Name(u.getId(), "admin");
+        return principals.hasAnyRole(u, "admin");
     }
 
     @Transactional(readOnly = true)
@@ -35,7 +44,7 @@ public class ClubService {
 
         return clubs.stream()
                 .filter(club -> !"default".equalsIgnoreCase(club.getName()))
-                .map(c -> toClubDto(c, false))
+                .map(c -> ClubDto.from(c, false))
                 .collect(Collectors.toList());
     }
 
@@ -48,7 +57,7 @@ public class ClubService {
 
         return user.getClubs().stream()
                 .filter(c -> !"default".equalsIgnoreCase(c.getName()))
-                .map(c -> toClubDto(c, true))
+                .map(c -> ClubDto.from(c, true))
                 .collect(Collectors.toList());
     }
 
@@ -65,21 +74,52 @@ public class ClubService {
             }
         }
 
-        return toClubDto(club, joined);
+        return ClubDto.from(club, joined);
     }
 
+    /**
+     * Todos los miembros, ordenados por nombre. Usa la misma proyección que getMembersPage en vez
+     * de cargar cada User con su rol y sus clubs.
+     */
     @Transactional(readOnly = true)
     public List<UserDto> getUsersByClub(Long clubId) {
-        clubRepository.findById(clubId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Club no encontrado"));
-
-        List<User> users = userRepository.findByClubs_Id(clubId);
+        if (!clubRepository.existsById(clubId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Club no encontrado");
+        }
 
-        return users.stream()
+        return userRepository.findClubMembersFirstPage(clubId, "%", Pageable.unpaged()).stream()
                 .map(this::toUserDto)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Miembros paginados por cursor (keyset sobre name,id), opcionalmente filtrados por prefijo
+     * del nombre. Cada página es una sola consulta de proyección y no comprueba que el club exista:
+     * un club inexistente devuelve una página vacía.
+     */
+    @Transactional(readOnly = true)
+    public ClubMemberPageDto getMembersPage(Long clubId, String q, String cursor, Integer size) {
+        int limit = (size == null || size <= 0) ? MEMBERS_DEFAULT_SIZE : Math.min(size, MEMBERS_MAX_SIZE);
+        // Pedimos una fila de más para saber si existe página siguiente
+        PageRequest page = PageRequest.of(0, limit + 1);
+        String prefix = (q == null || q.isBlank()) ? "%" : escapeLike(q.trim()) + "%";
+
+        List<ClubMemberDto> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = userRepository.findClubMembersFirstPage(clubId, prefix, page);
+        } else {
+            MemberCursor after = decodeMemberCursor(cursor);
+            rows = userRepository.findClubMembersAfter(clubId, prefix, after.name(), after.id(), page);
+        }
+
+        if (rows.size() <= limit) {
+            return new ClubMemberPageDto(rows, null);
+        }
+        List<ClubMemberDto> items = new ArrayList<>(rows.subList(0, limit));
+        ClubMemberDto last = items.get(limit - 1);
+        return new ClubMemberPageDto(items, encodeMemberCursor(last.getName(), last.getId()));
+    }
+
     @Transactional(readOnly = true)
     public AdminClubDto getManagerOfClub(Long clubId) {
         Club club = clubRepository.findByIdWithManager(clubId)
@@ -111,10 +151,11 @@ public class ClubService {
         if (data.getProvince() != null) club.setProvince(data.getProvince());
         if (data.getPhoto() != null) club.setPhoto(data.getPhoto());
         if (data.getContact() != null) club.setContact(data.getContact());
+        if (data.getPlace() != null || data.getProvince() != null) geocoder.geocode(club);
 
         try {
             Club saved = clubRepository.save(club);
-            return toClubDto(saved, false);
+            return ClubDto.from(saved, false);
         } catch (DataIntegrityViolationException ex) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Ya existe un club con ese nombre", ex);
         }
@@ -147,26 +188,38 @@ public class ClubService {
 
     // ===== Helpers =====
 
-    private UserDto toUserDto(User u) {
+    private UserDto toUserDto(ClubMemberDto m) {
         UserDto dto = new UserDto();
-        dto.setEmail(u.getEmail());
-        dto.setName(u.getName());
-        dto.setSurname(u.getSurname());
-        dto.setUid(u.getUID());
-        dto.setRole(u.getRole() != null ? u.getRole().getName() : null);
+        dto.setEmail(m.getEmail());
+        dto.setName(m.getName());
+        dto.setSurname(m.getSurname());
+        dto.setUid(m.getUid());
+        dto.setRole(m.getRole());
         return dto;
     }
 
-    private ClubDto toClubDto(Club c, boolean joined) {
-        return ClubDto.builder()
-                .id(c.getId())
-                .name(c.getName())
-                .province(c.getProvince())
-                .photo(c.getPhoto())
-                .place(c.getPlace())
-                .members(c.getMembers())
-                .contact(c.getContact())
-                .joined(joined)
-                .build();
+    private record MemberCursor(String name, Long id) {
+    }
+
+    // El nombre puede contener '|': el id va tras el último
+    private String encodeMemberCursor(String name, Long id) {
+        String raw = (name == null ? "" : name) + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private MemberCursor decodeMemberCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf('|');
+            if (sep < 0) throw new IllegalArgumentException("cursor");
+            return new MemberCursor(raw.substring(0, sep), Long.parseLong(raw.substring(sep + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor inválido");
+        }
+    }
+
+    /** Escapa los comodines de LIKE con '!' (ESCAPE '!' en la consulta). */
+    static String escapeLike(String text) {
+        return text.replace("!", "!!").replace("%", "!%").replace("_", "!_");
     }
 }
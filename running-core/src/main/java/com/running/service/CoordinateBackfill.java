@@ -0,0 +1,67 @@
+package com.running.service;
+
+import com.running.model.GeoPoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Al arrancar rellena latitude/longitude de las carreras y clubs que aún no las tienen (filas
+ * anteriores a V4 o de municipios que se han añadido después a la tabla). Va antes que
+ * {@link RaceIndexUpdater#rebuildAll()} para que el índice geográfico ya cargue las coordenadas.
+ * Las filas que no se pueden geocodificar (lugar que no está en la tabla) se quedan a null, fuera de
+ * /api/races/near, y se reintentan en el siguiente arranque.
+ */
+@Component
+public class CoordinateBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(CoordinateBackfill.class);
+    private static final int BATCH = 1000;
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final MunicipalityGeocoder geocoder;
+
+    public CoordinateBackfill(NamedParameterJdbcTemplate jdbc, MunicipalityGeocoder geocoder) {
+        this.jdbc = jdbc;
+        this.geocoder = geocoder;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void backfill() {
+        int races = backfill("race");
+        int clubs = backfill("club");
+        if (races + clubs > 0) {
+            log.info("Coordenadas rellenadas: {} carreras, {} clubs", races, clubs);
+        }
+    }
+
+    /** table es "race" o "club" (constantes de backfill()), nunca un dato de entrada. */
+    private int backfill(String table) {
+        List<MapSqlParameterSource> updates = new ArrayList<>();
+        jdbc.query("SELECT id, place, province FROM " + table + " WHERE latitude IS NULL", rs -> {
+            long id = rs.getLong("id");
+            Optional<GeoPoint> point = geocoder.locate(rs.getString("place"), rs.getString("province"));
+            point.ifPresent(p -> updates.add(new MapSqlParameterSource()
+                    .addValue("id", id)
+                    .addValue("lat", p.latitude())
+                    .addValue("lon", p.longitude())));
+        });
+        String sql = "UPDATE " + table + " SET latitude = :lat, longitude = :lon WHERE id = :id AND latitude IS NULL";
+        for (int from = 0; from < updates.size(); from += BATCH) {
+            List<MapSqlParameterSource> chunk = updates.subList(from, Math.min(from + BATCH, updates.size()));
+            jdbc.batchUpdate(sql, chunk.toArray(new MapSqlParameterSource[0]));
+        }
+        return updates.size();
+    }
+}
@@ -4,6 +4,9 @@ import com.running.model.Difficulty;
 import com.running.model.DifficultyDto;
 import com.running.repository.DifficultyRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 import java.util.List;
 import java.util.Optional;
@@ -14,6 +17,10 @@ public class DifficultyService {
 
     private final DifficultyRepository difficultyRepository;
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheNames.DIFFICULTIES, allEntries = true),
+            @CacheEvict(cacheNames = CacheNames.DIFFICULTY_BY_ID, allEntries = true)
+    })
     public Difficulty save(DifficultyDto dto) {
         Difficulty difficulty = Difficulty.builder()
                 .name(dto.getName())
@@ -21,10 +28,12 @@ public class DifficultyService {
         return difficultyRepository.save(difficulty);
     }
 
+    @Cacheable(CacheNames.DIFFICULTIES)
     public List<Difficulty> findAll() {
         return difficultyRepository.findAll();
     }
 
+    @Cacheable(CacheNames.DIFFICULTY_BY_ID)
     public Optional<Difficulty> findById(Long id) {
         return difficultyRepository.findById(id);
     }
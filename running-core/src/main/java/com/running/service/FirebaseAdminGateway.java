@@ -0,0 +1,49 @@
+package com.running.service;
+
+import com.google.firebase.ErrorCode;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseAuthException;
+import com.google.firebase.auth.UserRecord;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * {@link FirebaseGateway} sobre el SDK de Firebase Admin (inicializado en FirebaseAdminConfig).
+ * Llamadas síncronas y sin límite de tiempo: en la aplicación se usa siempre detrás de
+ * {@link GuardedFirebaseGateway}.
+ */
+public class FirebaseAdminGateway implements FirebaseGateway {
+
+    // Errores del proveedor (no del usuario): cuentan para el circuito y se pueden reintentar
+    private static final Set<ErrorCode> UNAVAILABLE = EnumSet.of(
+            ErrorCode.UNAVAILABLE, ErrorCode.DEADLINE_EXCEEDED, ErrorCode.INTERNAL, ErrorCode.UNKNOWN);
+
+    @Override
+    public String createUser(String email, String password, String displayName) {
+        UserRecord.CreateRequest request = new UserRecord.CreateRequest()
+                .setEmail(email)
+                .setPassword(password)
+                .setDisplayName(displayName);
+        try {
+            return FirebaseAuth.getInstance().createUser(request).getUid();
+        } catch (FirebaseAuthException e) {
+            throw translate(e);
+        }
+    }
+
+    @Override
+    public void deleteUser(String uid) {
+        try {
+            FirebaseAuth.getInstance().deleteUser(uid);
+        } catch (FirebaseAuthException e) {
+            throw translate(e);
+        }
+    }
+
+    private static FirebaseGatewayException translate(FirebaseAuthException e) {
+        return UNAVAILABLE.contains(e.getErrorCode())
+                ? new FirebaseUnavailableException(e.getMessage(), e)
+                : new FirebaseGatewayException(e.getMessage(), e);
+    }
+}
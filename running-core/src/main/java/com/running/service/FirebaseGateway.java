@@ -0,0 +1,39 @@
+package com.running.service;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Operaciones sobre cuentas de Firebase Authentication que usa la aplicación.
+ * Separado de {@code FirebaseAuth} para poder sustituirlo en local y en tests
+ * ({@code running.firebase.mode=fake}).
+ */
+public interface FirebaseGateway {
+
+    /** Crea la cuenta y devuelve su UID. */
+    String createUser(String email, String password, String displayName);
+
+    /**
+     * Igual que {@link #createUser} pero sin bloquear al llamante, para altas en paralelo
+     * (importación masiva). Los errores llegan en el future. Por defecto, llamada síncrona.
+     */
+    default CompletableFuture<String> createUserAsync(String email, String password, String displayName) {
+        try {
+            return CompletableFuture.completedFuture(createUser(email, password, displayName));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    void deleteUser(String uid);
+
+    /**
+     * Borrado que no puede fallar la petición (p. ej. tras el commit): no bloquea al llamante
+     * y se reintenta en segundo plano. Por defecto, borrado directo ignorando errores.
+     */
+    default void deleteUserEventually(String uid) {
+        try {
+            deleteUser(uid);
+        } catch (FirebaseGatewayException ignored) {
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.running.service;
+
+/** Error devuelto por Firebase (el mensaje es el de Firebase). */
+public class FirebaseGatewayException extends RuntimeException {
+
+    public FirebaseGatewayException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
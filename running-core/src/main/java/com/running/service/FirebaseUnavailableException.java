@@ -0,0 +1,13 @@
+package com.running.service;
+
+/** Firebase no responde a tiempo, está saturado o el circuito está abierto: conviene reintentar más tarde. */
+public class FirebaseUnavailableException extends FirebaseGatewayException {
+
+    public FirebaseUnavailableException(String message) {
+        super(message, null);
+    }
+
+    public FirebaseUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,278 @@
+package com.running.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Protege a los hilos de Tomcat de un Firebase lento:
+ * <ul>
+ *   <li>Las llamadas se ejecutan en un pool propio y acotado (hilos + cola); si está lleno se
+ *       responde al momento con {@link FirebaseUnavailableException}.</li>
+ *   <li>Cada llamada espera como mucho {@code timeout}.</li>
+ *   <li>Circuito: tras {@code failureThreshold} fallos seguidos del proveedor (timeouts, 5xx) se deja
+ *       de llamar durante {@code openDuration}; después se deja pasar una llamada de prueba.</li>
+ *   <li>{@link #deleteUserEventually} no bloquea y reintenta con backoff exponencial.</li>
+ *   <li>Si un createUser termina en Firebase después de que el llamante se haya ido por timeout,
+ *       la cuenta se borra con {@link #deleteUserEventually}: nadie va a crear su fila en BD y,
+ *       si se quedara, ese email ya no podría registrarse.</li>
+ *   <li>{@link #createUserAsync} pasa por el mismo pool, timeout y circuito sin ocupar un hilo del
+ *       llamante: la importación masiva no necesita un pool propio delante de este.</li>
+ * </ul>
+ * Los errores de negocio (email repetido, UID inexistente...) se propagan tal cual y no abren el circuito.
+ */
+public class GuardedFirebaseGateway implements FirebaseGateway {
+
+    private static final Logger log = LoggerFactory.getLogger(GuardedFirebaseGateway.class);
+
+    private final FirebaseGateway delegate;
+    private final Duration timeout;
+    private final CircuitBreaker breaker;
+    private final int maxRetries;
+    private final Duration initialBackoff;
+
+    private final ThreadPoolExecutor executor;
+    /** Reintentos de borrado y vencimiento de los timeouts. */
+    private final ScheduledThreadPoolExecutor retries;
+
+    public GuardedFirebaseGateway(FirebaseGateway delegate,
+                                  int poolSize,
+                                  int queueCapacity,
+                                  Duration timeout,
+                                  int failureThreshold,
+                                  Duration openDuration,
+                                  int maxRetries,
+                                  Duration initialBackoff) {
+        this.delegate = delegate;
+        this.timeout = timeout;
+        this.breaker = new CircuitBreaker(failureThreshold, openDuration.toMillis());
+        this.maxRetries = maxRetries;
+        this.initialBackoff = initialBackoff;
+
+        AtomicInteger n = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+            Thread t = new Thread(r, "firebase-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+        this.retries = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "firebase-retry");
+            t.setDaemon(true);
+            return t;
+        });
+        // Los timeouts de las llamadas que terminan a tiempo se cancelan: que no se acumulen en la cola
+        this.retries.setRemoveOnCancelPolicy(true);
+    }
+
+    @Override
+    public String createUser(String email, String password, String displayName) {
+        return call(() -> delegate.createUser(email, password, displayName), this::deleteLateAccount);
+    }
+
+    @Override
+    public CompletableFuture<String> createUserAsync(String email, String password, String displayName) {
+        return submit(() -> delegate.createUser(email, password, displayName), this::deleteLateAccount).result;
+    }
+
+    @Override
+    public void deleteUser(String uid) {
+        call(() -> {
+            delegate.deleteUser(uid);
+            return null;
+        });
+    }
+
+    @Override
+    public void deleteUserEventually(String uid) {
+        retries.execute(() -> attemptDelete(uid, 1));
+    }
+
+    public void shutdown() {
+        retries.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    /** closed | open | half_open, para health/métricas. */
+    public String circuitState() {
+        return breaker.state();
+    }
+
+    // ---- Helpers ----
+
+    /** Sin bloquear: este hilo es también el que vence los timeouts. */
+    private void attemptDelete(String uid, int attempt) {
+        submit(() -> {
+            delegate.deleteUser(uid);
+            return null;
+        }, null).result.whenComplete((v, error) -> {
+            if (!(error instanceof FirebaseUnavailableException)) {
+                // Hecho, o error de negocio (p. ej. ya no existe): no tiene sentido reintentar
+                return;
+            }
+            if (attempt >= maxRetries) {
+                log.warn("No se pudo borrar el usuario {} de Firebase tras {} intentos: {}", uid, attempt, error.getMessage());
+                return;
+            }
+            long delay = initialBackoff.toMillis() << (attempt - 1);
+            retries.schedule(() -> attemptDelete(uid, attempt + 1), delay, TimeUnit.MILLISECONDS);
+        });
+    }
+
+    private void deleteLateAccount(String uid) {
+        log.warn("Firebase creó la cuenta {} después del timeout; se borra", uid);
+        deleteUserEventually(uid);
+    }
+
+    private <T> T call(Callable<T> action) {
+        return call(action, null);
+    }
+
+    private <T> T call(Callable<T> action, Consumer<T> onLateResult) {
+        Pending<T> pending = submit(action, onLateResult);
+        try {
+            return pending.result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (pending.settled.compareAndSet(false, true)) {
+                breaker.release();
+                pending.result.cancel(false);
+            } else if (onLateResult != null) {
+                // El resultado estaba llegando: no lo vamos a devolver
+                pending.result.thenAccept(onLateResult);
+            }
+            throw new FirebaseUnavailableException("Llamada a Firebase interrumpida", e);
+        } catch (ExecutionException e) {
+            throw (RuntimeException) e.getCause();
+        }
+    }
+
+    /**
+     * Lanza la llamada en el pool. El future se completa con el resultado, con
+     * {@link FirebaseUnavailableException} (circuito abierto, pool lleno, timeout, fallo del
+     * proveedor) o con {@link FirebaseGatewayException} (error de negocio).
+     * <p>
+     * Quien pone settled a true se queda la llamada: la tarea (a tiempo), el timeout o el llamante
+     * que se interrumpe. onLateResult recibe lo que la tarea obtiene cuando ya nadie lo espera; si
+     * se indica, la tarea en curso no se interrumpe al vencer el timeout (interrumpirla dejaría sin
+     * saber si Firebase llegó a hacerlo), solo se descarta si aún estaba en cola.
+     */
+    private <T> Pending<T> submit(Callable<T> action, Consumer<T> onLateResult) {
+        Pending<T> pending = new Pending<>();
+        if (!breaker.allowRequest()) {
+            pending.settled.set(true);
+            pending.result.completeExceptionally(new FirebaseUnavailableException("Firebase no disponible temporalmente"));
+            return pending;
+        }
+
+        Future<?> running;
+        try {
+            running = executor.submit(() -> {
+                try {
+                    T value = action.call();
+                    if (pending.settled.compareAndSet(false, true)) {
+                        breaker.onSuccess();
+                        pending.result.complete(value);
+                    } else if (onLateResult != null) {
+                        onLateResult.accept(value);
+                    }
+                } catch (Throwable t) {
+                    RuntimeException error = classify(t);
+                    if (pending.settled.compareAndSet(false, true)) {
+                        // Un error de negocio es una respuesta del proveedor: para el circuito es un éxito
+                        if (error instanceof FirebaseUnavailableException) breaker.onFailure();
+                        else breaker.onSuccess();
+                        pending.result.completeExceptionally(error);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            breaker.release();
+            pending.settled.set(true);
+            pending.result.completeExceptionally(new FirebaseUnavailableException("Demasiadas llamadas a Firebase en curso", e));
+            return pending;
+        }
+
+        ScheduledFuture<?> expiry = retries.schedule(() -> {
+            if (pending.settled.compareAndSet(false, true)) {
+                running.cancel(onLateResult == null);
+                breaker.onFailure();
+                pending.result.completeExceptionally(
+                        new FirebaseUnavailableException("Firebase no respondió en " + timeout.toMillis() + " ms"));
+            }
+        }, timeout.toMillis(), TimeUnit.MILLISECONDS);
+        pending.result.whenComplete((v, e) -> expiry.cancel(false));
+        return pending;
+    }
+
+    private static RuntimeException classify(Throwable t) {
+        if (t instanceof FirebaseGatewayException gatewayError) return gatewayError;
+        return new FirebaseGatewayException(t.getMessage(), t);
+    }
+
+    private static final class Pending<T> {
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final AtomicBoolean settled = new AtomicBoolean();
+    }
+
+    /** Circuito por fallos consecutivos; en semiabierto solo pasa una llamada de prueba a la vez. */
+    static final class CircuitBreaker {
+
+        private final int failureThreshold;
+        private final long openMillis;
+
+        private int consecutiveFailures;
+        private long openUntil;
+        private boolean trialInFlight;
+
+        CircuitBreaker(int failureThreshold, long openMillis) {
+            this.failureThreshold = failureThreshold;
+            this.openMillis = openMillis;
+        }
+
+        synchronized boolean allowRequest() {
+            if (consecutiveFailures < failureThreshold) return true;
+            if (System.currentTimeMillis() < openUntil || trialInFlight) return false;
+            trialInFlight = true;
+            return true;
+        }
+
+        synchronized void onSuccess() {
+            consecutiveFailures = 0;
+            trialInFlight = false;
+        }
+
+        synchronized void onFailure() {
+            consecutiveFailures++;
+            trialInFlight = false;
+            if (consecutiveFailures >= failureThreshold) {
+                openUntil = System.currentTimeMillis() + openMillis;
+            }
+        }
+
+        /** La llamada no llegó a Firebase: no cuenta ni como éxito ni como fallo. */
+        synchronized void release() {
+            trialInFlight = false;
+        }
+
+        synchronized String state() {
+            if (consecutiveFailures < failureThreshold) return "closed";
+            return System.currentTimeMillis() < openUntil ? "open" : "half_open";
+        }
+    }
+}
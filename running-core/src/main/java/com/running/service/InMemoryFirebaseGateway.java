@@ -0,0 +1,48 @@
+package com.running.service;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Firebase en memoria para desarrollo local y tests ({@code running.firebase.mode=fake}):
+ * mismas reglas básicas que el real (email único, UID existente al borrar).
+ */
+public class InMemoryFirebaseGateway implements FirebaseGateway {
+
+    private final Map<String, String> emailByUid = new ConcurrentHashMap<>();
+    private final Map<String, String> uidByEmail = new ConcurrentHashMap<>();
+
+    @Override
+    public String createUser(String email, String password, String displayName) {
+        if (email == null || email.isBlank()) {
+            throw new FirebaseGatewayException("Email obligatorio", null);
+        }
+        if (password == null || password.length() < 6) {
+            throw new FirebaseGatewayException("La contraseña debe tener al menos 6 caracteres", null);
+        }
+        String uid = "fake-" + UUID.randomUUID();
+        if (uidByEmail.putIfAbsent(email.toLowerCase(), uid) != null) {
+            throw new FirebaseGatewayException("The user with the provided email already exists (EMAIL_EXISTS)", null);
+        }
+        emailByUid.put(uid, email.toLowerCase());
+        return uid;
+    }
+
+    @Override
+    public void deleteUser(String uid) {
+        String email = emailByUid.remove(uid);
+        if (email == null) {
+            throw new FirebaseGatewayException("No user record found for the provided user ID: " + uid, null);
+        }
+        uidByEmail.remove(email, uid);
+    }
+
+    public boolean exists(String uid) {
+        return emailByUid.containsKey(uid);
+    }
+
+    public int size() {
+        return emailByUid.size();
+    }
+}
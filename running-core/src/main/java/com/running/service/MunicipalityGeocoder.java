@@ -0,0 +1,152 @@
+package com.running.service;
+
+import com.running.model.Club;
+import com.running.model.GeoPoint;
+import com.running.model.Race;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Geocodificación offline de place/province con la tabla de municipios de {@code geo/municipios.csv}
+ * (sin llamadas a servicios externos). Orden de búsqueda:
+ * <ol>
+ *   <li>municipio dentro de la provincia ("Aracena", "Huelva"); también "Aracena (Huelva)" o "Aracena, Huelva";</li>
+ *   <li>sin provincia, el municipio si solo hay uno con ese nombre.</li>
+ * </ol>
+ * Si el lugar no está en la tabla no hay coordenadas: la capital de la provincia como aproximación
+ * daría distancias falsas en /api/races/near (una carrera a 100 km de la capital saldría "a menos
+ * de 50 km") y, guardada en race/club, CoordinateBackfill ya no la volvería a calcular.
+ * Nombres comparados sin tildes ni mayúsculas, igual que {@link RaceSearchIndex}.
+ */
+@Component
+public class MunicipalityGeocoder {
+
+    static final String RESOURCE = "geo/municipios.csv";
+
+    /** Nombres oficiales o habituales de provincia → nombre de la tabla. */
+    private static final Map<String, String> PROVINCE_ALIASES = Map.ofEntries(
+            Map.entry("araba", "alava"),
+            Map.entry("alacant", "alicante"),
+            Map.entry("illes balears", "baleares"),
+            Map.entry("islas baleares", "baleares"),
+            Map.entry("castello", "castellon"),
+            Map.entry("la coruna", "a coruna"),
+            Map.entry("coruna", "a coruna"),
+            Map.entry("gerona", "girona"),
+            Map.entry("guipuzcoa", "gipuzkoa"),
+            Map.entry("lerida", "lleida"),
+            Map.entry("orense", "ourense"),
+            Map.entry("vizcaya", "bizkaia"),
+            Map.entry("nafarroa", "navarra"),
+            Map.entry("principado de asturias", "asturias"),
+            Map.entry("tenerife", "santa cruz de tenerife"),
+            Map.entry("gran canaria", "las palmas")
+    );
+
+    /** "provincia|municipio" → coordenadas */
+    private final Map<String, GeoPoint> byProvinceAndName = new HashMap<>();
+    /** municipio → coordenadas de todos los municipios con ese nombre */
+    private final Map<String, List<GeoPoint>> byName = new HashMap<>();
+
+    public MunicipalityGeocoder() {
+        InputStream in = MunicipalityGeocoder.class.getClassLoader().getResourceAsStream(RESOURCE);
+        if (in == null) throw new IllegalStateException("No se encuentra " + RESOURCE + " en el classpath");
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#") || line.startsWith("provincia;")) continue;
+                String[] f = line.split(";", -1);
+                if (f.length < 4) throw new IllegalStateException("Línea inválida en " + RESOURCE + ": " + line);
+                add(f[0], f[1], Double.parseDouble(f[2]), Double.parseDouble(f[3]));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public int size() {
+        return byProvinceAndName.size();
+    }
+
+    public Optional<GeoPoint> locate(String place, String province) {
+        String p = province(province);
+        for (String name : placeCandidates(place)) {
+            if (p != null) {
+                GeoPoint hit = byProvinceAndName.get(p + "|" + name);
+                if (hit != null) return Optional.of(hit);
+            } else {
+                List<GeoPoint> hits = byName.getOrDefault(name, List.of());
+                if (hits.size() == 1) return Optional.of(hits.get(0));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /** Recalcula las coordenadas a partir de place/province; sin resultado quedan a null. */
+    public void geocode(Race race) {
+        GeoPoint point = locate(race.getPlace(), race.getProvince()).orElse(null);
+        race.setLatitude(point == null ? null : point.latitude());
+        race.setLongitude(point == null ? null : point.longitude());
+    }
+
+    public void geocode(Club club) {
+        GeoPoint point = locate(club.getPlace(), club.getProvince()).orElse(null);
+        club.setLatitude(point == null ? null : point.latitude());
+        club.setLongitude(point == null ? null : point.longitude());
+    }
+
+    // ---- Helpers ----
+
+    private void add(String province, String name, double latitude, double longitude) {
+        GeoPoint point = new GeoPoint(latitude, longitude);
+        String p = key(province);
+        String n = key(name);
+        byProvinceAndName.put(p + "|" + n, point);
+        byName.computeIfAbsent(n, k -> new ArrayList<>()).add(point);
+    }
+
+    private static String province(String text) {
+        String k = key(text);
+        if (k.isEmpty()) return null;
+        return PROVINCE_ALIASES.getOrDefault(k, k);
+    }
+
+    /** El lugar tal cual y, si trae provincia o aclaraciones ("Aracena (Huelva)", "Lepe, Huelva"), lo de delante. */
+    private static List<String> placeCandidates(String place) {
+        List<String> out = new ArrayList<>(2);
+        String whole = key(place);
+        if (whole.isEmpty()) return out;
+        out.add(whole);
+        int cut = indexOfAny(place, '(', ',', '/');
+        if (cut > 0) {
+            String head = key(place.substring(0, cut));
+            if (!head.isEmpty() && !head.equals(whole)) out.add(head);
+        }
+        return out;
+    }
+
+    private static int indexOfAny(String s, char... chars) {
+        int best = -1;
+        for (char c : chars) {
+            int i = s.indexOf(c);
+            if (i >= 0 && (best < 0 || i < best)) best = i;
+        }
+        return best;
+    }
+
+    /** "Vitoria-Gasteiz" → "vitoria gasteiz", "Écija" → "ecija". */
+    static String key(String text) {
+        return String.join(" ", RaceSearchIndex.tokens(text));
+    }
+}
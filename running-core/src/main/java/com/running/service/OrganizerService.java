@@ -6,6 +6,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
@@ -15,22 +16,26 @@ import java.util.List;
 public class OrganizerService {
 
     private final RaceRepository raceRepository;
-    private final DifficultyRepository difficultyRepository;
-    private final TypeRepository typeRepository;
+    private final DifficultyService difficultyService;
+    private final TypeService typeService;
     private final UserRepository userRepository;
     private final UserRaceRepository userRaceRepository;
+    private final UserPrincipalResolver principals;
+    private final RaceSlotPermits raceSlotPermits;
+    private final UserRaceService userRaceService;
+    private final RaceIndexUpdater raceIndexUpdater;
+    private final MunicipalityGeocoder geocoder;
 
     private boolean isAdmin(User u) {
-        return userRepository.existsByIdAndRole_Name(u.getId(), "admin")
-                || userRepository.existsByIdAndRole_Name(u.getId(), "administrator");
+        return principals.hasAnyRole(u, "admin", "administrator");
     }
 
     private boolean isOrganizator(User u) {
-        return userRepository.existsByIdAndRole_Name(u.getId(), "organizator");
+        return principals.hasAnyRole(u, "organizator");
     }
 
     private User requireAdminOrOrganizator(String uid) {
-        User u = userRepository.findByUID(uid)
+        User u = principals.findByUid(uid)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found by uid"));
         if (isAdmin(u) || isOrganizator(u)) return u;
         throw new ResponseStatusException(HttpStatus.FORBIDDEN, "User must be admin or organizator");
@@ -42,7 +47,7 @@ public class OrganizerService {
         return raceRepository.findByOrganizer_UIDOrderByDateDesc(uid);
     }
 
-    /** Crea carrera; impide duplicar nombre globalmente (case-insensitive). */
+    /** Crea carrera (sin inscritos); impide duplicar nombre globalmente (case-insensitive). */
     public Race createAsOrganizer(String uid, RaceDto dto) {
         User me = requireAdminOrOrganizator(uid);
 
@@ -50,13 +55,16 @@ public class OrganizerService {
         if (name == null || name.isBlank()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "El nombre de la carrera es obligatorio");
         }
+        if (dto.getCapacity() != null && dto.getCapacity() < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "El aforo no puede ser negativo");
+        }
         if (raceRepository.existsByNameIgnoreCase(name)) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Ya existe una carrera con ese nombre");
         }
 
-        Difficulty diff = difficultyRepository.findById(dto.getIddifficulty().getIddifficulty())
+        Difficulty diff = difficultyService.findById(dto.getIddifficulty().getIddifficulty())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Difficulty not found"));
-        Type type = typeRepository.findById(dto.getType().getId_type())
+        Type type = typeService.findById(dto.getType().getId_type())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Type not found"));
 
         Race c = Race.builder()
@@ -70,18 +78,27 @@ public class OrganizerService {
                 .difficulty(diff)
                 .type(type)
                 .slope(dto.getSlope())
-                .registered(dto.getRegistered())
+                .registered(0) // lo llevan las inscripciones (reserveSlot/cancelaciones), nunca el DTO
+                .capacity(dto.getCapacity())
                 .organizer(me)
                 .build();
+        geocoder.geocode(c);
 
         try {
-            return raceRepository.save(c);
+            Race saved = raceRepository.save(c);
+            raceIndexUpdater.raceSaved(saved.getId());
+            return saved;
         } catch (DataIntegrityViolationException e) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Ya existe una carrera con ese nombre", e);
         }
     }
 
-    /** Edita carrera; bloquea cambio de nombre a uno ya usado. */
+    /**
+     * Edita carrera; bloquea cambio de nombre a uno ya usado. registered no se edita (lo llevan
+     * las inscripciones) y el aforo no puede quedar por debajo de los inscritos; si sube, entra
+     * gente de la lista de espera.
+     */
+    @Transactional
     public Race updateMyRace(String uid, Long raceId, RaceDto dto) {
         User me = requireAdminOrOrganizator(uid);
         Race c = raceRepository.findById(raceId)
@@ -93,6 +110,17 @@ public class OrganizerService {
             }
         }
 
+        // Aforo primero (antes de ensuciar la entidad): UPDATE condicional frente a registered
+        Integer oldCapacity = c.getCapacity();
+        Integer newCapacity = dto.getCapacity();
+        boolean capacityChanged = newCapacity != null && !newCapacity.equals(oldCapacity);
+        if (capacityChanged) {
+            if (newCapacity < 0 || raceRepository.updateCapacityIfFits(raceId, newCapacity) == 0) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "El aforo no puede ser menor que el número de inscritos");
+            }
+            c.setCapacity(newCapacity);
+        }
+
         if (dto.getName() != null) {
             String newName = dto.getName().trim();
             if (!newName.equalsIgnoreCase(c.getName())) {
@@ -110,15 +138,15 @@ public class OrganizerService {
         if (dto.getProvince() != null) c.setProvince(dto.getProvince());
         if (dto.getUrl() != null) c.setUrl(dto.getUrl());
         if (dto.getSlope() != null) c.setSlope(dto.getSlope());
-        if (dto.getRegistered() != null) c.setRegistered(dto.getRegistered());
+        if (dto.getPlace() != null || dto.getProvince() != null) geocoder.geocode(c);
 
         if (dto.getType() != null) {
-            Type t = typeRepository.findById(dto.getType().getId_type())
+            Type t = typeService.findById(dto.getType().getId_type())
                     .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Type not found"));
             c.setType(t);
         }
         if (dto.getIddifficulty() != null) {
-            Difficulty d = difficultyRepository.findById(dto.getIddifficulty().getIddifficulty())
+            Difficulty d = difficultyService.findById(dto.getIddifficulty().getIddifficulty())
                     .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Difficulty not found"));
             c.setDifficulty(d);
         }
@@ -129,7 +157,7 @@ public class OrganizerService {
             }
             User newOrganizer = userRepository.findById(dto.getOrganizerUserId())
                     .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Organizer user not found by id: " + dto.getOrganizerUserId()));
-            if (!userRepository.existsByIdAndRole_Name(newOrganizer.getId(), "organizator")) {
+            if (!isOrganizator(newOrganizer)) {
                 throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "El usuario destino no tiene rol 'organizator'");
             }
             if (c.getOrganizer() == null || !c.getOrganizer().getId().equals(newOrganizer.getId())) {
@@ -138,7 +166,16 @@ public class OrganizerService {
         }
 
         try {
-            return raceRepository.save(c);
+            Race saved = raceRepository.saveAndFlush(c);
+            raceSlotPermits.invalidate(raceId);
+            if (capacityChanged && oldCapacity != null && newCapacity > oldCapacity) {
+                // Una promoción por plaza nueva; se para en cuanto la lista se vacía
+                for (int i = oldCapacity; i < newCapacity; i++) {
+                    if (!userRaceService.promoteFromWaitlist(raceId)) break;
+                }
+            }
+            raceIndexUpdater.raceSaved(raceId);
+            return saved;
         } catch (DataIntegrityViolationException e) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Ya existe una carrera con ese nombre", e);
         }
@@ -156,9 +193,12 @@ public class OrganizerService {
             }
         }
         raceRepository.deleteById(raceId);
+        raceSlotPermits.invalidate(raceId);
+        raceIndexUpdater.raceDeleted(raceId);
     }
 
     // Cancelar una inscripción PENDIENTE de un usuario en una carrera
+    @Transactional
     public void cancelPendingRegistration(String organizerUid, Long raceId, String targetUserUid) {
         User organizer = requireAdminOrOrganizator(organizerUid);
         Race c = raceRepository.findById(raceId)
@@ -173,7 +213,9 @@ public class OrganizerService {
         var ur = userRaceRepository.findPendingByRaceIdAndUserUid(raceId, targetUserUid)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No existe inscripción PENDIENTE para ese usuario en esta carrera"));
 
-        ur.setStatus("cancelada");
-        userRaceRepository.save(ur);
+        // Condicional: si el usuario la ha confirmado entre medias no se pisa (ya tiene plaza reservada)
+        if (userRaceRepository.updateStatusIfCurrent(ur.getUser().getId(), raceId, "pendiente", "cancelada") == 0) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "La inscripción ya no está PENDIENTE");
+        }
     }
 }
@@ -20,18 +20,18 @@ public class ParticipantService {
     private final UserRaceRepository userRaceRepository;
     private final UserRepository userRepository;
     private final RaceRepository raceRepository;
+    private final UserPrincipalResolver principals;
 
     private boolean isAdmin(User u) {
-        return userRepository.existsByIdAndRole_Name(u.getId(), "admin")
-                || userRepository.existsByIdAndRole_Name(u.getId(), "administrator");
+        return principals.hasAnyRole(u, "admin", "administrator");
     }
 
     private boolean isOrganizator(User u) {
-        return userRepository.existsByIdAndRole_Name(u.getId(), "organizator");
+        return principals.hasAnyRole(u, "organizator");
     }
 
     private User getUserByUidOr404(String uid) {
-        return userRepository.findByUID(uid)
+        return principals.findByUid(uid)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found by uid"));
     }
 
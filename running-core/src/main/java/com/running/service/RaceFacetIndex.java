@@ -0,0 +1,276 @@
+package com.running.service;
+
+import com.running.model.FacetCountDto;
+import com.running.model.RaceFacetsDto;
+import com.running.model.RaceSummaryDto;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Recuentos por provincia, tipo, dificultad y por celebrar/celebradas para la pantalla de filtros.
+ * <ul>
+ *   <li>Cada carrera tiene un ordinal (los de carreras borradas se reutilizan) y cada valor de faceta
+ *       un BitSet con los ordinales de sus carreras.</li>
+ *   <li>Un recuento es AND + cardinality de unos pocos BitSets: no recorre carreras ni toca la BD,
+ *       y con 100k carreras cada BitSet son ~1.600 palabras de 64 bits.</li>
+ *   <li>Las celebradas son un BitSet más que se pone al día en cada consulta con las fechas que han
+ *       pasado desde la anterior (normalmente ninguna).</li>
+ *   <li>fechaDesde/fechaHasta une los BitSets de cada fecha del rango, así que ahí el coste sí
+ *       depende de cuántas fechas distintas cubre.</li>
+ * </ul>
+ * Provincias comparadas sin tildes ni mayúsculas ("Cadiz" = "Cádiz"), como hace MySQL.
+ */
+@Component
+public class RaceFacetIndex implements RaceIndex {
+
+    private static final BitSet EMPTY = new BitSet();
+    private static final Comparator<FacetCountDto> BY_COUNT = Comparator
+            .comparingInt(FacetCountDto::getCount).reversed()
+            .thenComparing(FacetCountDto::getName, Comparator.nullsLast(Comparator.<String>naturalOrder()));
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final List<Slot> slots = new ArrayList<>();
+    private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+
+    private final BitSet live = new BitSet();
+    private final BitSet dated = new BitSet();
+    private final BitSet finished = new BitSet();
+    /** Todas las carreras con fecha anterior a esta están marcadas en finished. */
+    private LocalDateTime finishedUntil = LocalDateTime.MIN;
+
+    private final Map<String, Facet> provinces = new HashMap<>();
+    private final Map<Long, Facet> types = new HashMap<>();
+    private final Map<Long, Facet> difficulties = new HashMap<>();
+    private final NavigableMap<LocalDateTime, BitSet> byDate = new TreeMap<>();
+
+    @Override
+    public void rebuild(Collection<RaceSummaryDto> races) {
+        lock.writeLock().lock();
+        try {
+            ordinals.clear();
+            slots.clear();
+            freeOrdinals.clear();
+            live.clear();
+            dated.clear();
+            finished.clear();
+            provinces.clear();
+            types.clear();
+            difficulties.clear();
+            byDate.clear();
+            finishedUntil = LocalDateTime.now();
+            races.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void upsert(RaceSummaryDto race) {
+        lock.writeLock().lock();
+        try {
+            delete(race.getId());
+            add(race);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long raceId) {
+        lock.writeLock().lock();
+        try {
+            delete(raceId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinals.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Mismos filtros que /api/races/filter; null = sin filtrar por esa dimensión. */
+    public RaceFacetsDto facets(String province, Long typeId, Long difficultyId, Boolean finalizada,
+                                LocalDateTime fechaDesde, LocalDateTime fechaHasta) {
+        advanceFinished(LocalDateTime.now());
+
+        lock.readLock().lock();
+        try {
+            BitSet byProvince = province == null ? null : bits(provinces.get(provinceKey(province)));
+            BitSet byType = typeId == null ? null : bits(types.get(typeId));
+            BitSet byDifficulty = difficultyId == null ? null : bits(difficulties.get(difficultyId));
+            BitSet byStatus = finalizada == null ? null : (finalizada ? finished : upcoming());
+            BitSet byDates = (fechaDesde == null && fechaHasta == null) ? null : dateRange(fechaDesde, fechaHasta);
+
+            BitSet statusBase = and(byProvince, byType, byDifficulty, byDates);
+            BitSet upcoming = upcoming();
+            upcoming.and(statusBase);
+            BitSet done = (BitSet) finished.clone();
+            done.and(statusBase);
+
+            return new RaceFacetsDto(
+                    and(byProvince, byType, byDifficulty, byStatus, byDates).cardinality(),
+                    counts(provinces, and(byType, byDifficulty, byStatus, byDates), false),
+                    counts(types, and(byProvince, byDifficulty, byStatus, byDates), true),
+                    counts(difficulties, and(byProvince, byType, byStatus, byDates), true),
+                    upcoming.cardinality(),
+                    done.cardinality());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ---- Helpers ----
+
+    /** Marca como celebradas las carreras cuya fecha ha pasado desde la última consulta. */
+    private void advanceFinished(LocalDateTime now) {
+        lock.readLock().lock();
+        try {
+            LocalDateTime next = byDate.ceilingKey(finishedUntil);
+            if (next == null || !next.isBefore(now)) return;
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            if (!now.isAfter(finishedUntil)) return;
+            byDate.subMap(finishedUntil, true, now, false).values().forEach(finished::or);
+            finishedUntil = now;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private BitSet upcoming() {
+        BitSet out = (BitSet) dated.clone();
+        out.andNot(finished);
+        return out;
+    }
+
+    private BitSet dateRange(LocalDateTime from, LocalDateTime to) {
+        NavigableMap<LocalDateTime, BitSet> range;
+        if (from != null && to != null) {
+            if (from.isAfter(to)) return EMPTY;
+            range = byDate.subMap(from, true, to, true);
+        } else if (from != null) {
+            range = byDate.tailMap(from, true);
+        } else {
+            range = byDate.headMap(to, true);
+        }
+        BitSet out = new BitSet();
+        range.values().forEach(out::or);
+        return out;
+    }
+
+    /** live AND cada filtro no nulo. */
+    private BitSet and(BitSet... filters) {
+        BitSet out = (BitSet) live.clone();
+        for (BitSet f : filters) {
+            if (f != null) out.and(f);
+        }
+        return out;
+    }
+
+    private static <K> List<FacetCountDto> counts(Map<K, Facet> facets, BitSet base, boolean withId) {
+        List<FacetCountDto> out = new ArrayList<>();
+        facets.forEach((key, facet) -> {
+            BitSet hits = (BitSet) base.clone();
+            hits.and(facet.bits);
+            int count = hits.cardinality();
+            if (count > 0) out.add(new FacetCountDto(withId ? (Long) key : null, facet.name, count));
+        });
+        out.sort(BY_COUNT);
+        return out;
+    }
+
+    private static BitSet bits(Facet facet) {
+        return facet == null ? EMPTY : facet.bits;
+    }
+
+    private void add(RaceSummaryDto race) {
+        int ordinal = freeOrdinals.isEmpty() ? slots.size() : freeOrdinals.pop();
+        String province = isBlank(race.getProvince()) ? null : provinceKey(race.getProvince());
+        Slot slot = new Slot(province, race.getTypeId(), race.getDifficultyId(), race.getDate());
+        if (ordinal == slots.size()) slots.add(slot); else slots.set(ordinal, slot);
+        ordinals.put(race.getId(), ordinal);
+        live.set(ordinal);
+
+        if (province != null) facet(provinces, province, race.getProvince().trim()).bits.set(ordinal);
+        if (race.getTypeId() != null) facet(types, race.getTypeId(), race.getTypeName()).bits.set(ordinal);
+        if (race.getDifficultyId() != null) facet(difficulties, race.getDifficultyId(), race.getDifficultyName()).bits.set(ordinal);
+        if (race.getDate() != null) {
+            dated.set(ordinal);
+            byDate.computeIfAbsent(race.getDate(), k -> new BitSet()).set(ordinal);
+            if (race.getDate().isBefore(finishedUntil)) finished.set(ordinal);
+        }
+    }
+
+    private void delete(Long raceId) {
+        Integer ordinal = ordinals.remove(raceId);
+        if (ordinal == null) return;
+        Slot slot = slots.set(ordinal, null);
+        live.clear(ordinal);
+        dated.clear(ordinal);
+        finished.clear(ordinal);
+        unset(provinces, slot.province(), ordinal);
+        unset(types, slot.typeId(), ordinal);
+        unset(difficulties, slot.difficultyId(), ordinal);
+        if (slot.date() != null) {
+            BitSet sameDate = byDate.get(slot.date());
+            sameDate.clear(ordinal);
+            if (sameDate.isEmpty()) byDate.remove(slot.date());
+        }
+        freeOrdinals.push(ordinal);
+    }
+
+    /** El nombre que se muestra es el de la última carrera que ha entrado con ese valor. */
+    private static <K> Facet facet(Map<K, Facet> facets, K key, String name) {
+        Facet facet = facets.computeIfAbsent(key, k -> new Facet());
+        facet.name = name;
+        return facet;
+    }
+
+    private static <K> void unset(Map<K, Facet> facets, K key, int ordinal) {
+        if (key == null) return;
+        Facet facet = facets.get(key);
+        if (facet == null) return;
+        facet.bits.clear(ordinal);
+        if (facet.bits.isEmpty()) facets.remove(key);
+    }
+
+    private static String provinceKey(String province) {
+        return String.join(" ", RaceSearchIndex.tokens(province));
+    }
+
+    private static boolean isBlank(String s) {
+        return s == null || s.isBlank();
+    }
+
+    private static final class Facet {
+        private final BitSet bits = new BitSet();
+        private String name;
+    }
+
+    private record Slot(String province, Long typeId, Long difficultyId, LocalDateTime date) {
+    }
+}
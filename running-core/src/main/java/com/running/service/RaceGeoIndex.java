@@ -0,0 +1,168 @@
+package com.running.service;
+
+import com.running.model.GeoPoint;
+import com.running.model.RaceNearDto;
+import com.running.model.RaceNearPageDto;
+import com.running.model.RaceSummaryDto;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice geográfico en memoria de las carreras con coordenadas: rejilla de celdas de 0,1°
+ * (≈ 11 km de lado en latitud). Una búsqueda por radio solo recorre las celdas que tocan el
+ * rectángulo que envuelve al círculo, calcula la distancia haversine de sus carreras y descarta
+ * las que quedan fuera. Resultado ordenado por distancia y paginado.
+ *
+ * No da la vuelta al antimeridiano (±180°): no hay carreras por allí.
+ */
+@Component
+public class RaceGeoIndex implements RaceIndex {
+
+    static final double CELL_DEGREES = 0.1;
+    private static final double KM_PER_DEGREE = Math.toRadians(GeoPoint.EARTH_RADIUS_KM);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    /** celda → (carrera → carrera) */
+    private final Map<Long, Map<Long, RaceSummaryDto>> cells = new HashMap<>();
+    /** carrera → celda, para moverla o borrarla */
+    private final Map<Long, Long> cellOf = new HashMap<>();
+
+    @Override
+    public void rebuild(Collection<RaceSummaryDto> races) {
+        lock.writeLock().lock();
+        try {
+            cells.clear();
+            cellOf.clear();
+            races.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void upsert(RaceSummaryDto race) {
+        lock.writeLock().lock();
+        try {
+            delete(race.getId());
+            add(race);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long raceId) {
+        lock.writeLock().lock();
+        try {
+            delete(raceId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return cellOf.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Carreras a menos de radiusKm del punto, de la más cercana a la más lejana.
+     * finalizada: null = todas, true = ya celebradas, false = por celebrar (igual que /filter).
+     */
+    public RaceNearPageDto near(double latitude, double longitude, double radiusKm, Boolean finalizada,
+                                int page, int size) {
+        double dLat = radiusKm / KM_PER_DEGREE;
+        double dLon = radiusKm / (KM_PER_DEGREE * Math.max(0.01, Math.cos(Math.toRadians(latitude))));
+        int latFrom = cell(Math.max(-90, latitude - dLat));
+        int latTo = cell(Math.min(90, latitude + dLat));
+        int lonFrom = cell(Math.max(-180, longitude - dLon));
+        int lonTo = cell(Math.min(180, longitude + dLon));
+        LocalDateTime now = LocalDateTime.now();
+
+        List<RaceNearDto> hits = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            long boxCells = (long) (latTo - latFrom + 1) * (lonTo - lonFrom + 1);
+            if (boxCells > cells.size()) {
+                // Radio grande o índice poco poblado: sale más barato recorrer las celdas ocupadas
+                for (Map.Entry<Long, Map<Long, RaceSummaryDto>> e : cells.entrySet()) {
+                    int la = (int) (e.getKey() >> 32);
+                    int lo = (int) (long) e.getKey();
+                    if (la >= latFrom && la <= latTo && lo >= lonFrom && lo <= lonTo) {
+                        collect(hits, e.getValue(), latitude, longitude, radiusKm, finalizada, now);
+                    }
+                }
+            } else {
+                for (int la = latFrom; la <= latTo; la++) {
+                    for (int lo = lonFrom; lo <= lonTo; lo++) {
+                        Map<Long, RaceSummaryDto> cell = cells.get(key(la, lo));
+                        if (cell != null) collect(hits, cell, latitude, longitude, radiusKm, finalizada, now);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        hits.sort(BY_DISTANCE);
+        int from = (int) Math.min((long) page * size, hits.size());
+        int to = Math.min(from + size, hits.size());
+        return new RaceNearPageDto(new ArrayList<>(hits.subList(from, to)), hits.size(), page, size);
+    }
+
+    // ---- Helpers ----
+
+    private static final Comparator<RaceNearDto> BY_DISTANCE = Comparator
+            .comparingDouble(RaceNearDto::getDistanceKm)
+            .thenComparing(h -> h.getRace().getDate(), Comparator.nullsLast(Comparator.<LocalDateTime>naturalOrder()))
+            .thenComparing(h -> h.getRace().getId());
+
+    private static void collect(List<RaceNearDto> out, Map<Long, RaceSummaryDto> cell, double latitude, double longitude,
+                                double radiusKm, Boolean finalizada, LocalDateTime now) {
+        for (RaceSummaryDto race : cell.values()) {
+            if (finalizada != null) {
+                if (race.getDate() == null) continue;
+                if (finalizada != race.getDate().isBefore(now)) continue;
+            }
+            double d = GeoPoint.distanceKm(latitude, longitude, race.getLatitude(), race.getLongitude());
+            if (d <= radiusKm) out.add(new RaceNearDto(race, d));
+        }
+    }
+
+    private void add(RaceSummaryDto race) {
+        if (race.getLatitude() == null || race.getLongitude() == null) return;
+        long key = key(cell(race.getLatitude()), cell(race.getLongitude()));
+        cells.computeIfAbsent(key, k -> new HashMap<>()).put(race.getId(), race);
+        cellOf.put(race.getId(), key);
+    }
+
+    private void delete(Long raceId) {
+        Long key = cellOf.remove(raceId);
+        if (key == null) return;
+        Map<Long, RaceSummaryDto> cell = cells.get(key);
+        if (cell == null) return;
+        cell.remove(raceId);
+        if (cell.isEmpty()) cells.remove(key);
+    }
+
+    static int cell(double degrees) {
+        return (int) Math.floor(degrees / CELL_DEGREES);
+    }
+
+    private static long key(int latCell, int lonCell) {
+        return ((long) latCell << 32) | (lonCell & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,19 @@
+package com.running.service;
+
+import com.running.model.RaceSummaryDto;
+
+import java.util.Collection;
+
+/**
+ * Estructura en memoria derivada de las carreras (búsqueda, facetas...). {@link RaceIndexUpdater}
+ * la carga al arrancar y le pasa cada alta, cambio o borrado una vez confirmada la transacción.
+ */
+public interface RaceIndex {
+
+    void rebuild(Collection<RaceSummaryDto> races);
+
+    /** Alta o modificación: sustituye lo que hubiera para ese id. */
+    void upsert(RaceSummaryDto race);
+
+    void remove(Long raceId);
+}
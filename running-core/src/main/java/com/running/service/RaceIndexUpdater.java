@@ -0,0 +1,75 @@
+package com.running.service;
+
+import com.running.model.RaceSummaryDto;
+import com.running.repository.RaceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mantiene al día los {@link RaceIndex}: carga completa al arrancar (keyset por id, sin entidades)
+ * y cambios incrementales desde los servicios que guardan o borran carreras. Si hay transacción
+ * en curso el cambio se aplica tras el commit; un rollback no deja rastro en los índices.
+ *
+ * Cada instancia solo ve sus propias escrituras hasta el siguiente arranque.
+ */
+@Component
+public class RaceIndexUpdater {
+
+    private static final Logger log = LoggerFactory.getLogger(RaceIndexUpdater.class);
+    private static final int LOAD_PAGE_SIZE = 1000;
+
+    private final RaceRepository raceRepository;
+    private final List<RaceIndex> indexes;
+
+    public RaceIndexUpdater(RaceRepository raceRepository, List<RaceIndex> indexes) {
+        this.raceRepository = raceRepository;
+        this.indexes = indexes;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildAll() {
+        long t0 = System.currentTimeMillis();
+        List<RaceSummaryDto> all = new ArrayList<>();
+        List<RaceSummaryDto> page = raceRepository.findSummariesAfterId(0L, PageRequest.of(0, LOAD_PAGE_SIZE));
+        while (!page.isEmpty()) {
+            all.addAll(page);
+            if (page.size() < LOAD_PAGE_SIZE) break;
+            Long last = page.get(page.size() - 1).getId();
+            page = raceRepository.findSummariesAfterId(last, PageRequest.of(0, LOAD_PAGE_SIZE));
+        }
+        indexes.forEach(index -> index.rebuild(all));
+        log.info("Índices de carreras cargados: {} carreras en {} ms", all.size(), System.currentTimeMillis() - t0);
+    }
+
+    /** La carrera se ha creado o modificado. */
+    public void raceSaved(Long raceId) {
+        afterCommit(() -> raceRepository.findSummaryById(raceId).ifPresentOrElse(
+                race -> indexes.forEach(index -> index.upsert(race)),
+                () -> indexes.forEach(index -> index.remove(raceId))));
+    }
+
+    public void raceDeleted(Long raceId) {
+        afterCommit(() -> indexes.forEach(index -> index.remove(raceId)));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,222 @@
+package com.running.service;
+
+import com.running.model.RaceSearchPageDto;
+import com.running.model.RaceSummaryDto;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido en memoria sobre nombre, lugar y provincia de las carreras.
+ * <ul>
+ *   <li>Términos sin tildes ni mayúsculas ("Cádiz" = "cadiz", "Añora" = "anora").</li>
+ *   <li>Cada término de la búsqueda casa exacto, como prefijo ("hue" → "huelva") o, si no
+ *       casa de ninguna de esas formas, con 1 error (2 a partir de 8 letras).</li>
+ *   <li>Todos los términos tienen que casar. Puntuación: suma por término del mejor campo
+ *       (nombre 3, lugar 2, provincia 1) por el tipo de coincidencia (exacta 1, prefijo 0.6,
+ *       con errores 0.4). Empates: primero las de fecha más próxima.</li>
+ * </ul>
+ * Lecturas concurrentes con un ReadWriteLock; las escrituras (altas y cambios de carreras) son raras.
+ */
+@Component
+public class RaceSearchIndex implements RaceIndex {
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int PLACE_WEIGHT = 2;
+    private static final int PROVINCE_WEIGHT = 1;
+    private static final double PREFIX_FACTOR = 0.6;
+    private static final double FUZZY_FACTOR = 0.4;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^a-z0-9]+");
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Doc> docs = new HashMap<>();
+    /** término → (carrera → peso del mejor campo en el que aparece) */
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+
+    @Override
+    public void rebuild(Collection<RaceSummaryDto> races) {
+        lock.writeLock().lock();
+        try {
+            docs.clear();
+            postings.clear();
+            races.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void upsert(RaceSummaryDto race) {
+        lock.writeLock().lock();
+        try {
+            delete(race.getId());
+            add(race);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long raceId) {
+        lock.writeLock().lock();
+        try {
+            delete(raceId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public RaceSearchPageDto search(String query, int page, int size) {
+        Set<String> terms = new LinkedHashSet<>(tokens(query));
+        if (terms.isEmpty()) return new RaceSearchPageDto(List.of(), 0, page, size);
+
+        List<Hit> hits = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+            for (String term : terms) {
+                Map<Long, Double> matches = match(term);
+                if (scores == null) {
+                    scores = matches;
+                } else {
+                    scores.keySet().retainAll(matches.keySet());
+                    scores.replaceAll((id, score) -> score + matches.get(id));
+                }
+                if (scores.isEmpty()) break;
+            }
+            scores.forEach((id, score) -> hits.add(new Hit(docs.get(id).race(), score)));
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        hits.sort(RANKING);
+        // long: page * size puede desbordar int con páginas muy altas
+        int from = (int) Math.min((long) page * size, hits.size());
+        int to = Math.min(from + size, hits.size());
+        List<RaceSummaryDto> items = hits.subList(from, to).stream().map(Hit::race).toList();
+        return new RaceSearchPageDto(items, hits.size(), page, size);
+    }
+
+    // ---- Helpers ----
+
+    private static final Comparator<Hit> RANKING = Comparator
+            .comparingDouble(Hit::score).reversed()
+            .thenComparing(h -> h.race().getDate(), Comparator.nullsLast(Comparator.<LocalDateTime>naturalOrder()))
+            .thenComparing(h -> h.race().getId());
+
+    private Map<Long, Double> match(String term) {
+        Map<Long, Double> out = new HashMap<>();
+        collect(out, postings.get(term), 1.0);
+        for (Map<Long, Integer> prefixed : postings.subMap(term, false, term + Character.MAX_VALUE, false).values()) {
+            collect(out, prefixed, PREFIX_FACTOR);
+        }
+        if (!out.isEmpty()) return out;
+
+        int maxEdits = term.length() >= 8 ? 2 : (term.length() >= 4 ? 1 : 0);
+        if (maxEdits == 0) return out;
+        for (Map.Entry<String, Map<Long, Integer>> e : postings.entrySet()) {
+            String candidate = e.getKey();
+            if (Math.abs(candidate.length() - term.length()) <= maxEdits
+                    && withinEdits(term, candidate, maxEdits)) {
+                collect(out, e.getValue(), FUZZY_FACTOR);
+            }
+        }
+        return out;
+    }
+
+    private static void collect(Map<Long, Double> out, Map<Long, Integer> posting, double factor) {
+        if (posting == null) return;
+        posting.forEach((id, weight) -> out.merge(id, weight * factor, Math::max));
+    }
+
+    private void add(RaceSummaryDto race) {
+        Map<String, Integer> weights = new HashMap<>();
+        tokens(race.getName()).forEach(t -> weights.merge(t, NAME_WEIGHT, Math::max));
+        tokens(race.getPlace()).forEach(t -> weights.merge(t, PLACE_WEIGHT, Math::max));
+        tokens(race.getProvince()).forEach(t -> weights.merge(t, PROVINCE_WEIGHT, Math::max));
+
+        docs.put(race.getId(), new Doc(race, weights.keySet()));
+        weights.forEach((term, weight) -> postings.computeIfAbsent(term, k -> new HashMap<>()).put(race.getId(), weight));
+    }
+
+    private void delete(Long raceId) {
+        Doc old = docs.remove(raceId);
+        if (old == null) return;
+        for (String term : old.terms()) {
+            Map<Long, Integer> posting = postings.get(term);
+            if (posting == null) continue;
+            posting.remove(raceId);
+            if (posting.isEmpty()) postings.remove(term);
+        }
+    }
+
+    /** Minúsculas, sin tildes ni diéresis, partido por todo lo que no sea letra o número. */
+    static List<String> tokens(String text) {
+        if (text == null || text.isBlank()) return List.of();
+        String folded = MARKS.matcher(Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD)).replaceAll("");
+        List<String> out = new ArrayList<>();
+        for (String t : SEPARATORS.split(folded)) {
+            if (!t.isEmpty()) out.add(t);
+        }
+        return out;
+    }
+
+    /** Distancia de edición (con transposiciones) ≤ max, cortando en cuanto se pasa. */
+    static boolean withinEdits(String a, String b, int max) {
+        int[] prevPrev = new int[b.length() + 1];
+        int[] prev = new int[b.length() + 1];
+        int[] cur = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) prev[j] = j;
+        for (int i = 1; i <= a.length(); i++) {
+            cur[0] = i;
+            int rowMin = cur[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int d = Math.min(Math.min(prev[j] + 1, cur[j - 1] + 1), prev[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    d = Math.min(d, prevPrev[j - 2] + 1);
+                }
+                cur[j] = d;
+                rowMin = Math.min(rowMin, d);
+            }
+            if (rowMin > max) return false;
+            int[] tmp = prevPrev;
+            prevPrev = prev;
+            prev = cur;
+            cur = tmp;
+        }
+        return prev[b.length()] <= max;
+    }
+
+    private record Doc(RaceSummaryDto race, Set<String> terms) {
+    }
+
+    private record Hit(RaceSummaryDto race, double score) {
+    }
+}
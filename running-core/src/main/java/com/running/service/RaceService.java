@@ -5,24 +5,47 @@ import com.running.repository.*;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 public class RaceService {
 
+    private static final int CATALOG_DEFAULT_SIZE = 50;
+    private static final int CATALOG_MAX_SIZE = 200;
+    private static final double NEAR_DEFAULT_RADIUS_KM = 50;
+    private static final double NEAR_MAX_RADIUS_KM = 500;
+    private static final Sort FILTER_DEFAULT_SORT = Sort.by(Sort.Order.asc("date"), Sort.Order.asc("id"));
+
     private final RaceRepository raceRepository;
-    private final DifficultyRepository difficultyRepository;
-    private final TypeRepository typeRepository;
+    private final DifficultyService difficultyService;
+    private final TypeService typeService;
     private final UserRepository userRepository;
+    private final UserPrincipalResolver principals;
+    private final RaceSearchIndex raceSearchIndex;
+    private final RaceIndexUpdater raceIndexUpdater;
+    private final RaceGeoIndex raceGeoIndex;
+    private final RaceFacetIndex raceFacetIndex;
+    private final MunicipalityGeocoder geocoder;
 
     private boolean isAdmin(User u) {
-        return userRepository.existsByIdAndRole_Name(u.getId(), "admin");
+        return principals.hasAnyRole(u, "admin");
     }
 
     @Transactional
@@ -31,14 +54,18 @@ public class RaceService {
         if (name == null || name.isBlank()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "El nombre de la carrera es obligatorio");
         }
+        if (request.getCapacity() != null && request.getCapacity() < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "El aforo no puede ser negativo");
+        }
         if (raceRepository.existsByNameIgnoreCase(name)) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Ya existe una carrera con ese nombre");
         }
 
-        Difficulty difficulty = difficultyRepository.findById(request.getIddifficulty().getIddifficulty())
+        // Type/Difficulty salen de la caché de datos de referencia
+        Difficulty difficulty = difficultyService.findById(request.getIddifficulty().getIddifficulty())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Difficulty not found with id: " + request.getIddifficulty().getIddifficulty()));
 
-        Type type = typeRepository.findById(request.getType().getId_type())
+        Type type = typeService.findById(request.getType().getId_type())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Type not found with id: " + request.getType().getId_type()));
 
         Race race = Race.builder()
@@ -52,11 +79,15 @@ public class RaceService {
                 .difficulty(difficulty)
                 .type(type)
                 .slope(request.getSlope())
-                .registered(request.getRegistered())
+                .registered(0) // lo llevan las inscripciones (reserveSlot/cancelaciones), nunca el DTO
+                .capacity(request.getCapacity())
                 .build();
+        geocoder.geocode(race);
 
         try {
-            return raceRepository.save(race);
+            Race saved = raceRepository.save(race);
+            raceIndexUpdater.raceSaved(saved.getId());
+            return saved;
         } catch (DataIntegrityViolationException e) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Ya existe una carrera con ese nombre", e);
         }
@@ -70,7 +101,34 @@ public class RaceService {
             Long difficultyId,
             Boolean finalizada
     ) {
-        return raceRepository.filterRaces(
+        return raceRepository.findAll(
+                filterSpec(province, fechaDesde, fechaHasta, typeId, difficultyId, finalizada),
+                FILTER_DEFAULT_SORT
+        );
+    }
+
+    /** Variante paginada; si el Pageable no trae orden se ordena por fecha ascendente. */
+    public Page<Race> filterRaces(
+            String province,
+            LocalDateTime fechaDesde,
+            LocalDateTime fechaHasta,
+            Long typeId,
+            Long difficultyId,
+            Boolean finalizada,
+            Pageable pageable
+    ) {
+        Pageable sorted = pageable.getSort().isSorted()
+                ? pageable
+                : PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), FILTER_DEFAULT_SORT);
+        return raceRepository.findAll(
+                filterSpec(province, fechaDesde, fechaHasta, typeId, difficultyId, finalizada),
+                sorted
+        );
+    }
+
+    private Specification<Race> filterSpec(String province, LocalDateTime fechaDesde, LocalDateTime fechaHasta,
+                                           Long typeId, Long difficultyId, Boolean finalizada) {
+        return RaceSpecifications.filter(
                 blankToNull(province),
                 typeId,
                 difficultyId,
@@ -85,6 +143,64 @@ public class RaceService {
         return (s == null || s.isBlank()) ? null : s;
     }
 
+    /**
+     * Búsqueda de texto sobre nombre, lugar y provincia en RaceSearchIndex. La BD solo se
+     * consulta para los inscritos de la página (el índice no se actualiza con cada inscripción).
+     */
+    public RaceSearchPageDto search(String query, int page, int size) {
+        if (query == null || query.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "El parámetro q es obligatorio");
+        }
+        RaceSearchPageDto result = raceSearchIndex.search(query, page, size);
+        result.setItems(withLiveRegistered(result.getItems()));
+        return result;
+    }
+
+    /** Recuentos por faceta para los mismos filtros que filterRaces; no consulta la BD (RaceFacetIndex). */
+    public RaceFacetsDto facets(String province, LocalDateTime fechaDesde, LocalDateTime fechaHasta,
+                                Long typeId, Long difficultyId, Boolean finalizada) {
+        return raceFacetIndex.facets(blankToNull(province), typeId, difficultyId, finalizada, fechaDesde, fechaHasta);
+    }
+
+    /**
+     * Carreras a menos de radiusKm (50 por defecto, máximo 500) del punto, de RaceGeoIndex;
+     * los inscritos se leen de la BD igual que en {@link #search}.
+     */
+    public RaceNearPageDto near(Double latitude, Double longitude, Double radiusKm, Boolean finalizada, int page, int size) {
+        if (latitude == null || longitude == null
+                || latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "lat y lon son obligatorios y deben ser coordenadas válidas");
+        }
+        double radius = radiusKm == null ? NEAR_DEFAULT_RADIUS_KM : radiusKm;
+        if (!(radius > 0 && radius <= NEAR_MAX_RADIUS_KM)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "radiusKm debe estar entre 0 y " + (int) NEAR_MAX_RADIUS_KM);
+        }
+        RaceNearPageDto result = raceGeoIndex.near(latitude, longitude, radius, finalizada, page, size);
+        List<RaceSummaryDto> races = withLiveRegistered(result.getItems().stream().map(RaceNearDto::getRace).toList());
+        List<RaceNearDto> items = new ArrayList<>(races.size());
+        for (int i = 0; i < races.size(); i++) {
+            items.add(new RaceNearDto(races.get(i), result.getItems().get(i).getDistanceKm()));
+        }
+        result.setItems(items);
+        return result;
+    }
+
+    /**
+     * Copias de las carreras con los inscritos actuales, en una consulta. Los DTO de los índices
+     * se comparten entre peticiones: no se modifican.
+     */
+    private List<RaceSummaryDto> withLiveRegistered(List<RaceSummaryDto> races) {
+        if (races.isEmpty()) return races;
+        Map<Long, Integer> registered = new HashMap<>();
+        raceRepository.findRegisteredByIdIn(races.stream().map(RaceSummaryDto::getId).toList())
+                .forEach(r -> registered.put(r.getId(), r.getRegistered()));
+        return races.stream()
+                .map(r -> new RaceSummaryDto(r.getId(), r.getName(), r.getPlace(), r.getProvince(), r.getDistanceKm(),
+                        r.getDate(), r.getPhoto(), registered.get(r.getId()), r.getTypeId(), r.getTypeName(),
+                        r.getDifficultyId(), r.getDifficultyName(), r.getLatitude(), r.getLongitude()))
+                .toList();
+    }
+
     public List<Race> findByOrganizerUid(String organizerUid) {
         return raceRepository.findByOrganizer_UIDOrderByDateDesc(organizerUid);
     }
@@ -95,6 +211,52 @@ public class RaceService {
     }
 
     public List<Race> findAll() { return raceRepository.findAll(); }
+
+    /**
+     * Catálogo paginado por cursor (keyset sobre date,id). Cada página es un único
+     * range scan y se proyecta directamente a RaceSummaryDto, sin cargar entidades.
+     * Las carreras sin fecha no forman parte del catálogo.
+     */
+    @Transactional(readOnly = true)
+    public RaceSummaryPageDto findCatalog(String cursor, Integer size) {
+        int limit = (size == null || size <= 0) ? CATALOG_DEFAULT_SIZE : Math.min(size, CATALOG_MAX_SIZE);
+        // Pedimos una fila de más para saber si existe página siguiente
+        PageRequest page = PageRequest.of(0, limit + 1);
+
+        List<RaceSummaryDto> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = raceRepository.findSummariesFirstPage(page);
+        } else {
+            String[] parts = decodeCursor(cursor);
+            rows = raceRepository.findSummariesAfter(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]), page);
+        }
+
+        if (rows.size() <= limit) {
+            return new RaceSummaryPageDto(rows, null);
+        }
+        List<RaceSummaryDto> items = new ArrayList<>(rows.subList(0, limit));
+        RaceSummaryDto last = items.get(limit - 1);
+        return new RaceSummaryPageDto(items, encodeCursor(last.getDate(), last.getId()));
+    }
+
+    private String encodeCursor(LocalDateTime date, Long id) {
+        String raw = date + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 2) throw new IllegalArgumentException("cursor");
+            LocalDateTime.parse(parts[0]);
+            Long.parseLong(parts[1]);
+            return parts;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor inválido");
+        }
+    }
+
     public List<Race> findByProvince(String province) { return raceRepository.findByProvince(province); }
     public List<Race> findByType(Type type) { return raceRepository.findByType(type); }
     public List<Race> findByDifficulty(Difficulty difficulty) { return raceRepository.findByDifficulty(difficulty); }
@@ -121,7 +283,7 @@ public class RaceService {
         var u = userRepository.findByEmail(organizerEmail)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found by email"));
 
-        boolean isOrganizator = userRepository.existsByIdAndRole_Name(u.getId(), "organizator");
+        boolean isOrganizator = principals.hasAnyRole(u, "organizator");
         if (!isOrganizator && !isAdmin(u)) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "El usuario debe ser 'organizator' o 'admin'");
         }
@@ -0,0 +1,102 @@
+package com.running.service;
+
+import com.running.repository.RaceRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Plazas libres por carrera en memoria, para no ir a la BD cuando la carrera ya está llena.
+ * <p>
+ * Es solo una pista: quien decide es el UPDATE condicional de
+ * {@link RaceRepository#reserveSlot} (nunca se vende de más). Cada carrera tiene su contador
+ * independiente y se recarga de la BD pasado el TTL, así que otras instancias o cambios de
+ * aforo se ven en unos segundos.
+ * <p>
+ * Las plazas de cada carrera se reparten en franjas (una por núcleo, hasta {@link #MAX_STRIPES});
+ * cada hilo empieza por una franja al azar y solo pasa a las demás si la suya está vacía, así que
+ * las confirmaciones de una carrera muy solicitada no compiten todas por el mismo contador.
+ */
+@Component
+public class RaceSlotPermits {
+
+    static final int MAX_STRIPES = 16;
+    /** Separación entre franjas en el array (16 ints = 64 bytes) para que no compartan línea de caché. */
+    private static final int PAD = 16;
+
+    private final RaceRepository raceRepository;
+    private final long ttlMillis;
+    private final int stripes;
+    private final Map<Long, Slots> slots = new ConcurrentHashMap<>();
+
+    public RaceSlotPermits(RaceRepository raceRepository,
+                           @Value("${running.race-slots.ttl:2s}") Duration ttl) {
+        this.raceRepository = raceRepository;
+        this.ttlMillis = ttl.toMillis();
+        this.stripes = Math.min(MAX_STRIPES, Math.max(1, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /** true si localmente queda plaza (o la carrera no tiene aforo); consume una. */
+    public boolean tryAcquire(Long raceId) {
+        Slots s = current(raceId);
+        if (s.remaining == null) return true;
+        int start = ThreadLocalRandom.current().nextInt(stripes);
+        for (int i = 0; i < stripes; i++) {
+            int idx = ((start + i) % stripes) * PAD;
+            if (s.remaining.getAndUpdate(idx, v -> v > 0 ? v - 1 : v) > 0) return true;
+        }
+        return false;
+    }
+
+    /** Devuelve una plaza (cancelación, o reserva que no llegó a consolidarse). */
+    public void release(Long raceId) {
+        Slots s = slots.get(raceId);
+        if (s != null && s.remaining != null) {
+            s.remaining.incrementAndGet(ThreadLocalRandom.current().nextInt(stripes) * PAD);
+        }
+    }
+
+    /** La BD dice que no hay plaza: se deja a 0 hasta la próxima recarga. */
+    public void markFull(Long raceId) {
+        Slots s = slots.get(raceId);
+        if (s != null && s.remaining != null) {
+            for (int i = 0; i < stripes; i++) s.remaining.set(i * PAD, 0);
+        }
+    }
+
+    /** Olvida el contador (cambio de aforo, borrado de la carrera...). */
+    public void invalidate(Long raceId) {
+        slots.remove(raceId);
+    }
+
+    private Slots current(Long raceId) {
+        long now = System.currentTimeMillis();
+        Slots s = slots.get(raceId);
+        if (s != null && now - s.loadedAt <= ttlMillis) return s;
+        // compute: si varios hilos ven el contador caducado, solo uno lo recarga (si no, cada
+        // recarga repartiría otra vez las mismas plazas)
+        return slots.compute(raceId, (id, old) -> {
+            if (old != null && now - old.loadedAt <= ttlMillis) return old;
+            Integer free = raceRepository.findFreeSlots(id).orElse(null);
+            return new Slots(free == null ? null : spread(Math.max(0, free)), now);
+        });
+    }
+
+    /** Reparte las plazas libres entre las franjas (las primeras se llevan el resto). */
+    private AtomicIntegerArray spread(int free) {
+        AtomicIntegerArray out = new AtomicIntegerArray(stripes * PAD);
+        for (int i = 0; i < stripes; i++) {
+            out.set(i * PAD, free / stripes + (i < free % stripes ? 1 : 0));
+        }
+        return out;
+    }
+
+    /** remaining == null: carrera sin aforo. */
+    private record Slots(AtomicIntegerArray remaining, long loadedAt) {
+    }
+}
@@ -39,9 +39,7 @@ public class ReassignmentQueryService {
             var c = races.get(id);
             var l = latestByRace.get(id);
             if (c != null && l != null) {
-                String fromEmail = (l.getFromUser() != null)
-                        ? l.getFromUser().getEmail()
-                        : "usuario borrado";
+                String fromEmail = fromEmail(l);
 
                 out.add(ReassignedRaceDto.builder()
                         .id(c.getId())
@@ -76,9 +74,7 @@ public class ReassignmentQueryService {
             var c = clubs.get(id);
             var l = latestByClub.get(id);
             if (c != null && l != null) {
-                String fromEmail = (l.getFromUser() != null)
-                        ? l.getFromUser().getEmail()
-                        : "usuario borrado";
+                String fromEmail = fromEmail(l);
 
                 out.add(ReassignedClubDto.builder()
                         .id(c.getId())
@@ -94,4 +90,9 @@ public class ReassignmentQueryService {
         }
         return out;
     }
+
+    /** La copia del log; las filas anteriores a V5 cuyo usuario ya no existe no la tienen. */
+    private static String fromEmail(ReassignmentLog l) {
+        return l.getFromUserEmail() != null ? l.getFromUserEmail() : "usuario borrado";
+    }
 }
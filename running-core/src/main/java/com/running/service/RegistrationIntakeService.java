@@ -0,0 +1,266 @@
+package com.running.service;
+
+import com.running.model.RegistrationTicketDto;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entrada de pre-inscripciones para picos de apertura de carreras.
+ * <ul>
+ *   <li>{@link #submit} deja la petición en una cola acotada y devuelve un ticket al instante.
+ *       Si la cola está llena responde 503 (back-pressure).</li>
+ *   <li>Un único hilo vacía la cola en lotes y los escribe con un INSERT ... ON DUPLICATE KEY UPDATE
+ *       por lotes JDBC (user_race tiene clave compuesta, sin IDENTITY).</li>
+ *   <li>Deduplicación por (uid, carrera): mientras una petición está en cola, repetirla devuelve el
+ *       mismo ticket. En BD la escritura es idempotente, igual que {@link UserRaceService#preRegister}.</li>
+ * </ul>
+ */
+@Service
+public class RegistrationIntakeService {
+
+    public static final String EN_COLA    = "en_cola";
+    public static final String REGISTRADA = "registrada";
+    public static final String RECHAZADA  = "rechazada";
+    public static final String ERROR      = "error";
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO user_race (user_id, race_id, registration_date, status)
+            VALUES (:userId, :raceId, :now, 'pendiente')
+            ON DUPLICATE KEY UPDATE
+                registration_date = IF(status IN ('pendiente', 'confirmada', 'lista_espera'), registration_date, VALUES(registration_date)),
+                status            = IF(status IN ('confirmada', 'lista_espera'), status, 'pendiente')
+            """;
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final int batchSize;
+    private final long retentionMillis;
+
+    private final BlockingQueue<Intake> queue;
+    private final Map<String, Intake> byTicket = new ConcurrentHashMap<>();
+    private final Map<String, Intake> queuedByKey = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+    private Thread drainer;
+
+    public RegistrationIntakeService(NamedParameterJdbcTemplate jdbc,
+                                     @Value("${running.intake.queue-capacity:10000}") int queueCapacity,
+                                     @Value("${running.intake.batch-size:500}") int batchSize,
+                                     @Value("${running.intake.ticket-retention:PT10M}") Duration retention) {
+        this.jdbc = jdbc;
+        this.batchSize = batchSize;
+        this.retentionMillis = retention.toMillis();
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        drainer = new Thread(this::drainLoop, "registration-intake");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        drainer.interrupt();
+        drainer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /** Encola una pre-inscripción; 503 si la cola está llena. */
+    public RegistrationTicketDto submit(String uid, Long raceId) {
+        String key = uid + "|" + raceId;
+        Intake fresh = new Intake(UUID.randomUUID().toString(), uid, raceId);
+
+        Intake existing = queuedByKey.putIfAbsent(key, fresh);
+        if (existing != null) {
+            return existing.toDto();
+        }
+
+        byTicket.put(fresh.ticket, fresh);
+        if (!queue.offer(fresh)) {
+            queuedByKey.remove(key, fresh);
+            byTicket.remove(fresh.ticket);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Demasiadas inscripciones en este momento, inténtalo de nuevo en unos segundos");
+        }
+        return fresh.toDto();
+    }
+
+    public RegistrationTicketDto getTicket(String ticket) {
+        Intake intake = byTicket.get(ticket);
+        if (intake == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Ticket no encontrado");
+        }
+        return intake.toDto();
+    }
+
+    public int queued() {
+        return queue.size();
+    }
+
+    // ---- Hilo de vaciado ----
+
+    private void drainLoop() {
+        List<Intake> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Intake first = queue.poll(1, TimeUnit.SECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    process(batch);
+                    batch.clear();
+                }
+                purgeFinished();
+            } catch (InterruptedException e) {
+                if (!running) {
+                    // Parada: lo que quede se escribe antes de salir
+                    queue.drainTo(batch);
+                    if (!batch.isEmpty()) process(batch);
+                    return;
+                }
+            }
+        }
+    }
+
+    private void process(List<Intake> batch) {
+        try {
+            write(batch);
+        } catch (RuntimeException e) {
+            for (Intake i : batch) {
+                if (EN_COLA.equals(i.status)) i.finish(ERROR, "No se pudo registrar la inscripción");
+            }
+        } finally {
+            for (Intake i : batch) {
+                queuedByKey.remove(i.uid + "|" + i.raceId, i);
+            }
+        }
+    }
+
+    /** Resuelve usuarios, carreras y estados actuales con tres consultas por lote y escribe en un único batch. */
+    private void write(List<Intake> batch) {
+        Set<String> uids = new HashSet<>();
+        Set<Long> raceIds = new HashSet<>();
+        for (Intake i : batch) {
+            uids.add(i.uid);
+            raceIds.add(i.raceId);
+        }
+
+        Map<String, Long> userIds = new HashMap<>();
+        jdbc.query("SELECT id, uid FROM `user` WHERE uid IN (:uids)",
+                new MapSqlParameterSource("uids", uids),
+                rs -> { userIds.put(rs.getString("uid"), rs.getLong("id")); });
+
+        Set<Long> existingRaces = new HashSet<>(jdbc.queryForList(
+                "SELECT id FROM race WHERE id IN (:ids)", new MapSqlParameterSource("ids", raceIds), Long.class));
+
+        Map<String, String> currentStatus = new HashMap<>();
+        if (!userIds.isEmpty() && !existingRaces.isEmpty()) {
+            jdbc.query("""
+                            SELECT user_id, race_id, status FROM user_race
+                            WHERE race_id IN (:raceIds) AND user_id IN (:userIds)
+                            """,
+                    new MapSqlParameterSource("raceIds", existingRaces).addValue("userIds", userIds.values()),
+                    rs -> {
+                        currentStatus.put(rs.getLong("user_id") + "|" + rs.getLong("race_id"),
+                                rs.getString("status") == null ? "" : rs.getString("status").toLowerCase());
+                    });
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Intake> toWrite = new ArrayList<>();
+        List<MapSqlParameterSource> params = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (Intake i : batch) {
+            Long userId = userIds.get(i.uid);
+            if (userId == null) {
+                i.finish(RECHAZADA, "Usuario no encontrado");
+                continue;
+            }
+            if (!existingRaces.contains(i.raceId)) {
+                i.finish(RECHAZADA, "Carrera no encontrada");
+                continue;
+            }
+            String pair = userId + "|" + i.raceId;
+            String status = currentStatus.getOrDefault(pair, "");
+            if ("confirmada".equals(status)) {
+                i.finish(RECHAZADA, "Ya estás inscrito en esta carrera");
+                continue;
+            }
+            if ("pendiente".equals(status) || UserRaceService.LISTA_ESPERA.equals(status) || !seen.add(pair)) {
+                // idempotente
+                i.finish(REGISTRADA, "Inscripción pendiente registrada");
+                continue;
+            }
+            toWrite.add(i);
+            params.add(new MapSqlParameterSource()
+                    .addValue("userId", userId)
+                    .addValue("raceId", i.raceId)
+                    .addValue("now", now));
+        }
+
+        if (!params.isEmpty()) {
+            jdbc.batchUpdate(UPSERT_SQL, params.toArray(new MapSqlParameterSource[0]));
+        }
+        for (Intake i : toWrite) {
+            i.finish(REGISTRADA, "Inscripción pendiente registrada");
+        }
+    }
+
+    private void purgeFinished() {
+        long limit = System.currentTimeMillis() - retentionMillis;
+        byTicket.values().removeIf(i -> i.finishedAt > 0 && i.finishedAt < limit);
+    }
+
+    private static final class Intake {
+        final String ticket;
+        final String uid;
+        final Long raceId;
+        volatile String status = EN_COLA;
+        volatile String message;
+        volatile long finishedAt;
+
+        Intake(String ticket, String uid, Long raceId) {
+            this.ticket = ticket;
+            this.uid = uid;
+            this.raceId = raceId;
+        }
+
+        void finish(String status, String message) {
+            this.message = message;
+            this.finishedAt = System.currentTimeMillis();
+            this.status = status;
+        }
+
+        RegistrationTicketDto toDto() {
+            return RegistrationTicketDto.builder()
+                    .ticket(ticket)
+                    .raceId(raceId)
+                    .status(status)
+                    .message(message)
+                    .build();
+        }
+    }
+}
@@ -3,10 +3,8 @@ package com.running.service;
 import com.running.model.Club;
 import com.running.model.TrainingPlan;
 import com.running.model.TrainingPlanDto;
-import com.running.model.User;
 import com.running.repository.ClubRepository;
 import com.running.repository.TrainingPlanRepository;
-import com.running.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
@@ -21,21 +19,13 @@ public class TrainingPlanService {
 
     private final TrainingPlanRepository trainingPlanRepository;
     private final ClubRepository clubRepository;
-    private final UserRepository userRepository;
+    private final UserPrincipalResolver principals;
 
-    private boolean isAdmin(User u) {
-        return userRepository.existsByIdAndRole_Name(u.getId(), "admin")
-                || userRepository.existsByIdAndRole_Name(u.getId(), "administrator");
-    }
-
-    private boolean isClubAdmin(User u) {
-        return userRepository.existsByIdAndRole_Name(u.getId(), "club-administrator");
-    }
-
-    private User requireAdminOrClubAdmin(String uid) {
-        User u = userRepository.findByUID(uid)
+    /** Solo necesita el rol: se resuelve desde la caché UID→rol. */
+    private void requireAdminOrClubAdmin(String uid) {
+        String role = principals.findRoleByUid(uid)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found by uid"));
-        if (isAdmin(u) || isClubAdmin(u)) return u;
+        if (principals.hasAnyRole(role, "admin", "administrator", "club-administrator")) return;
         throw new ResponseStatusException(HttpStatus.FORBIDDEN, "User must be admin or club-administrator");
     }
 
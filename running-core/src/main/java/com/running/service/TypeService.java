@@ -4,6 +4,9 @@ import com.running.model.Type;
 import com.running.model.TypeDto;
 import com.running.repository.TypeRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -15,6 +18,10 @@ public class TypeService {
 
     private final TypeRepository typeRepository;
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheNames.TYPES, allEntries = true),
+            @CacheEvict(cacheNames = CacheNames.TYPE_BY_ID, allEntries = true)
+    })
     public Type save(TypeDto dto) {
         Type type = Type.builder()
                 .name(dto.getName())
@@ -22,10 +29,12 @@ public class TypeService {
         return typeRepository.save(type);
     }
 
+    @Cacheable(CacheNames.TYPES)
     public List<Type> findAll() {
         return typeRepository.findAll();
     }
 
+    @Cacheable(CacheNames.TYPE_BY_ID)
     public Optional<Type> findById(Long id) {
         return typeRepository.findById(id);
     }
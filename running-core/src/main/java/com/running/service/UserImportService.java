@@ -0,0 +1,423 @@
+package com.running.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.running.model.Club;
+import com.running.model.Role;
+import com.running.model.UserDto;
+import com.running.model.UserImportResultDto;
+import com.running.repository.ClubRepository;
+import com.running.repository.RoleRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+
+/**
+ * Alta masiva de usuarios (CSV o NDJSON de {@link UserDto}) para cuando un club da de alta
+ * a cientos de miembros a la vez.
+ * <ul>
+ *   <li>El fichero se lee en streaming y se procesa por bloques de {@code chunk-size} filas.</li>
+ *   <li>Las cuentas de Firebase se crean en paralelo con {@link FirebaseGateway#createUserAsync},
+ *       sin hilos propios: un semáforo por importación limita las llamadas en vuelo
+ *       ({@code firebase-concurrency}) y el pool, timeout y circuito son los del gateway.</li>
+ *   <li>Las filas que fallan porque Firebase no está disponible se reintentan
+ *       ({@code firebase-retries}, con backoff); si sigue sin estarlo quedan como
+ *       {@value #REINTENTAR} para volver a importarlas más tarde.</li>
+ *   <li>Las filas de user y user_club se insertan con lotes JDBC, en una transacción por bloque.
+ *       Si el bloque falla se borran las cuentas de Firebase que se acababan de crear.</li>
+ *   <li>Roles y club por defecto se resuelven una vez por importación.</li>
+ * </ul>
+ * Devuelve un resultado por fila: las filas con error no detienen la importación.
+ */
+@Service
+public class UserImportService {
+
+    public static final String CREADO = "creado";
+    public static final String ERROR  = "error";
+    public static final String REINTENTAR = "reintentar";
+
+    private static final long DEFAULT_CLUB_ID = 1L;
+
+    private static final ObjectMapper JSON = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final FirebaseGateway firebase;
+    private final RoleRepository roleRepository;
+    private final ClubRepository clubRepository;
+    private final UserPrincipalResolver principals;
+    private final NamedParameterJdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final int chunkSize;
+    private final int firebaseConcurrency;
+    private final int firebaseRetries;
+    private final Duration firebaseRetryBackoff;
+
+    public UserImportService(FirebaseGateway firebase,
+                             RoleRepository roleRepository,
+                             ClubRepository clubRepository,
+                             UserPrincipalResolver principals,
+                             NamedParameterJdbcTemplate jdbc,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${running.user-import.chunk-size:200}") int chunkSize,
+                             @Value("${running.user-import.firebase-concurrency:8}") int firebaseConcurrency,
+                             @Value("${running.user-import.firebase-retries:2}") int firebaseRetries,
+                             @Value("${running.user-import.firebase-retry-backoff:500ms}") Duration firebaseRetryBackoff) {
+        this.firebase = firebase;
+        this.roleRepository = roleRepository;
+        this.clubRepository = clubRepository;
+        this.principals = principals;
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.firebaseConcurrency = firebaseConcurrency;
+        this.firebaseRetries = firebaseRetries;
+        this.firebaseRetryBackoff = firebaseRetryBackoff;
+    }
+
+    public List<UserImportResultDto> importCsv(InputStream in, String actingUid) {
+        return importRows(in, actingUid, true);
+    }
+
+    public List<UserImportResultDto> importNdjson(InputStream in, String actingUid) {
+        return importRows(in, actingUid, false);
+    }
+
+    private List<UserImportResultDto> importRows(InputStream in, String actingUid, boolean csv) {
+        boolean isAdmin = principals.findRoleByUid(actingUid)
+                .map(role -> principals.hasAnyRole(role, "admin"))
+                .orElse(false);
+        if (!isAdmin) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Solo un administrador puede importar usuarios");
+        }
+
+        // Una vez por importación
+        Map<String, Long> roleIds = roleRepository.findAll().stream()
+                .filter(r -> r.getName() != null)
+                .collect(Collectors.toMap(r -> r.getName().toLowerCase(Locale.ROOT), Role::getId, (a, b) -> a));
+        Club defaultClub = clubRepository.findById(DEFAULT_CLUB_ID)
+                .orElseThrow(() -> new RuntimeException("Default club not found"));
+
+        Import imp = new Import(roleIds, defaultClub.getId(), firebaseConcurrency);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String[] header = null;
+            List<Row> chunk = new ArrayList<>(chunkSize);
+            int rowNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) continue;
+                if (csv && header == null) {
+                    header = parseCsvLine(line).toArray(new String[0]);
+                    continue;
+                }
+                Row row = new Row(++rowNumber);
+                if (csv) {
+                    row.dto = toDto(header, parseCsvLine(line));
+                } else {
+                    try {
+                        row.dto = JSON.readValue(line, UserDto.class);
+                    } catch (JsonProcessingException e) {
+                        row.fail("Línea no válida: " + e.getOriginalMessage());
+                    }
+                }
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    processChunk(chunk, imp);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) processChunk(chunk, imp);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error leyendo el fichero de importación", e);
+        }
+        return imp.results;
+    }
+
+    // ---- Bloque ----
+
+    private void processChunk(List<Row> chunk, Import imp) {
+        validate(chunk, imp);
+        rejectExistingEmails(chunk);
+        createFirebaseAccounts(chunk, imp);
+        insertRows(chunk, imp);
+
+        for (Row row : chunk) {
+            imp.results.add(row.toDto());
+        }
+    }
+
+    private void validate(List<Row> chunk, Import imp) {
+        for (Row row : chunk) {
+            if (row.failed()) continue;
+            UserDto dto = row.dto;
+            if (dto.getEmail() == null || dto.getEmail().isBlank()) {
+                row.fail("Email obligatorio");
+            } else if (dto.getPassword() == null || dto.getPassword().length() < 6) {
+                row.fail("Contraseña obligatoria (mínimo 6 caracteres)");
+            } else if (dto.getRole() == null || !imp.roleIds.containsKey(dto.getRole().toLowerCase(Locale.ROOT))) {
+                row.fail("Rol no encontrado: " + dto.getRole());
+            } else if (!imp.emails.add(dto.getEmail().toLowerCase(Locale.ROOT))) {
+                row.fail("Email repetido en el fichero");
+            }
+        }
+    }
+
+    /** Una consulta por bloque para los emails que ya están en la base de datos. */
+    private void rejectExistingEmails(List<Row> chunk) {
+        List<String> emails = chunk.stream().filter(r -> !r.failed()).map(r -> r.dto.getEmail()).toList();
+        if (emails.isEmpty()) return;
+
+        Set<String> existing = new HashSet<>();
+        jdbc.query("SELECT email FROM `user` WHERE email IN (:emails)",
+                new MapSqlParameterSource("emails", emails),
+                rs -> { existing.add(rs.getString("email").toLowerCase(Locale.ROOT)); });
+
+        for (Row row : chunk) {
+            if (!row.failed() && existing.contains(row.dto.getEmail().toLowerCase(Locale.ROOT))) {
+                row.fail("Ya existe un usuario con ese email");
+            }
+        }
+    }
+
+    /**
+     * Crea las cuentas del bloque; las que fallan por indisponibilidad se reintentan con backoff
+     * y, si se agotan los reintentos, se marcan para reintentar más tarde.
+     */
+    private void createFirebaseAccounts(List<Row> chunk, Import imp) {
+        List<Row> pending = chunk.stream().filter(r -> !r.failed()).toList();
+        for (int attempt = 0; !pending.isEmpty(); attempt++) {
+            if (attempt > 0 && !sleep(firebaseRetryBackoff.toMillis() << (attempt - 1))) {
+                for (Row row : pending) row.fail("Importación interrumpida");
+                return;
+            }
+            pending = createBatch(pending, imp);
+            if (attempt >= firebaseRetries) {
+                for (Row row : pending) row.retryLater();
+                return;
+            }
+        }
+    }
+
+    /** Lanza las altas sin pasar de imp.firebasePermits en vuelo; devuelve las filas a reintentar. */
+    private List<Row> createBatch(List<Row> rows, Import imp) {
+        Map<Row, CompletableFuture<String>> calls = new HashMap<>();
+        try {
+            for (Row row : rows) {
+                UserDto dto = row.dto;
+                imp.firebasePermits.acquire();
+                CompletableFuture<String> call;
+                try {
+                    call = firebase.createUserAsync(dto.getEmail(), dto.getPassword(), dto.getName() + " " + dto.getSurname());
+                } catch (RuntimeException e) {
+                    call = CompletableFuture.failedFuture(e);
+                }
+                calls.put(row, call.whenComplete((uid, error) -> imp.firebasePermits.release()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        List<Row> unavailable = new ArrayList<>();
+        for (Row row : rows) {
+            CompletableFuture<String> call = calls.get(row);
+            if (call == null) {
+                row.fail("Importación interrumpida");
+                continue;
+            }
+            try {
+                row.uid = call.get();
+            } catch (ExecutionException ex) {
+                if (ex.getCause() instanceof FirebaseUnavailableException) {
+                    row.unavailable = ex.getCause().getMessage();
+                    unavailable.add(row);
+                } else {
+                    row.fail("Error creando usuario en Firebase: " + ex.getCause().getMessage());
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                // Si la cuenta llega a crearse, sin fila en BD sobra
+                call.thenAccept(firebase::deleteUserEventually);
+                row.fail("Importación interrumpida");
+            }
+        }
+        return unavailable;
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /** Lotes JDBC: user, user_club y el contador del club por defecto, en una transacción. */
+    private void insertRows(List<Row> chunk, Import imp) {
+        List<Row> created = chunk.stream().filter(r -> !r.failed()).toList();
+        if (created.isEmpty()) return;
+
+        try {
+            tx.executeWithoutResult(status -> {
+                MapSqlParameterSource[] users = created.stream()
+                        .map(r -> new MapSqlParameterSource()
+                                .addValue("email", r.dto.getEmail())
+                                .addValue("name", r.dto.getName())
+                                .addValue("surname", r.dto.getSurname())
+                                .addValue("uid", r.uid)
+                                .addValue("roleId", imp.roleIds.get(r.dto.getRole().toLowerCase(Locale.ROOT))))
+                        .toArray(MapSqlParameterSource[]::new);
+                jdbc.batchUpdate("""
+                        INSERT INTO `user` (email, name, surname, uid, role_id)
+                        VALUES (:email, :name, :surname, :uid, :roleId)
+                        """, users);
+
+                List<Long> userIds = jdbc.queryForList("SELECT id FROM `user` WHERE uid IN (:uids)",
+                        new MapSqlParameterSource("uids", created.stream().map(r -> r.uid).toList()), Long.class);
+
+                MapSqlParameterSource[] memberships = userIds.stream()
+                        .map(id -> new MapSqlParameterSource("userId", id).addValue("clubId", imp.defaultClubId))
+                        .toArray(MapSqlParameterSource[]::new);
+                jdbc.batchUpdate("INSERT INTO user_club (user_id, club_id) VALUES (:userId, :clubId)", memberships);
+
+                jdbc.update("UPDATE club SET members = COALESCE(members, 0) + :n WHERE id = :clubId",
+                        new MapSqlParameterSource("n", userIds.size()).addValue("clubId", imp.defaultClubId));
+            });
+        } catch (RuntimeException e) {
+            // Sin filas en BD no deben quedar cuentas huérfanas en Firebase
+            for (Row row : created) {
+                firebase.deleteUserEventually(row.uid);
+                row.uid = null;
+                row.fail("Error guardando el usuario en la base de datos");
+            }
+        }
+    }
+
+    // ---- CSV ----
+
+    private static UserDto toDto(String[] header, List<String> values) {
+        UserDto dto = new UserDto();
+        for (int i = 0; i < header.length && i < values.size(); i++) {
+            String value = values.get(i).isBlank() ? null : values.get(i).trim();
+            switch (header[i].trim().toLowerCase(Locale.ROOT)) {
+                case "email" -> dto.setEmail(value);
+                case "name" -> dto.setName(value);
+                case "surname" -> dto.setSurname(value);
+                case "role" -> dto.setRole(value);
+                case "password" -> dto.setPassword(value);
+                default -> { }
+            }
+        }
+        return dto;
+    }
+
+    /** Separador coma; admite campos entre comillas dobles con "" como comilla escapada. */
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    // ---- Estado ----
+
+    /** Lo que se resuelve una vez por importación. */
+    private static final class Import {
+        final Map<String, Long> roleIds;
+        final Long defaultClubId;
+        final Set<String> emails = new HashSet<>();
+        final List<UserImportResultDto> results = new ArrayList<>();
+        /** Altas de Firebase en vuelo de esta importación. */
+        final Semaphore firebasePermits;
+
+        Import(Map<String, Long> roleIds, Long defaultClubId, int firebaseConcurrency) {
+            this.roleIds = roleIds;
+            this.defaultClubId = defaultClubId;
+            this.firebasePermits = new Semaphore(firebaseConcurrency);
+        }
+    }
+
+    private static final class Row {
+        final int number;
+        UserDto dto;
+        String uid;
+        String error;
+        /** Último motivo por el que Firebase no estaba disponible para esta fila. */
+        String unavailable;
+        boolean retryable;
+
+        Row(int number) {
+            this.number = number;
+        }
+
+        boolean failed() {
+            return error != null;
+        }
+
+        void fail(String message) {
+            this.error = message;
+        }
+
+        /** Firebase siguió sin estar disponible: la fila se puede volver a importar tal cual. */
+        void retryLater() {
+            this.error = "Firebase no disponible, vuelve a importar esta fila más tarde: " + unavailable;
+            this.retryable = true;
+        }
+
+        UserImportResultDto toDto() {
+            return UserImportResultDto.builder()
+                    .row(number)
+                    .email(dto == null ? null : dto.getEmail())
+                    .uid(uid)
+                    .status(retryable ? REINTENTAR : failed() ? ERROR : CREADO)
+                    .message(failed() ? error : "Usuario creado")
+                    .build();
+        }
+    }
+}
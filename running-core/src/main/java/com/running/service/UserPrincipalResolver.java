@@ -0,0 +1,104 @@
+package com.running.service;
+
+import com.running.model.User;
+import com.running.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Resuelve el usuario que actúa (por UID) y su rol para las comprobaciones de permisos.
+ * <ul>
+ *   <li>El usuario se carga con su rol en una sola consulta y se memoriza durante la petición HTTP.</li>
+ *   <li>El nombre del rol se guarda además en una caché UID→rol de TTL corto, para los casos
+ *       en los que solo hace falta comprobar el rol (sin consulta en caso de acierto).</li>
+ * </ul>
+ * Fuera de una petición HTTP (jobs, hilos propios) simplemente no se memoriza.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserPrincipalResolver {
+
+    private static final String REQUEST_ATTRIBUTE = UserPrincipalResolver.class.getName() + ".users";
+
+    private final UserRepository userRepository;
+    private final CacheManager cacheManager;
+
+    /** Usuario (con rol) por UID; como mucho una consulta por petición. */
+    public Optional<User> findByUid(String uid) {
+        if (uid == null) return Optional.empty();
+
+        Map<String, Optional<User>> memo = requestMemo();
+        if (memo != null && memo.containsKey(uid)) {
+            return memo.get(uid);
+        }
+
+        Optional<User> user = userRepository.findByUIDWithRole(uid);
+        if (memo != null) memo.put(uid, user);
+        user.ifPresent(u -> roleCache().put(uid, roleName(u)));
+        return user;
+    }
+
+    /**
+     * Nombre del rol del usuario ("" si no tiene); vacío si el UID no existe.
+     * Sirve desde la caché de roles sin tocar la base de datos cuando hay acierto.
+     */
+    public Optional<String> findRoleByUid(String uid) {
+        if (uid == null) return Optional.empty();
+        String cached = roleCache().get(uid, String.class);
+        if (cached != null) return Optional.of(cached);
+        return findByUid(uid).map(this::roleName);
+    }
+
+    public boolean hasAnyRole(User u, String... roles) {
+        return u != null && matches(roleName(u), roles);
+    }
+
+    public boolean hasAnyRole(String role, String... roles) {
+        return role != null && matches(role, roles);
+    }
+
+    /** Olvida el UID (usuario borrado o con rol cambiado). */
+    public void evict(String uid) {
+        if (uid == null) return;
+        roleCache().evict(uid);
+        Map<String, Optional<User>> memo = requestMemo();
+        if (memo != null) memo.remove(uid);
+    }
+
+    // ---- Helpers ----
+
+    private boolean matches(String role, String... roles) {
+        for (String r : roles) {
+            if (r.equalsIgnoreCase(role)) return true;
+        }
+        return false;
+    }
+
+    private String roleName(User u) {
+        return (u.getRole() != null && u.getRole().getName() != null) ? u.getRole().getName() : "";
+    }
+
+    private Cache roleCache() {
+        return cacheManager.getCache(CacheNames.USER_ROLES);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Optional<User>> requestMemo() {
+        RequestAttributes attrs = RequestContextHolder.getRequestAttributes();
+        if (attrs == null) return null;
+        Object memo = attrs.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (memo == null) {
+            memo = new HashMap<String, Optional<User>>();
+            attrs.setAttribute(REQUEST_ATTRIBUTE, memo, RequestAttributes.SCOPE_REQUEST);
+        }
+        return (Map<String, Optional<User>>) memo;
+    }
+}
@@ -8,12 +8,10 @@ import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
-import java.time.DateTimeException;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -22,10 +20,12 @@ public class UserRaceService {
     private static final String PENDIENTE  = "pendiente";
     private static final String CONFIRMADA = "confirmada";
     private static final String CANCELADA  = "cancelada";
+    public static final String LISTA_ESPERA = "lista_espera";
 
     private final UserRepository userRepository;
     private final RaceRepository raceRepository;
     private final UserRaceRepository userRaceRepository;
+    private final RaceSlotPermits raceSlotPermits;
 
     @Transactional
     public void preRegister(String uid, Long raceId) {
@@ -39,7 +39,7 @@ public class UserRaceService {
             UserRace ur = existingOpt.get();
             String status = ur.getStatus() == null ? "" : ur.getStatus().toLowerCase();
             switch (status) {
-                case PENDIENTE -> { /* idempotente */ return; }
+                case PENDIENTE, LISTA_ESPERA -> { /* idempotente */ return; }
                 case CANCELADA -> { ur.setStatus(PENDIENTE); ur.setRegistrationDate(LocalDateTime.now()); userRaceRepository.save(ur); return; }
                 case CONFIRMADA -> throw new RuntimeException("Ya estás inscrito en esta carrera");
                 default -> { ur.setStatus(PENDIENTE); ur.setRegistrationDate(LocalDateTime.now()); userRaceRepository.save(ur); return; }
@@ -55,8 +55,12 @@ public class UserRaceService {
         userRaceRepository.save(userRace);
     }
 
+    /**
+     * Confirma una inscripción pendiente reservando plaza. Devuelve el estado final:
+     * {@code confirmada}, o {@code lista_espera} si la carrera ya no tiene aforo.
+     */
     @Transactional
-    public void confirmRegistration(String uid, Long raceId) {
+    public String confirmRegistration(String uid, Long raceId) {
         User user = userRepository.findByUID(uid)
                 .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
 
@@ -65,21 +69,26 @@ public class UserRaceService {
 
         String status = ur.getStatus() == null ? "" : ur.getStatus().toLowerCase();
 
-        if (CONFIRMADA.equals(status)) {
-            return;
+        if (CONFIRMADA.equals(status) || LISTA_ESPERA.equals(status)) {
+            return status;
         }
         if (!PENDIENTE.equals(status)) {
             throw new RuntimeException("Solo puedes confirmar una inscripción en estado 'pendiente'");
         }
 
-        ur.setStatus(CONFIRMADA);
-        userRaceRepository.save(ur);
+        // Transición condicional: si otra petición ya la confirmó, no se vuelve a contar
+        if (userRaceRepository.updateStatusIfCurrent(user.getId(), raceId, PENDIENTE, CONFIRMADA) == 0) {
+            // Consulta escalar: ur sigue en caché con el estado que se leyó ('pendiente')
+            return userRaceRepository.findStatusByUserIdAndRaceId(user.getId(), raceId).orElse(null);
+        }
 
-        // ++ inscritos
-        Race race = ur.getRace();
-        int current = race.getRegistered() == null ? 0 : race.getRegistered();
-        race.setRegistered(current + 1);
-        raceRepository.save(race);
+        // Plaza: primero la pista en memoria (sin BD si está llena), luego el UPDATE condicional
+        if (raceSlotPermits.tryAcquire(raceId) && raceRepository.reserveSlot(raceId) == 1) {
+            return CONFIRMADA;
+        }
+        raceSlotPermits.markFull(raceId);
+        userRaceRepository.updateStatusIfCurrent(user.getId(), raceId, CONFIRMADA, LISTA_ESPERA);
+        return LISTA_ESPERA;
     }
 
     @Transactional
@@ -97,32 +106,64 @@ public class UserRaceService {
         }
 
         if (CONFIRMADA.equals(status)) {
-            // -- inscritos
-            Race race = ur.getRace();
-            int current = race.getRegistered() == null ? 0 : race.getRegistered();
-            race.setRegistered(Math.max(0, current - 1));
-            raceRepository.save(race);
+            cancelConfirmed(user.getId(), raceId);
+            return;
         }
 
-        ur.setStatus(CANCELADA);
-        userRaceRepository.save(ur);
+        // pendiente / lista_espera: también condicional, para no pisar una confirmación concurrente
+        // (que ya habría reservado plaza). Si se ha movido entre medias, se vuelve a leer el estado.
+        if (userRaceRepository.updateStatusIfCurrent(user.getId(), raceId, status, CANCELADA) == 1) {
+            return;
+        }
+        String current = userRaceRepository.findStatusByUserIdAndRaceId(user.getId(), raceId)
+                .map(String::toLowerCase)
+                .orElse("");
+        if (CONFIRMADA.equals(current)) {
+            cancelConfirmed(user.getId(), raceId);
+        } else if (!CANCELADA.equals(current)) {
+            userRaceRepository.updateStatusIfCurrent(user.getId(), raceId, current, CANCELADA);
+        }
+    }
+
+    private void cancelConfirmed(Long userId, Long raceId) {
+        if (userRaceRepository.updateStatusIfCurrent(userId, raceId, CONFIRMADA, CANCELADA) == 1) {
+            // -- inscritos (atómico en BD) y la plaza pasa al primero de la lista de espera
+            raceRepository.decrementRegistered(raceId);
+            raceSlotPermits.release(raceId);
+            promoteFromWaitlist(raceId);
+        }
     }
 
 
+    /**
+     * Pasa a confirmada al primero de la lista de espera si hay plaza. Si otro hilo se lleva la
+     * plaza o el candidato antes, se prueba con el siguiente (pocos intentos: no es un bucle de espera).
+     * Devuelve true si ha promocionado a alguien; false si la lista está vacía o no queda plaza.
+     * Se llama dentro de la transacción de quien libera la plaza (baja o aumento de aforo).
+     */
+    public boolean promoteFromWaitlist(Long raceId) {
+        for (int attempt = 0; attempt < 3; attempt++) {
+            Optional<UserRace> next = userRaceRepository
+                    .findFirstByRace_IdAndStatusOrderByRegistrationDateAsc(raceId, LISTA_ESPERA);
+            if (next.isEmpty()) return false;
+
+            Long userId = next.get().getUser().getId();
+            if (userRaceRepository.updateStatusIfCurrent(userId, raceId, LISTA_ESPERA, CONFIRMADA) == 0) {
+                continue;
+            }
+            if (raceRepository.reserveSlot(raceId) == 1) {
+                raceSlotPermits.tryAcquire(raceId);
+                return true;
+            }
+            // Sin plaza (otra confirmación llegó antes): vuelve a la lista
+            userRaceRepository.updateStatusIfCurrent(userId, raceId, CONFIRMADA, LISTA_ESPERA);
+            return false;
+        }
+        return false;
+    }
+
     public List<UserRaceResponseDto> getUserRaceDtos(String uid) {
-        List<UserRace> userRaces = userRaceRepository.findByUser_UID(uid);
-
-        return userRaces.stream().map(ur -> {
-            return UserRaceResponseDto.builder()
-                    .raceId(ur.getRace().getId())
-                    .raceName(ur.getRace().getName())
-                    .place(ur.getRace().getPlace())
-                    .distanceKm(ur.getRace().getDistance_km())
-                    .raceDate(ur.getRace().getDate())
-                    .registrationDate(ur.getRegistrationDate())
-                    .status(ur.getStatus())
-                    .build();
-        }).toList();
+        return userRaceRepository.findResponseDtosByUserUid(uid);
     }
 
     public String getStatus(String uid, Long raceId) {
@@ -134,22 +175,13 @@ public class UserRaceService {
     }
 
     public List<UserRaceResponseDto> getUserRacesByStatus(String uid, String status) {
-        User user = userRepository.findByUID(uid)
-                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+        List<UserRaceResponseDto> result = userRaceRepository.findResponseDtosByUserUidAndStatus(uid, status);
 
-        List<UserRace> userRaces = userRaceRepository.findByUserIdAndStatus(user.getId(), status);
-
-        return userRaces.stream().map(ur -> UserRaceResponseDto.builder()
-                .raceId(ur.getRace().getId())
-                .raceName(ur.getRace().getName())
-                .place(ur.getRace().getPlace())
-                .distanceKm(ur.getRace().getDistance_km())
-                .raceDate(ur.getRace().getDate())
-                .registrationDate(ur.getRegistrationDate())
-                .status(ur.getStatus())
-                .photo(ur.getRace().getPhoto())
-                .build()
-        ).toList();
+        // Solo si no hay filas hace falta distinguir "sin inscripciones" de "usuario inexistente"
+        if (result.isEmpty() && userRepository.findByUID(uid).isEmpty()) {
+            throw new RuntimeException("Usuario no encontrado");
+        }
+        return result;
     }
 
 
@@ -158,20 +190,7 @@ public class UserRaceService {
      * 1️⃣ Listar TODAS las carreras confirmadas (aunque tiempo sea null)
      */
     public List<MarcaDto> obtenerMarcas(String uid) {
-        return userRaceRepository.findByUser_UID(uid)
-                .stream()
-                .filter(ur -> "confirmada".equalsIgnoreCase(ur.getStatus()))
-                .map(ur -> {
-                    MarcaDto dto = new MarcaDto();
-                    dto.setRaceId(ur.getRace().getId());
-                    dto.setRaceDate(ur.getRace().getDate());
-                    dto.setTiempo(ur.getTiempo() != null ? ur.getTiempo().toString() : null);
-                    dto.setPosicion(ur.getPosicion());
-                    dto.setComentarios(ur.getComentarios());
-                    dto.setPace(ur.getPace() != null ? ur.getPace().toString() : null);
-                    return dto;
-                })
-                .collect(Collectors.toList());
+        return userRaceRepository.findConfirmedMarcasByUserUid(uid);
     }
 
 
@@ -208,8 +227,8 @@ public class UserRaceService {
             throw new RuntimeException("Solo se pueden registrar marcas de carreras confirmadas");
         }
 
-        LocalTime parsedTime = parseFlexibleTime(dto.getTiempo());
-        LocalTime parsedPace = parseFlexibleTime(dto.getPace());
+        LocalTime parsedTime = MarcaDto.parseTime(dto.getTiempo());
+        LocalTime parsedPace = MarcaDto.parseTime(dto.getPace());
 
         ur.setTiempo(parsedTime);
         ur.setPosicion(dto.getPosicion());
@@ -238,46 +257,4 @@ public class UserRaceService {
 
         userRaceRepository.save(ur);
     }
-
-
-    private LocalTime parseFlexibleTime(String input) {
-        if (input == null || input.isEmpty()) {
-            throw new RuntimeException("El tiempo no puede estar vacío");
-        }
-
-        String[] parts = input.split(":");
-
-        int hours = 0;
-        int minutes = 0;
-        int seconds = 0;
-
-        try {
-            if (parts.length == 3) {
-                // HH:mm:ss
-                hours = Integer.parseInt(parts[0]);
-                minutes = Integer.parseInt(parts[1]);
-                seconds = Integer.parseInt(parts[2]);
-            } else if (parts.length == 2) {
-                // HH:mm
-                hours = Integer.parseInt(parts[0]);
-                minutes = Integer.parseInt(parts[1]);
-            } else if (parts.length == 1) {
-                // HH
-                hours = Integer.parseInt(parts[0]);
-            } else {
-                throw new RuntimeException("Formato de tiempo inválido. Usa HH:mm:ss, HH:mm o HH.");
-            }
-
-            return LocalTime.of(hours, minutes, seconds);
-
-        } catch (NumberFormatException | DateTimeException e) {
-            throw new RuntimeException(
-                    "El formato del tiempo debe ser HH:mm:ss, HH:mm o HH. Ejemplo: 01:23:45 o 15:45",
-                    e
-            );
-        }
-    }
-
-
 }
-
@@ -3,10 +3,10 @@ package com.running.service;
 import com.running.model.*;
 import com.running.repository.*;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.auth.UserRecord;
-import com.google.firebase.auth.FirebaseAuthException;
+import org.springframework.web.server.ResponseStatusException;
 
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.support.TransactionSynchronization;
@@ -26,6 +26,8 @@ public class UserService {
     private final RoleRepository roleRepository;
     private final RaceRepository raceRepository;
     private final ReassignmentLogRepository reassignmentLogRepository;
+    private final UserPrincipalResolver principals;
+    private final FirebaseGateway firebase;
 
     public User saveFromDto(UserDto dto) {
         Optional<User> existingUserOpt = userRepository.findByEmail(dto.getEmail());
@@ -55,13 +57,8 @@ public class UserService {
         User user = userRepository.findByUID(uid)
                 .orElseThrow(() -> new RuntimeException("User not found with UID: " + uid));
 
-        detachUserFromAllClubs(user);
-
-        // Eliminar inscripciones del usuario en carreras
-        userRaceRepository.deleteAll(userRaceRepository.findByUser_UID(user.getUID()));
-
-        // Borrar usuario
-        userRepository.delete(user);
+        purgeUser(user.getId());
+        principals.evict(uid);
     }
 
     public User findByUID(String uid) {
@@ -83,14 +80,16 @@ public class UserService {
 
         user.getClubs().removeIf(club -> club.getId() == 1L);
 
+        boolean added = false;
         if (!user.getClubs().contains(newClub)) {
             user.getClubs().add(newClub);
+            added = true;
         }
 
-        newClub.setMembers(newClub.getMembers() + 1);
-
-        clubRepository.save(newClub);
         userRepository.save(user);
+        if (added) {
+            clubRepository.incrementMembers(newClubId);
+        }
     }
 
     // ✅ Darse de baja de un club
@@ -103,10 +102,6 @@ public class UserService {
         if (user.getClubs().contains(clubToRemove)) {
             user.getClubs().remove(clubToRemove);
 
-            if (clubToRemove.getMembers() != null && clubToRemove.getMembers() > 0) {
-                clubToRemove.setMembers(clubToRemove.getMembers() - 1);
-            }
-
             if (user.getClubs().isEmpty()) {
                 Club defaultClub = clubRepository.findById(1L)
                         .orElseThrow(() -> new RuntimeException("Default club not found"));
@@ -114,7 +109,7 @@ public class UserService {
             }
 
             userRepository.save(user);
-            clubRepository.save(clubToRemove);
+            clubRepository.decrementMembers(clubId);
         }
     }
 
@@ -134,6 +129,7 @@ public class UserService {
         return userRepository.save(user);
     }
 
+    @Cacheable(CacheNames.ROLE_NAMES)
     public List<String> getAllRoleNames() {
         return roleRepository.findAll()
                 .stream()
@@ -161,26 +157,25 @@ public class UserService {
 
     public User createUserWithFirebase(UserDto dto) {
         try {
-            String password = dto.getPassword();
-            UserRecord.CreateRequest request = new UserRecord.CreateRequest()
-                    .setEmail(dto.getEmail())
-                    .setPassword(password)
-                    .setDisplayName(dto.getName() + " " + dto.getSurname());
+            String uid = firebase.createUser(dto.getEmail(), dto.getPassword(),
+                    dto.getName() + " " + dto.getSurname());
 
-            UserRecord userRecord = FirebaseAuth.getInstance().createUser(request);
-
-            dto.setUid(userRecord.getUid());
+            dto.setUid(uid);
             return saveFromAdminDto(dto);
-        } catch (FirebaseAuthException e) {
+        } catch (FirebaseUnavailableException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Firebase no disponible: " + e.getMessage());
+        } catch (FirebaseGatewayException e) {
             throw new RuntimeException("Error creando usuario en Firebase: " + e.getMessage());
         }
     }
 
     public void deleteUserWithFirebase(String uid) {
         try {
-            FirebaseAuth.getInstance().deleteUser(uid);
+            firebase.deleteUser(uid);
             deleteByUID(uid);
-        } catch (FirebaseAuthException e) {
+        } catch (FirebaseUnavailableException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Firebase no disponible: " + e.getMessage());
+        } catch (FirebaseGatewayException e) {
             throw new RuntimeException("Error deleting user in Firebase: " + e.getMessage());
         }
     }
@@ -191,16 +186,15 @@ public class UserService {
 
         TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
             @Override public void afterCommit() {
-                try {
-                    FirebaseAuth.getInstance().deleteUser(targetUid);
-                } catch (FirebaseAuthException ignored) {}
+                // En segundo plano y con reintentos: el usuario ya no existe en BD
+                firebase.deleteUserEventually(targetUid);
             }
         });
     }
 
     @Transactional
     public void adminDeleteAndReassign(String targetUid, String actingAdminUid) {
-        User admin = userRepository.findByUID(actingAdminUid)
+        User admin = principals.findByUid(actingAdminUid)
                 .orElseThrow(() -> new RuntimeException("Acting admin not found"));
         if (!isAdmin(admin)) throw new RuntimeException("Only ADMIN can perform this action");
         if (actingAdminUid.equals(targetUid)) throw new RuntimeException("Admin cannot delete itself with this flow");
@@ -208,70 +202,50 @@ public class UserService {
         User toDelete = userRepository.findByUID(targetUid)
                 .orElseThrow(() -> new RuntimeException("User to delete not found"));
 
-        // 1) IDs a reasignar
-        List<Long> raceIds = isOrganizator(toDelete)
-                ? raceRepository.findIdsByOrganizer(toDelete) : List.of();
-
-        boolean isClubAdmin = userRepository.existsByIdAndRole_Name(toDelete.getId(), "club-administrator");
-        List<Long> clubIds = isClubAdmin
-                ? clubRepository.findIdsByManager(toDelete) : List.of();
-
-        // 2) Reasignar
-        if (!raceIds.isEmpty()) raceRepository.reassignOrganizer(toDelete, admin);
-        if (!clubIds.isEmpty())   clubRepository.reassignManager(toDelete, admin);
-
-        // 3) Log
-        if (!raceIds.isEmpty()) {
-            var logs = raceIds.stream()
-                    .map(id -> ReassignmentLog.builder()
-                            .entityType(ReassignmentLog.EntityType.RACE)
-                            .entityId(id)
-                            .fromUser(toDelete)
-                            .toUser(admin)
-                            .build())
-                    .toList();
-            reassignmentLogRepository.saveAll(logs);
+        Long fromId = toDelete.getId();
+        Long toId = admin.getId();
+
+        // 1) Log + reasignación: INSERT ... SELECT antes del UPDATE (que cambia el organizador/manager)
+        if (isOrganizator(toDelete)) {
+            if (reassignmentLogRepository.logRaceReassignments(fromId, toId) > 0) {
+                raceRepository.reassignOrganizer(toDelete, admin);
+            }
         }
-        if (!clubIds.isEmpty()) {
-            var logs = clubIds.stream()
-                    .map(id -> ReassignmentLog.builder()
-                            .entityType(ReassignmentLog.EntityType.CLUB)
-                            .entityId(id)
-                            .fromUser(toDelete)
-                            .toUser(admin)
-                            .build())
-                    .toList();
-            reassignmentLogRepository.saveAll(logs);
+        if (principals.hasAnyRole(toDelete, "club-administrator")) {
+            if (reassignmentLogRepository.logClubReassignments(fromId, toId) > 0) {
+                clubRepository.reassignManager(toDelete, admin);
+            }
         }
 
-        detachUserFromAllClubs(toDelete);
-        userRaceRepository.deleteAll(userRaceRepository.findByUser_UID(toDelete.getUID()));
-        userRepository.delete(toDelete);
+        // 2) Borrado en bloque
+        purgeUser(fromId);
+        principals.evict(targetUid);
     }
 
     // ---- Helpers ----
 
-    /** Rompe todas las membresías del usuario vía tabla puente y ajusta el contador de members. */
-    private void detachUserFromAllClubs(User user) {
-        List<Long> clubIds = userRepository.findClubIdsByUserId(user.getId());
+    /**
+     * Borra el usuario y todo lo que cuelga de él con un número fijo de sentencias,
+     * tenga 5 o 50.000 inscripciones: contadores primero (leen las filas que se van a borrar),
+     * luego user_club, user_race, las referencias del log y el propio usuario.
+     */
+    private void purgeUser(Long userId) {
+        clubRepository.decrementMembersOfUserClubs(userId);
+        userRepository.deleteAllClubsByUserId(userId);
 
-        // borrar filas en user_club
-        userRepository.deleteAllClubsByUserId(user.getId());
+        raceRepository.decrementRegisteredOfUserConfirmations(userId);
+        userRaceRepository.deleteAllByUserId(userId);
 
-        // actualizar contador members
-        if (clubIds != null && !clubIds.isEmpty()) {
-            for (Long cid : clubIds) {
-                clubRepository.decrementMembers(cid);
-            }
-        }
+        reassignmentLogRepository.clearFromUser(userId);
+        userRepository.deleteRowById(userId);
     }
 
     private boolean isAdmin(User u) {
-        return userRepository.existsByIdAndRole_Name(u.getId(), "admin");
+        return principals.hasAnyRole(u, "admin");
     }
 
     private boolean isOrganizator(User u) {
-        return userRepository.existsByIdAndRole_Name(u.getId(), "organizator");
+        return principals.hasAnyRole(u, "organizator");
     }
     public UserDto findByEmailDto(String email) {
         User user = userRepository.findByEmail(email)
@@ -2,6 +2,7 @@ package com.running.endpoint.api;
 
 import com.running.model.AdminClubDto;
 import com.running.model.ClubDto;
+import com.running.model.ClubMemberPageDto;
 import com.running.model.UpdateManagerRequest;
 import com.running.model.UserDto;
 import com.running.service.ClubService;
@@ -42,6 +43,16 @@ public class ClubController {
         return ResponseEntity.ok(clubService.getUsersByClub(id));
     }
 
+    // Miembros por páginas (cursor), ordenados por nombre; q filtra por prefijo del nombre
+    @GetMapping("/{id}/members/page")
+    public ResponseEntity<ClubMemberPageDto> getClubMembersPage(
+            @PathVariable Long id,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(clubService.getMembersPage(id, q, cursor, size));
+    }
+
     @GetMapping("/{id}/AdminClub")
     public ResponseEntity<AdminClubDto> getClubManager(@PathVariable Long id) {
         return ResponseEntity.ok(clubService.getManagerOfClub(id));
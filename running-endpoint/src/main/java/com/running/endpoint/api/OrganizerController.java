@@ -1,7 +1,7 @@
 package com.running.endpoint.api;
 
-import com.running.model.Race;
 import com.running.model.RaceDto;
+import com.running.model.RaceResponseDto;
 import com.running.service.OrganizerService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -23,20 +23,20 @@ public class OrganizerController {
     private final OrganizerService service;
 
     @GetMapping("/{uid}/races")
-    public ResponseEntity<List<Race>> myRaces(@PathVariable String uid) {
-        return ResponseEntity.ok(service.listMyRaces(uid));
+    public ResponseEntity<List<RaceResponseDto>> myRaces(@PathVariable String uid) {
+        return ResponseEntity.ok(service.listMyRaces(uid).stream().map(RaceResponseDto::from).toList());
     }
 
     @PostMapping("/{uid}/races")
-    public ResponseEntity<Race> create(@PathVariable String uid, @RequestBody RaceDto body) {
-        return ResponseEntity.ok(service.createAsOrganizer(uid, body));
+    public ResponseEntity<RaceResponseDto> create(@PathVariable String uid, @RequestBody RaceDto body) {
+        return ResponseEntity.ok(RaceResponseDto.from(service.createAsOrganizer(uid, body)));
     }
 
     @PutMapping("/{uid}/races/{id}")
-    public ResponseEntity<Race> update(@PathVariable String uid,
+    public ResponseEntity<RaceResponseDto> update(@PathVariable String uid,
                                        @PathVariable Long id,
                                        @RequestBody RaceDto body) {
-        return ResponseEntity.ok(service.updateMyRace(uid, id, body));
+        return ResponseEntity.ok(RaceResponseDto.from(service.updateMyRace(uid, id, body)));
     }
 
     @DeleteMapping("/{uid}/races/{id}")
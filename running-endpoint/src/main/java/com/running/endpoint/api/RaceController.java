@@ -6,6 +6,10 @@ import com.running.service.DifficultyService;
 import com.running.service.ParticipantService;
 import com.running.service.TypeService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -16,6 +20,7 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Set;
 
 @CrossOrigin(origins = "*")
 @RestController
@@ -28,29 +33,75 @@ public class RaceController {
     private final TypeService typeService;
     private final ParticipantService participantService;
 
+    private static final int FILTER_DEFAULT_SIZE = 50;
+    private static final int FILTER_MAX_SIZE = 200;
+    private static final int SEARCH_DEFAULT_SIZE = 20;
+    private static final int SEARCH_MAX_SIZE = 100;
+    private static final int NEAR_DEFAULT_SIZE = 20;
+    private static final int NEAR_MAX_SIZE = 100;
+    private static final Set<String> FILTER_SORT_FIELDS = Set.of("date", "name", "province", "distance_km", "registered");
+
     @PostMapping(value = "/save", consumes = "application/json", produces = "application/json")
-    public ResponseEntity<Race> addRace(@RequestBody RaceDto request) {
-        return ResponseEntity.ok(raceService.save(request));
+    public ResponseEntity<RaceResponseDto> addRace(@RequestBody RaceDto request) {
+        return ResponseEntity.ok(RaceResponseDto.from(raceService.save(request)));
     }
 
     @GetMapping(value = "/getById", produces = "application/json")
-    public ResponseEntity<Race> getById(@RequestParam Long id) {
-        return ResponseEntity.ok(raceService.findById(id));
+    public ResponseEntity<RaceResponseDto> getById(@RequestParam Long id) {
+        return ResponseEntity.ok(RaceResponseDto.from(raceService.findById(id)));
     }
 
+    /** @deprecated devuelve todas las entidades de golpe; usar /catalog (paginado por cursor). */
+    @Deprecated
     @GetMapping(value = "/getAll", produces = "application/json")
-    public ResponseEntity<List<Race>> getAllRaces() {
-        return ResponseEntity.ok(raceService.findAll());
+    public ResponseEntity<List<RaceResponseDto>> getAllRaces() {
+        return ResponseEntity.ok(toResponse(raceService.findAll()));
+    }
+
+    /** Catálogo paginado por cursor: pasar el nextCursor de la respuesta anterior para la siguiente página. */
+    @GetMapping(value = "/catalog", produces = "application/json")
+    public ResponseEntity<RaceSummaryPageDto> getCatalog(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(raceService.findCatalog(cursor, size));
+    }
+
+    /** Búsqueda por texto (nombre, lugar, provincia), tolerante a tildes, prefijos y erratas. */
+    @GetMapping(value = "/search", produces = "application/json")
+    public ResponseEntity<RaceSearchPageDto> search(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+        int p = (page == null || page < 0) ? 0 : page;
+        int s = (size == null || size <= 0) ? SEARCH_DEFAULT_SIZE : Math.min(size, SEARCH_MAX_SIZE);
+        return ResponseEntity.ok(raceService.search(q, p, s));
+    }
+
+    /** Carreras a menos de radiusKm km (50 por defecto, máximo 500) del punto, de la más cercana a la más lejana. */
+    @GetMapping(value = "/near", produces = "application/json")
+    public ResponseEntity<RaceNearPageDto> near(
+            @RequestParam Double lat,
+            @RequestParam Double lon,
+            @RequestParam(required = false) Double radiusKm,
+            @RequestParam(required = false) Boolean finalizada,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+        int p = (page == null || page < 0) ? 0 : page;
+        int s = (size == null || size <= 0) ? NEAR_DEFAULT_SIZE : Math.min(size, NEAR_MAX_SIZE);
+        return ResponseEntity.ok(raceService.near(lat, lon, radiusKm, finalizada, p, s));
     }
 
     @GetMapping(value = "/filter", produces = "application/json")
-    public ResponseEntity<List<Race>> filterRaces(
+    public ResponseEntity<List<RaceResponseDto>> filterRaces(
             @RequestParam(required = false) String province,
             @RequestParam(required = false, name = "fechaDesde") String fechaDesdeStr,
             @RequestParam(required = false, name = "fechaHasta") String fechaHastaStr,
             @RequestParam(required = false) Long typeId,
             @RequestParam(required = false) Long difficultyId,
-            @RequestParam(required = false) Boolean finalizada
+            @RequestParam(required = false) Boolean finalizada,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort
     ) {
         LocalDateTime from = parseStart(fechaDesdeStr);
         LocalDateTime to   = parseEnd(fechaHastaStr);
@@ -62,10 +113,63 @@ public class RaceController {
             );
         }
 
-        List<Race> result = raceService.filterRaces(
-                province, from, to, typeId, difficultyId, finalizada
+        if (page == null && size == null && sort == null) {
+            List<Race> result = raceService.filterRaces(
+                    province, from, to, typeId, difficultyId, finalizada
+            );
+            return ResponseEntity.ok(toResponse(result));
+        }
+
+        Page<Race> result = raceService.filterRaces(
+                province, from, to, typeId, difficultyId, finalizada, toPageable(page, size, sort)
         );
-        return ResponseEntity.ok(result);
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(result.getTotalElements()))
+                .body(toResponse(result.getContent()));
+    }
+
+    /** Recuentos por provincia, tipo, dificultad y por celebrar/celebradas para los filtros de /filter. */
+    @GetMapping(value = "/facets", produces = "application/json")
+    public ResponseEntity<RaceFacetsDto> facets(
+            @RequestParam(required = false) String province,
+            @RequestParam(required = false, name = "fechaDesde") String fechaDesdeStr,
+            @RequestParam(required = false, name = "fechaHasta") String fechaHastaStr,
+            @RequestParam(required = false) Long typeId,
+            @RequestParam(required = false) Long difficultyId,
+            @RequestParam(required = false) Boolean finalizada
+    ) {
+        LocalDateTime from = parseStart(fechaDesdeStr);
+        LocalDateTime to   = parseEnd(fechaHastaStr);
+
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "fechaDesde no puede ser posterior a fechaHasta"
+            );
+        }
+        return ResponseEntity.ok(raceService.facets(province, from, to, typeId, difficultyId, finalizada));
+    }
+
+    private List<RaceResponseDto> toResponse(List<Race> races) {
+        return races.stream().map(RaceResponseDto::from).toList();
+    }
+
+    /** sort admite "campo" o "campo,asc|desc" sobre un conjunto cerrado de columnas indexables. */
+    private Pageable toPageable(Integer page, Integer size, String sort) {
+        int p = (page == null || page < 0) ? 0 : page;
+        int s = (size == null || size <= 0) ? FILTER_DEFAULT_SIZE : Math.min(size, FILTER_MAX_SIZE);
+        if (sort == null || sort.isBlank()) {
+            return PageRequest.of(p, s);
+        }
+        String[] parts = sort.trim().split(",");
+        String field = parts[0].trim();
+        if (!FILTER_SORT_FIELDS.contains(field)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "sort debe ser uno de " + FILTER_SORT_FIELDS);
+        }
+        Sort.Direction dir = (parts.length > 1 && "desc".equalsIgnoreCase(parts[1].trim()))
+                ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return PageRequest.of(p, s, Sort.by(new Sort.Order(dir, field), new Sort.Order(dir, "id")));
     }
 
     // ---- Helpers a formatos típicos ----
@@ -100,27 +204,27 @@ public class RaceController {
     }
 
     @GetMapping(value = "/getByProvince", produces = "application/json")
-    public ResponseEntity<List<Race>> getByProvince(@RequestParam String province) {
-        return ResponseEntity.ok(raceService.findByProvince(province));
+    public ResponseEntity<List<RaceResponseDto>> getByProvince(@RequestParam String province) {
+        return ResponseEntity.ok(toResponse(raceService.findByProvince(province)));
     }
 
     @GetMapping(value = "/getByType", produces = "application/json")
-    public ResponseEntity<List<Race>> getByType(@RequestParam Long typeId) {
+    public ResponseEntity<List<RaceResponseDto>> getByType(@RequestParam Long typeId) {
         Type type = typeService.findById(typeId)
                 .orElseThrow(() -> new RuntimeException("Type not found with id: " + typeId));
-        return ResponseEntity.ok(raceService.findByType(type));
+        return ResponseEntity.ok(toResponse(raceService.findByType(type)));
     }
 
     @GetMapping(value = "/getByDifficulty", produces = "application/json")
-    public ResponseEntity<List<Race>> getByDifficulty(@RequestParam Long difficultyId) {
+    public ResponseEntity<List<RaceResponseDto>> getByDifficulty(@RequestParam Long difficultyId) {
         Difficulty difficulty = difficultyService.findById(difficultyId)
                 .orElseThrow(() -> new RuntimeException("Difficulty not found with id: " + difficultyId));
-        return ResponseEntity.ok(raceService.findByDifficulty(difficulty));
+        return ResponseEntity.ok(toResponse(raceService.findByDifficulty(difficulty)));
     }
 
     @GetMapping(value = "/getByOrganizer", produces = "application/json")
-    public ResponseEntity<List<Race>> getByOrganizer(@RequestParam Long organizerUserId) {
-        return ResponseEntity.ok(raceService.findByOrganizer(organizerUserId));
+    public ResponseEntity<List<RaceResponseDto>> getByOrganizer(@RequestParam Long organizerUserId) {
+        return ResponseEntity.ok(toResponse(raceService.findByOrganizer(organizerUserId)));
     }
 
     /* ===== NUEVO: organizer de una carrera ===== */
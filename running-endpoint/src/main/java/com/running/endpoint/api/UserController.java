@@ -1,11 +1,13 @@
 package com.running.endpoint.api;
 
 import com.running.model.*;
+import com.running.service.UserImportService;
 import com.running.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.List;
 
 @CrossOrigin(origins = "*")
@@ -15,6 +17,7 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final UserImportService userImportService;
 
     @PutMapping("/{uid}/join-club/{clubId}")
     public ResponseEntity<String> joinClub(@PathVariable String uid, @PathVariable Long clubId) {
@@ -82,6 +85,21 @@ public class UserController {
         return ResponseEntity.ok(user);
     }
 
+    // Alta masiva: CSV (cabecera email,name,surname,role,password) o NDJSON de UserDto, leído en streaming
+    @PostMapping(value = "/admin-import", consumes = "text/csv")
+    public ResponseEntity<List<UserImportResultDto>> importUsersCsv(
+            @RequestParam("actingUid") String actingUid,
+            InputStream body) {
+        return ResponseEntity.ok(userImportService.importCsv(body, actingUid));
+    }
+
+    @PostMapping(value = "/admin-import", consumes = "application/x-ndjson")
+    public ResponseEntity<List<UserImportResultDto>> importUsersNdjson(
+            @RequestParam("actingUid") String actingUid,
+            InputStream body) {
+        return ResponseEntity.ok(userImportService.importNdjson(body, actingUid));
+    }
+
     @DeleteMapping("/admin-delete/{uid}")
     public ResponseEntity<String> adminDelete(
             @PathVariable String uid,
@@ -1,8 +1,10 @@
 package com.running.endpoint.api;
 
 import com.running.model.MarcaDto;
+import com.running.model.RegistrationTicketDto;
 import com.running.model.UserRace;
 import com.running.model.UserRaceResponseDto;
+import com.running.service.RegistrationIntakeService;
 import com.running.service.UserRaceService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -19,6 +21,7 @@ import java.util.Map;
 public class UserRaceController {
 
     private final UserRaceService userRaceService;
+    private final RegistrationIntakeService registrationIntakeService;
 
     @PostMapping("/pre-register/{raceId}")
     public ResponseEntity<String> preRegister(@PathVariable Long raceId, @RequestParam String uid) {
@@ -26,9 +29,23 @@ public class UserRaceController {
         return ResponseEntity.ok("Inscripción pendiente registrada");
     }
 
+    // Modo cola para aperturas de carreras: 202 + ticket, 503 si la cola está llena
+    @PostMapping("/pre-register/{raceId}/async")
+    public ResponseEntity<RegistrationTicketDto> preRegisterAsync(@PathVariable Long raceId, @RequestParam String uid) {
+        return ResponseEntity.accepted().body(registrationIntakeService.submit(uid, raceId));
+    }
+
+    @GetMapping("/intake/{ticket}")
+    public ResponseEntity<RegistrationTicketDto> getIntakeStatus(@PathVariable String ticket) {
+        return ResponseEntity.ok(registrationIntakeService.getTicket(ticket));
+    }
+
     @PutMapping("/confirm/{raceId}")
     public ResponseEntity<String> confirm(@PathVariable Long raceId, @RequestParam String uid) {
-        userRaceService.confirmRegistration(uid, raceId);
+        String status = userRaceService.confirmRegistration(uid, raceId);
+        if (UserRaceService.LISTA_ESPERA.equals(status)) {
+            return ResponseEntity.ok("Carrera completa: inscripción en lista de espera");
+        }
         return ResponseEntity.ok("Inscripción confirmada");
     }
 